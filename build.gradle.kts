@@ -2,6 +2,7 @@ plugins {
     application
     id("tai-e.conventions")
     id("maven-publish.conventions")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = projectGroupId
@@ -95,6 +96,16 @@ task("testTaieTestSuite", type = Test::class) {
     }
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    // Allows benchmarks to reuse test resources (e.g., src/test/resources/pta)
+    includeTests.set(true)
+    // Whole-program analyses need much more heap than the JMH default
+    jvmArgsAppend.add("-Xmx8G")
+    // Benchmarks to run can be selected by '-Pjmh.includes=<regex>'
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
 // Automatically agree the Gradle ToS when running gradle with '--scan' option
 extensions.findByName("buildScan")?.withGroovyBuilder {
     setProperty("termsOfServiceUrl", "https://gradle.com/terms-of-service")
@@ -0,0 +1,104 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie;
+
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigManager;
+import pascal.taie.config.Configs;
+import pascal.taie.config.Options;
+import pascal.taie.config.PlanConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import picocli.CommandLine;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Helpers shared by JMH benchmarks, for building the world and
+ * creating analysis configurations outside Tai-e's command-line flow.
+ */
+public final class BenchmarkHelper {
+
+    /**
+     * Default class path of benchmark programs, i.e., the tests of
+     * pointer analysis, which are always available in the repository.
+     */
+    public static final String DEFAULT_CLASS_PATH = "src/test/resources/pta/basic";
+
+    private BenchmarkHelper() {
+    }
+
+    /**
+     * Builds the world for the program in {@code classPath}.
+     *
+     * @param javaVersion the version of Java library to analyze,
+     *                    or 0 to prepend JVM's class path.
+     */
+    public static void buildWorld(String classPath, String mainClass, int javaVersion) {
+        if (javaVersion > 0) {
+            Main.buildWorld("-java", Integer.toString(javaVersion),
+                    "-cp", classPath, "-m", mainClass);
+        } else {
+            Main.buildWorld("-pp", "-cp", classPath, "-m", mainClass);
+        }
+    }
+
+    /**
+     * Creates the configuration of analysis {@code id} with default
+     * options (from tai-e-analyses.yml) overwritten by {@code options},
+     * which is given in the same format as command-line option
+     * {@code -a}, e.g., "cs:2-obj;only-app:true".
+     */
+    public static AnalysisConfig getConfig(String id, String options) {
+        List<AnalysisConfig> configs = AnalysisConfig.parseConfigs(
+                Configs.getAnalysisConfig());
+        // Options.parse() is not used as it dumps options to output directory
+        Options opts = CommandLine.populateCommand(
+                new Options(), "-a", id + "=" + options);
+        new ConfigManager(configs).overwriteOptions(PlanConfig.readConfigs(opts));
+        return configs.stream()
+                .filter(config -> config.getId().equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Analysis " + id + " is not found"));
+    }
+
+    /**
+     * @return IRs of at most {@code limit} non-abstract methods in the world,
+     * where the methods of application classes come first.
+     */
+    public static List<IR> getIRs(int limit) {
+        var hierarchy = World.get().getClassHierarchy();
+        return Stream.concat(
+                        hierarchy.applicationClasses(),
+                        hierarchy.allClasses().filter(c -> !c.isApplication()))
+                .map(JClass::getDeclaredMethods)
+                .flatMap(methods -> methods.stream()
+                        .filter(m -> !m.isAbstract() && !m.isNative()))
+                .limit(limit)
+                .map(JMethod::getIR)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.BenchmarkHelper;
+import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
+import pascal.taie.analysis.dataflow.analysis.LiveVariable;
+import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the data-flow {@link Solver} on intraprocedural analyses.
+ * CFGs are built in setup, so that the results only account for solving.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataflowSolverBenchmark {
+
+    @Param({ReachingDefinition.ID, LiveVariable.ID, ConstantPropagation.ID})
+    private String analysis;
+
+    /**
+     * The solver to use. The bit-vector solver only applies to gen/kill
+     * analyses, thus live variable analysis is run in non-strongly mode,
+     * and constant propagation falls back to the work-list solver.
+     */
+    @Param({"bit-vector", "worklist", "basic-block"})
+    private String solver;
+
+    /**
+     * Maximum number of methods to analyze.
+     */
+    @Param({"2000"})
+    private int nMethods;
+
+    private List<IR> irs;
+
+    private AnalysisDriver<?, ?> driver;
+
+    @Setup
+    public void setup() {
+        BenchmarkHelper.buildWorld(BenchmarkHelper.DEFAULT_CLASS_PATH,
+                "LinkedQueue", 0);
+        irs = BenchmarkHelper.getIRs(nMethods);
+        CFGBuilder cfgBuilder = new CFGBuilder(
+                BenchmarkHelper.getConfig(CFGBuilder.ID, ""));
+        irs.forEach(ir -> ir.storeResult(CFGBuilder.ID, cfgBuilder.analyze(ir)));
+        String blockOpt = "basic-block:" + solver.equals("basic-block");
+        String solverOpts = "bit-vector:" + solver.equals("bit-vector") + ";" + blockOpt;
+        driver = switch (analysis) {
+            case ReachingDefinition.ID -> new ReachingDefinition(
+                    BenchmarkHelper.getConfig(analysis, solverOpts));
+            case LiveVariable.ID -> new LiveVariable(
+                    BenchmarkHelper.getConfig(analysis, "strongly:false;" + solverOpts));
+            case ConstantPropagation.ID -> new ConstantPropagation(
+                    BenchmarkHelper.getConfig(analysis, blockOpt));
+            default -> throw new IllegalArgumentException(
+                    "Unsupported analysis: " + analysis);
+        };
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(driver.analyze(ir));
+        }
+    }
+}
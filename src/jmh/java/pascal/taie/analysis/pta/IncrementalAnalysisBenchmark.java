@@ -0,0 +1,135 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.BenchmarkHelper;
+import pascal.taie.config.AnalysisConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time of from-scratch and incremental pointer analysis.
+ * For incremental mode, the solver state is saved by analyzing the program
+ * in {@code baseClassPath} (by default, the same as {@code classPath})
+ * before the measurement. To measure the analysis after code changes,
+ * specify the original version of the program via {@code -p baseClassPath=...}
+ * and the changed version via {@code -p classPath=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IncrementalAnalysisBenchmark {
+
+    @Param({BenchmarkHelper.DEFAULT_CLASS_PATH})
+    private String classPath;
+
+    /**
+     * Class path of the program analyzed to save solver state,
+     * empty means the same as {@code classPath}.
+     */
+    @Param({""})
+    private String baseClassPath;
+
+    @Param({"LinkedQueue"})
+    private String mainClass;
+
+    /**
+     * Version of Java library, 0 means using the library of current JVM.
+     */
+    @Param({"0"})
+    private int javaVersion;
+
+    @Param({"scratch", "incremental"})
+    private String mode;
+
+    /**
+     * Solver state of the base program.
+     */
+    private File baseStateFile;
+
+    /**
+     * Solver state used (and overwritten) by each analysis.
+     */
+    private File stateFile;
+
+    private AnalysisConfig config;
+
+    @Setup
+    public void setup() throws IOException {
+        String options = "cs:ci";
+        if (mode.equals("incremental")) {
+            baseStateFile = File.createTempFile("pta-base-state", ".bin");
+            stateFile = File.createTempFile("pta-state", ".bin");
+            baseStateFile.delete();
+            // save the solver state of the base program
+            BenchmarkHelper.buildWorld(baseClassPath.isEmpty()
+                    ? classPath : baseClassPath, mainClass, javaVersion);
+            new PointerAnalysis(BenchmarkHelper.getConfig(PointerAnalysis.ID,
+                    options + ";incremental:" + baseStateFile.getPath())).analyze();
+            options += ";incremental:" + stateFile.getPath();
+        }
+        BenchmarkHelper.buildWorld(classPath, mainClass, javaVersion);
+        config = BenchmarkHelper.getConfig(PointerAnalysis.ID, options);
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreState() throws IOException {
+        if (stateFile != null) {
+            Files.copy(baseStateFile.toPath(), stateFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        return new PointerAnalysis(config).analyze();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (stateFile != null) {
+            stateFile.delete();
+            baseStateFile.delete();
+        }
+    }
+}
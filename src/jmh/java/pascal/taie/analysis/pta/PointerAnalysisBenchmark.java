@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.BenchmarkHelper;
+import pascal.taie.config.AnalysisConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks whole-program pointer analysis. By default, it analyzes
+ * a small test program, and other programs (e.g., the ones in
+ * java-benchmarks) can be analyzed by overwriting the parameters
+ * (e.g., JMH option {@code -p classPath=...}), and different solver
+ * strategies can be compared by {@code -p options=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PointerAnalysisBenchmark {
+
+    @Param({BenchmarkHelper.DEFAULT_CLASS_PATH})
+    private String classPath;
+
+    @Param({"LinkedQueue"})
+    private String mainClass;
+
+    /**
+     * Version of Java library, 0 means using the library of current JVM.
+     */
+    @Param({"0"})
+    private int javaVersion;
+
+    /**
+     * Options of pointer analysis, in the same format as
+     * command-line option {@code -a}.
+     */
+    @Param({"cs:ci", "cs:2-obj"})
+    private String options;
+
+    private AnalysisConfig config;
+
+    @Setup
+    public void setup() {
+        BenchmarkHelper.buildWorld(classPath, mainClass, javaVersion);
+        config = BenchmarkHelper.getConfig(PointerAnalysis.ID, options);
+    }
+
+    @Benchmark
+    public PointerAnalysisResult analyze() {
+        return new PointerAnalysis(config).analyze();
+    }
+}
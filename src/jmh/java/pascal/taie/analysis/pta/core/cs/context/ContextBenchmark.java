@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks context creation by {@link TrieContext.Factory}, which is
+ * performed by context selectors at each call site and allocation site.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+
+    /**
+     * Context length limit, i.e., the k of k-limiting context sensitivity.
+     */
+    @Param({"1", "2", "3"})
+    private int limit;
+
+    /**
+     * Number of distinct context elements.
+     */
+    @Param({"1024"})
+    private int nElems;
+
+    private TrieContext.Factory<Integer> factory;
+
+    private Integer[] elems;
+
+    private Context[] contexts;
+
+    @Setup
+    public void setup() {
+        factory = new TrieContext.Factory<>();
+        elems = new Integer[nElems];
+        contexts = new Context[nElems];
+        Context ctx = factory.getEmptyContext();
+        for (int i = 0; i < nElems; ++i) {
+            elems[i] = i;
+            ctx = factory.append(ctx, elems[i], limit);
+            contexts[i] = ctx;
+        }
+    }
+
+    /**
+     * Appends every element to every (existing) context, so that
+     * this benchmark measures lookup of the context trie.
+     */
+    @Benchmark
+    public void append(Blackhole bh) {
+        for (int i = 0; i < nElems; ++i) {
+            bh.consume(factory.append(contexts[i],
+                    elems[(i * 31) % nElems], limit));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.BenchmarkHelper;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.Type;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks retrieval of context-sensitive elements from
+ * {@link CSManager}s, which the solver performs whenever
+ * it processes statements and points-to sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSManagerBenchmark {
+
+    /**
+     * Implementation of CSManager, i.e., value of option cs-manager.
+     */
+    @Param({"map", "array"})
+    private String manager;
+
+    /**
+     * Number of contexts of each variable/object.
+     */
+    @Param({"1", "16"})
+    private int nContexts;
+
+    /**
+     * Maximum number of methods whose variables are retrieved.
+     */
+    @Param({"1000"})
+    private int nMethods;
+
+    private CSManager csManager;
+
+    private Context[] contexts;
+
+    private Var[] vars;
+
+    private CSObj[] objs;
+
+    private JField[] fields;
+
+    @Setup
+    public void setup() {
+        BenchmarkHelper.buildWorld(BenchmarkHelper.DEFAULT_CLASS_PATH,
+                "LinkedQueue", 0);
+        TrieContext.Factory<Integer> factory = new TrieContext.Factory<>();
+        contexts = new Context[nContexts];
+        for (int i = 0; i < nContexts; ++i) {
+            contexts[i] = factory.make(i);
+        }
+        vars = BenchmarkHelper.getIRs(nMethods)
+                .stream()
+                .map(IR::getVars)
+                .flatMap(List::stream)
+                .toArray(Var[]::new);
+        fields = World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredFields().stream())
+                .filter(f -> !f.isStatic())
+                .toArray(JField[]::new);
+        csManager = manager.equals("array") ?
+                new ArrayBasedCSManager() : new MapBasedCSManager();
+        Type type = World.get().getTypeSystem().getClassType("java.lang.Object");
+        objs = new CSObj[vars.length];
+        for (int i = 0; i < objs.length; ++i) {
+            objs[i] = csManager.getCSObj(contexts[i % nContexts],
+                    new MockObj(() -> "BenchmarkObj", i, type, null, false));
+        }
+        // populates the manager, so that benchmarks measure lookups
+        getCSVars(null);
+        getInstanceFields(null);
+    }
+
+    @Benchmark
+    public void getCSVars(Blackhole bh) {
+        for (Context context : contexts) {
+            for (Var var : vars) {
+                CSVar csVar = csManager.getCSVar(context, var);
+                if (bh != null) {
+                    bh.consume(csVar);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void getInstanceFields(Blackhole bh) {
+        for (CSObj obj : objs) {
+            for (JField field : fields) {
+                InstanceField iField = csManager.getInstanceField(obj, field);
+                if (bh != null) {
+                    bh.consume(iField);
+                }
+            }
+        }
+    }
+}
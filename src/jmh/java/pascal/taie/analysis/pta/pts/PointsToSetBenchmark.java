@@ -0,0 +1,129 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.BenchmarkHelper;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.type.Type;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PointsToSet} operations used by the solver
+ * when propagating points-to information.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointsToSetBenchmark {
+
+    /**
+     * Number of objects in each operand.
+     */
+    @Param({"4", "64", "1024"})
+    private int size;
+
+    /**
+     * Number of distinct objects.
+     */
+    @Param({"16384"})
+    private int nObjs;
+
+    private PointsToSetFactory factory;
+
+    private PointsToSet base;
+
+    private PointsToSet other;
+
+    @Setup
+    public void setup() {
+        BenchmarkHelper.buildWorld(BenchmarkHelper.DEFAULT_CLASS_PATH,
+                "LinkedQueue", 0);
+        Type type = World.get().getTypeSystem().getClassType("java.lang.Object");
+        ContextSelector selector = ContextSelectorFactory.makeCISelector();
+        Context ctx = selector.getEmptyContext();
+        CSManager csManager = new MapBasedCSManager();
+        CSObj[] objs = new CSObj[nObjs];
+        for (int i = 0; i < nObjs; ++i) {
+            objs[i] = csManager.getCSObj(ctx,
+                    new MockObj(() -> "BenchmarkObj", i, type, null, false));
+        }
+        factory = new PointsToSetFactory(csManager.getObjectIndexer());
+        Random random = new Random(0);
+        base = newPointsToSet(objs, random);
+        other = newPointsToSet(objs, random);
+    }
+
+    private PointsToSet newPointsToSet(CSObj[] objs, Random random) {
+        PointsToSet pts = factory.make();
+        for (int i = 0; i < size; ++i) {
+            pts.addObject(objs[random.nextInt(objs.length)]);
+        }
+        return pts;
+    }
+
+    /**
+     * Measures {@link PointsToSet#addAllDiff(PointsToSet)}, which is
+     * performed by the solver for each work list entry. The result
+     * includes the cost of copying the target set.
+     */
+    @Benchmark
+    public PointsToSet addAllDiff() {
+        return base.copy().addAllDiff(other);
+    }
+
+    @Benchmark
+    public PointsToSet copy() {
+        return base.copy();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (CSObj obj : base) {
+            bh.consume(obj);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the bit set operations which dominate points-to set
+ * propagation, i.e., union with difference and iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitSetBenchmark {
+
+    @Param({"true", "false"})
+    private boolean sparse;
+
+    /**
+     * Number of bits set in each operand.
+     */
+    @Param({"16", "1024"})
+    private int size;
+
+    /**
+     * Upper bound (exclusive) of the bits set in operands.
+     */
+    @Param({"65536"})
+    private int universe;
+
+    private IBitSet base;
+
+    private IBitSet other;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        base = newBitSet(random);
+        other = newBitSet(random);
+    }
+
+    private IBitSet newBitSet(Random random) {
+        IBitSet set = IBitSet.newBitSet(sparse);
+        for (int i = 0; i < size; ++i) {
+            set.set(random.nextInt(universe));
+        }
+        return set;
+    }
+
+    @Benchmark
+    public IBitSet orDiff() {
+        IBitSet set = IBitSet.newBitSet(sparse);
+        set.or(base);
+        return set.orDiff(other);
+    }
+
+    @Benchmark
+    public boolean or() {
+        IBitSet set = IBitSet.newBitSet(sparse);
+        set.or(base);
+        return set.or(other);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (int i = base.nextSetBit(0); i >= 0; i = base.nextSetBit(i + 1)) {
+            bh.consume(i);
+        }
+    }
+}
@@ -23,7 +23,6 @@
 package pascal.taie;
 
 import pascal.taie.config.Options;
-import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.ir.IRBuilder;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JMethod;
@@ -31,10 +30,6 @@ import pascal.taie.language.natives.NativeModel;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.AbstractResultHolder;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -70,11 +65,9 @@ public final class World extends AbstractResultHolder
     private ClassHierarchy classHierarchy;
 
     /**
-     * Notes: add {@code transient} to wrap this {@link IRBuilder} using
-     * {@link pascal.taie.frontend.cache.CachedIRBuilder} in serialization.
-     *
-     * @see #writeObject(ObjectOutputStream)
-     * @see #readObject(ObjectInputStream)
+     * Notes: This field is {@code transient} because the IRs are
+     * serialized separately by the world cache, which sets
+     * {@link pascal.taie.frontend.cache.CachedIRBuilder} after deserialization.
      */
     private transient IRBuilder irBuilder;
 
@@ -174,17 +167,4 @@ public final class World extends AbstractResultHolder
     public void setImplicitEntries(Collection<JMethod> implicitEntries) {
         this.implicitEntries = implicitEntries;
     }
-
-    @Serial
-    private void writeObject(ObjectOutputStream s) throws IOException {
-        s.defaultWriteObject();
-        s.writeObject(new CachedIRBuilder(irBuilder, classHierarchy));
-    }
-
-    @Serial
-    private void readObject(ObjectInputStream s) throws IOException,
-            ClassNotFoundException {
-        s.defaultReadObject();
-        irBuilder = (IRBuilder) s.readObject();
-    }
 }
@@ -37,21 +37,52 @@ import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
 import pascal.taie.util.graph.SimpleGraph;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Creates and executes analyses based on given analysis plan.
+ * <p>
+ * By default, the analyses are executed one after another in the order
+ * of the plan. When option {@code --analysis-threads} is greater than 1,
+ * the analyses are scheduled on a shared thread pool according to the
+ * dependence graph of the plan, so that independent analyses (e.g., the
+ * data-flow analyses which only require {@code cfg}) are executed
+ * concurrently. Since the analyses that require nothing (e.g.,
+ * {@code process-result}) may consume results of arbitrary analyses,
+ * they are executed as barriers, i.e., after all analyses preceding them
+ * in the plan, and before all analyses following them. The class and method
+ * analyses, which process classes and methods in parallel, also run on
+ * this pool, so the number of threads limits all work of the analyses.
+ * In the default (sequential) mode, the classes and methods are processed
+ * on the common pool, as before.
+ * <p>
+ * When option {@code --fuse-method-analyses} is enabled, consecutive
+ * method analyses in the plan are executed together in a single pass
+ * over the method scope.
  */
 public class AnalysisManager {
 
     private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
 
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
     private final Plan plan;
 
     /**
@@ -99,19 +130,221 @@ public class AnalysisManager {
         classScope = null;
         methodScope = null;
         // execute analyses
-        plan.analyses().forEach(config -> {
-            Analysis analysis = Timer.runAndCount(
-                    () -> runAnalysis(config), config.getId(), Level.INFO);
-            if (!keepAllResults) {
+        List<List<AnalysisConfig>> units =
+                World.get().getOptions().isFuseMethodAnalyses() ?
+                        fuseMethodAnalyses(plan.analyses()) :
+                        Lists.map(plan.analyses(), List::of);
+        int nThreads = World.get().getOptions().getAnalysisThreads();
+        if (nThreads > 1) {
+            executeConcurrently(units, nThreads);
+        } else {
+            units.forEach(this::executeUnit);
+        }
+    }
+
+    /**
+     * Groups each maximal sequence of consecutive method analyses in
+     * given analyses into a unit, which is executed in a single pass over
+     * the method scope (see {@link #executeFusedMethodAnalyses(List)}).
+     * Each of the other analyses forms a unit by itself.
+     */
+    private static List<List<AnalysisConfig>> fuseMethodAnalyses(
+            List<AnalysisConfig> analyses) {
+        List<List<AnalysisConfig>> units = new ArrayList<>();
+        List<AnalysisConfig> methodAnalyses = new ArrayList<>();
+        for (AnalysisConfig config : analyses) {
+            if (isMethodAnalysis(config)) {
+                methodAnalyses.add(config);
+            } else {
+                if (!methodAnalyses.isEmpty()) {
+                    units.add(List.copyOf(methodAnalyses));
+                    methodAnalyses.clear();
+                }
+                units.add(List.of(config));
+            }
+        }
+        if (!methodAnalyses.isEmpty()) {
+            units.add(List.copyOf(methodAnalyses));
+        }
+        return units;
+    }
+
+    private static boolean isMethodAnalysis(AnalysisConfig config) {
+        try {
+            return MethodAnalysis.class.isAssignableFrom(
+                    Class.forName(config.getAnalysisClass()));
+        } catch (ClassNotFoundException e) {
+            // the error will be reported when creating the analysis
+            return false;
+        }
+    }
+
+    private void executeUnit(List<AnalysisConfig> unit) {
+        if (unit.size() == 1) {
+            executeAnalysis(unit.get(0));
+        } else {
+            executeFusedMethodAnalyses(unit);
+        }
+    }
+
+    /**
+     * Executes the units of analyses on a thread pool of given size.
+     * Each unit starts once the analyses it depends on (see the class
+     * documentation) finish.
+     */
+    private void executeConcurrently(List<List<AnalysisConfig>> units,
+                                     int nThreads) {
+        Graph<AnalysisConfig> graph = plan.dependenceGraph();
+        Map<AnalysisConfig, CompletableFuture<Void>> futures = Maps.newMap();
+        List<CompletableFuture<Void>> preceding = new ArrayList<>();
+        CompletableFuture<Void> barrier = CompletableFuture.completedFuture(null);
+        // the class and method analyses process classes/methods by parallel
+        // streams, which run in the ForkJoinPool that executes them, thus
+        // all work of the analyses is limited to the threads of this pool
+        ForkJoinPool executor = new ForkJoinPool(nThreads);
+        try {
+            for (List<AnalysisConfig> unit : units) {
+                CompletableFuture<?>[] deps;
+                boolean isBarrier = unit.stream()
+                        .anyMatch(config -> graph.getInDegreeOf(config) == 0);
+                if (isBarrier) {
+                    deps = preceding.toArray(CompletableFuture[]::new);
+                } else {
+                    List<CompletableFuture<Void>> required = new ArrayList<>();
+                    required.add(barrier);
+                    unit.forEach(config -> graph.getPredsOf(config).forEach(pred -> {
+                        CompletableFuture<Void> future = futures.get(pred);
+                        if (future != null) {
+                            required.add(future);
+                        }
+                    }));
+                    deps = required.toArray(CompletableFuture[]::new);
+                }
+                CompletableFuture<Void> future = CompletableFuture.allOf(deps)
+                        .thenRunAsync(() -> executeUnit(unit), executor);
+                unit.forEach(config -> futures.put(config, future));
+                preceding.add(future);
+                if (isBarrier) {
+                    barrier = future;
+                }
+            }
+            CompletableFuture.allOf(preceding.toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new AnalysisException("Failed to execute analyses", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Executes an analysis, logs its elapsed time and CPU time,
+     * and clears the results that become unused.
+     */
+    private void executeAnalysis(AnalysisConfig config) {
+        String id = config.getId();
+        logger.info("{} starts ...", id);
+        Timer timer = new Timer(id);
+        LongAdder cpuTime = new LongAdder();
+        timer.start();
+        Analysis analysis = runAnalysis(config, cpuTime);
+        timer.stop();
+        logger.info("{} finishes, elapsed time: {}, CPU time: {}", id,
+                String.format("%.2fs", timer.inSecond()),
+                String.format("%.2fs", cpuTime.sum() / 1e9));
+        if (!keepAllResults) {
+            synchronized (this) {
                 executedAnalyses.add(analysis);
                 clearUnusedResults(analysis);
             }
-        });
+        }
     }
 
-    private Analysis runAnalysis(AnalysisConfig config) {
+    /**
+     * Executes given method analyses in a single pass over the method scope,
+     * i.e., runs all of them (in the order of the plan) on each IR while the
+     * IR is hot in cache. The method analyses only access the results of
+     * the IR being analyzed, thus a method analysis in the list can depend on
+     * the preceding ones. The results which are not used by the analyses
+     * outside the list are released as soon as each IR is processed.
+     */
+    private void executeFusedMethodAnalyses(List<AnalysisConfig> configs) {
+        List<String> ids = Lists.map(configs, AnalysisConfig::getId);
+        logger.info("{} start ...", ids);
+        Timer timer = new Timer(ids.toString());
+        timer.start();
+        List<MethodAnalysis<?>> analyses = Lists.map(configs,
+                config -> (MethodAnalysis<?>) createAnalysis(config));
+        LongAdder[] cpuTimes = new LongAdder[analyses.size()];
+        Arrays.setAll(cpuTimes, __ -> new LongAdder());
+        List<String> released = keepAllResults ? List.of() : configs.stream()
+                .filter(config -> !plan.keepResult().contains(config.getId()) &&
+                        configs.containsAll(plan.dependenceGraph().getSuccsOf(config)))
+                .map(AnalysisConfig::getId)
+                .toList();
+        getMethodScope()
+                .parallelStream()
+                .forEach(m -> {
+                    IR ir = m.getIR();
+                    for (int i = 0; i < analyses.size(); ++i) {
+                        long start = getCpuTime();
+                        MethodAnalysis<?> analysis = analyses.get(i);
+                        Object result = analysis.analyze(ir);
+                        if (result != null) {
+                            ir.storeResult(analysis.getId(), result);
+                        }
+                        cpuTimes[i].add(getCpuTime() - start);
+                    }
+                    released.forEach(ir::clearResult);
+                });
+        timer.stop();
+        for (int i = 0; i < analyses.size(); ++i) {
+            logger.info("{} finishes, CPU time: {}", ids.get(i),
+                    String.format("%.2fs", cpuTimes[i].sum() / 1e9));
+        }
+        logger.info("{} finish, elapsed time: {}", ids,
+                String.format("%.2fs", timer.inSecond()));
+        if (!keepAllResults) {
+            synchronized (this) {
+                for (Analysis analysis : analyses) {
+                    executedAnalyses.add(analysis);
+                    clearUnusedResults(analysis);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates and runs an analysis.
+     *
+     * @param cpuTime accumulator of the CPU time (in nanoseconds)
+     *                consumed by the analysis
+     */
+    private Analysis runAnalysis(AnalysisConfig config, LongAdder cpuTime) {
+        Analysis analysis = createAnalysis(config);
+        // Run the analysis
+        if (analysis instanceof ProgramAnalysis<?> pa) {
+            long start = getCpuTime();
+            runProgramAnalysis(pa);
+            cpuTime.add(getCpuTime() - start);
+        } else if (analysis instanceof ClassAnalysis<?> ca) {
+            runClassAnalysis(ca, cpuTime);
+        } else if (analysis instanceof MethodAnalysis<?> ma) {
+            runMethodAnalysis(ma, cpuTime);
+        } else {
+            throw new ConfigException(config.getAnalysisClass() +
+                    " is not a supported analysis class");
+        }
+        return analysis;
+    }
+
+    private static Analysis createAnalysis(AnalysisConfig config) {
         Analysis analysis;
-        // Create analysis instance
         try {
             Class<?> clazz = Class.forName(config.getAnalysisClass());
             Constructor<?> ctor = clazz.getConstructor(AnalysisConfig.class);
@@ -130,17 +363,6 @@ public class AnalysisManager {
             throw new ConfigException(
                     config.getAnalysisClass() + " is not an analysis class");
         }
-        // Run the analysis
-        if (analysis instanceof ProgramAnalysis<?> pa) {
-            runProgramAnalysis(pa);
-        } else if (analysis instanceof ClassAnalysis<?> ca) {
-            runClassAnalysis(ca);
-        } else if (analysis instanceof MethodAnalysis<?> ma) {
-            runMethodAnalysis(ma);
-        } else {
-            throw new ConfigException(config.getAnalysisClass() +
-                    " is not a supported analysis class");
-        }
         return analysis;
     }
 
@@ -151,17 +373,19 @@ public class AnalysisManager {
         }
     }
 
-    private void runClassAnalysis(ClassAnalysis<?> analysis) {
+    private void runClassAnalysis(ClassAnalysis<?> analysis, LongAdder cpuTime) {
         getClassScope().parallelStream()
                 .forEach(c -> {
+                    long start = getCpuTime();
                     Object result = analysis.analyze(c);
                     if (result != null) {
                         c.storeResult(analysis.getId(), result);
                     }
+                    cpuTime.add(getCpuTime() - start);
                 });
     }
 
-    private List<JClass> getClassScope() {
+    private synchronized List<JClass> getClassScope() {
         if (classScope == null) {
             Scope scope = World.get().getOptions().getScope();
             classScope = switch (scope) {
@@ -187,19 +411,21 @@ public class AnalysisManager {
         return classScope;
     }
 
-    private void runMethodAnalysis(MethodAnalysis<?> analysis) {
+    private void runMethodAnalysis(MethodAnalysis<?> analysis, LongAdder cpuTime) {
         getMethodScope()
                 .parallelStream()
                 .forEach(m -> {
+                    long start = getCpuTime();
                     IR ir = m.getIR();
                     Object result = analysis.analyze(ir);
                     if (result != null) {
                         ir.storeResult(analysis.getId(), result);
                     }
+                    cpuTime.add(getCpuTime() - start);
                 });
     }
 
-    private List<JMethod> getMethodScope() {
+    private synchronized List<JMethod> getMethodScope() {
         if (methodScope == null) {
             Scope scope = World.get().getOptions().getScope();
             methodScope = switch (scope) {
@@ -220,6 +446,15 @@ public class AnalysisManager {
         return methodScope;
     }
 
+    /**
+     * @return CPU time of current thread in nanoseconds,
+     * or 0 if it is not supported by the JVM.
+     */
+    private static long getCpuTime() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ?
+                threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
     /**
      * @param analysis the analysis that just finished.
      */
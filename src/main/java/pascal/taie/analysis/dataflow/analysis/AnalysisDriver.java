@@ -44,8 +44,28 @@ public abstract class AnalysisDriver<Node, Fact>
     public DataflowResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         DataflowAnalysis<Node, Fact> analysis = makeAnalysis(cfg);
-        Solver<Node, Fact> solver = Solver.getSolver();
-        return solver.solve(analysis);
+        return getSolver(analysis).solve(analysis);
+    }
+
+    /**
+     * Selects the solver for given analysis. Gen/kill analyses are solved
+     * by the bit-vector solver, unless option "bit-vector" of the analysis
+     * is set to false. Other analyses are solved on basic blocks if option
+     * "basic-block" of the analysis is set to true.
+     */
+    private Solver<Node, Fact> getSolver(DataflowAnalysis<Node, Fact> analysis) {
+        if (analysis instanceof GenKillAnalysis &&
+                getBooleanOption("bit-vector", true)) {
+            return Solver.getBitVectorSolver();
+        } else if (getBooleanOption("basic-block", false)) {
+            return Solver.getBlockSolver();
+        } else {
+            return Solver.getSolver();
+        }
+    }
+
+    private boolean getBooleanOption(String key, boolean defaultValue) {
+        return getOptions().has(key) ? getOptions().getBoolean(key) : defaultValue;
     }
 
     /**
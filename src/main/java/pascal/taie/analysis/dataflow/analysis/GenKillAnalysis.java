@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Template interface for gen/kill data-flow analysis, whose transfer
+ * function of each node can be expressed as
+ * {@code OUT = GEN ∪ (IN - KILL)} (for forward analysis) or
+ * {@code IN = GEN ∪ (OUT - KILL)} (for backward analysis),
+ * where GEN and KILL are fixed sets of the node.
+ * <p>
+ * Such analysis can be solved by the bit-vector solver, which encodes
+ * data-flow facts as dense bit vectors over the indexes of the elements
+ * in the domain. To this end, the boundary fact must be an empty set,
+ * and the analysis must not need edge transfer.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements in the data-flow facts
+ */
+public interface GenKillAnalysis<Node, E> extends DataflowAnalysis<Node, SetFact<E>> {
+
+    /**
+     * @return true if this analysis is a may analysis, i.e., its meet
+     * operation is union, otherwise false (its meet operation is intersection).
+     */
+    boolean isMayAnalysis();
+
+    /**
+     * @return the number of elements in the domain of this analysis.
+     */
+    int getDomainSize();
+
+    /**
+     * @return the element in the domain at given index.
+     */
+    E getElement(int index);
+
+    /**
+     * Feeds the indexes of the elements generated by given node to {@code action}.
+     */
+    void forEachGen(Node node, IntConsumer action);
+
+    /**
+     * Feeds the indexes of the elements killed by given node to {@code action}.
+     */
+    void forEachKill(Node node, IntConsumer action);
+}
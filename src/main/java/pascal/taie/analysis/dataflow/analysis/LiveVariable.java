@@ -31,6 +31,8 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.IndexerBitSet;
 
+import java.util.function.IntConsumer;
+
 /**
  * Implementation of live variable analysis.
  */
@@ -44,7 +46,8 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
 
     @Override
     protected Analysis makeAnalysis(CFG<Stmt> cfg) {
-        return new Analysis(cfg, getOptions().getBoolean("strongly"));
+        return getOptions().getBoolean("strongly") ?
+                new Analysis(cfg, true) : new GenKillLiveAnalysis(cfg);
     }
 
     private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
@@ -57,7 +60,7 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
         /**
          * Indexer for variables in the IR.
          */
-        private final Indexer<Var> varIndexer;
+        protected final Indexer<Var> varIndexer;
 
         private Analysis(CFG<Stmt> cfg, boolean strongly) {
             super(cfg);
@@ -126,4 +129,53 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
             return !in.equals(oldIn);
         }
     }
+
+    /**
+     * (Non-strongly) live variable analysis, which is a gen/kill analysis.
+     * Strongly live variable analysis is not gen/kill, as whether the
+     * right-hand side variable of a Copy is generated depends on the out fact.
+     */
+    private static class GenKillLiveAnalysis extends Analysis
+            implements GenKillAnalysis<Stmt, Var> {
+
+        private final int nVars;
+
+        private GenKillLiveAnalysis(CFG<Stmt> cfg) {
+            super(cfg, false);
+            this.nVars = cfg.getIR().getVars().size();
+        }
+
+        @Override
+        public boolean isMayAnalysis() {
+            return true;
+        }
+
+        @Override
+        public int getDomainSize() {
+            return nVars;
+        }
+
+        @Override
+        public Var getElement(int index) {
+            return varIndexer.getObject(index);
+        }
+
+        @Override
+        public void forEachGen(Stmt stmt, IntConsumer action) {
+            stmt.getUses().forEach(use -> {
+                if (use instanceof Var var) {
+                    action.accept(varIndexer.getIndex(var));
+                }
+            });
+        }
+
+        @Override
+        public void forEachKill(Stmt stmt, IntConsumer action) {
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var var) {
+                    action.accept(varIndexer.getIndex(var));
+                }
+            });
+        }
+    }
 }
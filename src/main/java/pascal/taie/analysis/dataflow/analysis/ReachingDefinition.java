@@ -34,6 +34,7 @@ import pascal.taie.util.collection.IndexMap;
 import pascal.taie.util.collection.IndexerBitSet;
 
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
 
@@ -48,7 +49,8 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Stmt>> {
+    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Stmt>>
+            implements GenKillAnalysis<Stmt, Stmt> {
 
         /**
          * Indexer for stmts (nodes) in the CFG.
@@ -120,5 +122,39 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
             });
             return !out.equals(oldOut);
         }
+
+        @Override
+        public boolean isMayAnalysis() {
+            return true;
+        }
+
+        @Override
+        public int getDomainSize() {
+            return cfg.getNumberOfNodes();
+        }
+
+        @Override
+        public Stmt getElement(int index) {
+            return stmtIndexer.getObject(index);
+        }
+
+        @Override
+        public void forEachGen(Stmt stmt, IntConsumer action) {
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var) {
+                    action.accept(stmtIndexer.getIndex(stmt));
+                }
+            });
+        }
+
+        @Override
+        public void forEachKill(Stmt stmt, IntConsumer action) {
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var defVar) {
+                    defs.getOrDefault(defVar, EMPTY_DEFS).forEach(
+                            defStmt -> action.accept(stmtIndexer.getIndex(defStmt)));
+                }
+            });
+        }
     }
 }
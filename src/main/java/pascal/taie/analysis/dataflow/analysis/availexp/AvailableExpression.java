@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.analysis.availexp;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.dataflow.fact.ToppedSetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
@@ -36,6 +37,12 @@ import pascal.taie.ir.exp.UnaryExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.DefinitionStmt;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * Available expression analysis on local variables.
@@ -59,7 +66,25 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<ExpWrapper>> {
+    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<ExpWrapper>>
+            implements GenKillAnalysis<Stmt, ExpWrapper> {
+
+        /**
+         * All relevant expressions in the IR, i.e., the domain of
+         * bit-vector facts. Built on demand by {@link #getDomainSize()}.
+         */
+        private List<ExpWrapper> exps;
+
+        /**
+         * Maps each expression to its index in {@link #exps}.
+         */
+        private Map<ExpWrapper, Integer> expIndexes;
+
+        /**
+         * Maps each variable to the indexes of the expressions using it,
+         * i.e., the expressions killed by the definitions of the variable.
+         */
+        private Map<Var, List<Integer>> expsUsing;
 
         private Analysis(CFG<Stmt> cfg) {
             super(cfg);
@@ -121,5 +146,62 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
                     exp instanceof InstanceOfExp ||
                     exp instanceof UnaryExp;
         }
+
+        @Override
+        public boolean isMayAnalysis() {
+            return false;
+        }
+
+        @Override
+        public int getDomainSize() {
+            if (exps == null) {
+                buildDomain();
+            }
+            return exps.size();
+        }
+
+        private void buildDomain() {
+            exps = new ArrayList<>();
+            expIndexes = Maps.newMap();
+            expsUsing = Maps.newMap();
+            for (Stmt stmt : cfg.getIR()) {
+                if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                        isRelevant(defStmt.getRValue())) {
+                    ExpWrapper expWrapper = new ExpWrapper(defStmt.getRValue());
+                    if (!expIndexes.containsKey(expWrapper)) {
+                        int index = exps.size();
+                        exps.add(expWrapper);
+                        expIndexes.put(expWrapper, index);
+                        expWrapper.get().getUses().forEach(use -> {
+                            if (use instanceof Var var) {
+                                expsUsing.computeIfAbsent(var, __ -> new ArrayList<>())
+                                        .add(index);
+                            }
+                        });
+                    }
+                }
+            }
+        }
+
+        @Override
+        public ExpWrapper getElement(int index) {
+            return exps.get(index);
+        }
+
+        @Override
+        public void forEachGen(Stmt stmt, IntConsumer action) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                    isRelevant(defStmt.getRValue())) {
+                action.accept(expIndexes.get(new ExpWrapper(defStmt.getRValue())));
+            }
+        }
+
+        @Override
+        public void forEachKill(Stmt stmt, IntConsumer action) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                    defStmt.getLValue() instanceof Var defVar) {
+                expsUsing.getOrDefault(defVar, List.of()).forEach(action::accept);
+            }
+        }
     }
 }
@@ -101,17 +101,7 @@ public class ConstantPropagation extends AnalysisDriver<Stmt, CPFact> {
          * This method computes the greatest lower bound of two Values.
          */
         public Value meetValue(Value v1, Value v2) {
-            if (v1.isUndef() && v2.isConstant()) {
-                return v2;
-            } else if (v1.isConstant() && v2.isUndef()) {
-                return v1;
-            } else if (v1.isNAC() || v2.isNAC()) {
-                return Value.getNAC();
-            } else if (v1.equals(v2)) {
-                return v1;
-            } else {
-                return Value.getNAC();
-            }
+            return ConstantPropagation.meetValue(v1, v2);
         }
 
         @Override
@@ -180,11 +170,29 @@ public class ConstantPropagation extends AnalysisDriver<Stmt, CPFact> {
         }
     }
 
+    /**
+     * Meets two Values.
+     * This method computes the greatest lower bound of two Values.
+     */
+    static Value meetValue(Value v1, Value v2) {
+        if (v1.isUndef() && v2.isConstant()) {
+            return v2;
+        } else if (v1.isConstant() && v2.isUndef()) {
+            return v1;
+        } else if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else if (v1.equals(v2)) {
+            return v1;
+        } else {
+            return Value.getNAC();
+        }
+    }
+
     /**
      * Joins two Values.
      * This method computes the least upper bound of two Values.
      */
-    private static Value joinValue(Value v1, Value v2) {
+    static Value joinValue(Value v1, Value v2) {
         if (v1.isNAC() && v2.isConstant()) {
             return v2;
         } else if (v1.isConstant() && v2.isNAC()) {
@@ -0,0 +1,446 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Sparse implementation of constant propagation for int values.
+ * <p>
+ * Instead of propagating a whole {@link CPFact} through every statement
+ * as {@link ConstantPropagation} does, this analysis builds, for each
+ * use of int variables, the definition sites that reach it (def-use
+ * chains), and then propagates {@link Value}s only along these chains,
+ * so that each definition is re-evaluated only when the value of one of
+ * its operands changes. When edge refinement is enabled, the refinements
+ * on the branches of {@link If} and {@link SwitchStmt} are treated as
+ * definitions at the corresponding CFG edges.
+ * <p>
+ * The definitions that reach a use are found by searching the CFG
+ * backward from the use until definitions of the used variable, so no
+ * data-flow fact is kept for the statements that do not use int variables.
+ * The results are the same as the ones of {@link ConstantPropagation}
+ * with the same options; the {@link CPFact} of a statement is
+ * materialized in the same way when it is queried.
+ */
+public class SparseConstantPropagation extends
+        MethodAnalysis<NodeResult<Stmt, CPFact>> {
+
+    public static final String ID = "sparse-const-prop";
+
+    /**
+     * Whether enable refinement on lattice value via edge transfer.
+     */
+    private final boolean edgeRefine;
+
+    public SparseConstantPropagation(AnalysisConfig config) {
+        super(config);
+        edgeRefine = getOptions().getBoolean("edge-refine");
+    }
+
+    @Override
+    public NodeResult<Stmt, CPFact> analyze(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        Solver solver = new Solver(cfg, edgeRefine);
+        solver.solve();
+        return solver.getResult();
+    }
+
+    /**
+     * A definition site of an int variable, i.e., a definition statement,
+     * a parameter, or a refinement on a CFG edge.
+     */
+    private static class Site {
+
+        private final int index;
+
+        private final Var var;
+
+        /**
+         * The node whose IN fact provides values of {@link #operands},
+         * or {@code null} if this site is a parameter.
+         */
+        private final Stmt node;
+
+        /**
+         * The edge where this site is located,
+         * or {@code null} if this site is not an edge refinement.
+         */
+        private final CFGEdge<Stmt> edge;
+
+        /**
+         * Int variables whose values are used to compute the value of this site.
+         */
+        private final List<Var> operands;
+
+        /**
+         * i-th element contains indexes of the sites that define
+         * the i-th operand and reach {@link #node}.
+         */
+        private int[][] reachingDefs;
+
+        private final List<Site> users = new ArrayList<>();
+
+        private Value value = Value.getUndef();
+
+        private Site(int index, Var var, Stmt node,
+                     CFGEdge<Stmt> edge, List<Var> operands) {
+            this.index = index;
+            this.var = var;
+            this.node = node;
+            this.edge = edge;
+            this.operands = operands;
+        }
+    }
+
+    private static class Solver {
+
+        private final CFG<Stmt> cfg;
+
+        private final boolean edgeRefine;
+
+        private final List<Site> sites = new ArrayList<>();
+
+        /**
+         * Site of each int parameter, which reaches the entry of the CFG.
+         */
+        private final Map<Var, Site> paramSites = Maps.newMap();
+
+        /**
+         * Int variables that have definition sites.
+         */
+        private final Set<Var> vars = Sets.newSet();
+
+        /**
+         * Site defined by each node, indexed by node index.
+         */
+        private final Site[] nodeSites;
+
+        /**
+         * Sites defined by refinements on edges.
+         */
+        private final Map<CFGEdge<Stmt>, List<Site>> edgeSites = Maps.newMap();
+
+        /**
+         * Stamps of the nodes and sites visited by the current backward
+         * search, see {@link #forEachReachingSite(Var, Stmt, Consumer)}.
+         */
+        private final int[] visitedNodes;
+
+        private int[] visitedSites;
+
+        private int stamp;
+
+        /**
+         * Stack of node indexes used by the backward search.
+         */
+        private final int[] stack;
+
+        private Solver(CFG<Stmt> cfg, boolean edgeRefine) {
+            this.cfg = cfg;
+            this.edgeRefine = edgeRefine;
+            int nNodes = cfg.getNumberOfNodes();
+            this.nodeSites = new Site[nNodes];
+            this.visitedNodes = new int[nNodes];
+            // a node can be pushed twice, see forEachReachingSite()
+            this.stack = new int[nNodes + 1];
+        }
+
+        private void solve() {
+            collectSites();
+            buildDefUseChains();
+            propagate();
+        }
+
+        private NodeResult<Stmt, CPFact> getResult() {
+            return new Result();
+        }
+
+        private Site newSite(Var var, Stmt node, CFGEdge<Stmt> edge,
+                             List<Var> operands) {
+            Site site = new Site(sites.size(), var, node, edge, operands);
+            sites.add(site);
+            vars.add(var);
+            return site;
+        }
+
+        private void collectSites() {
+            cfg.getIR().getParams()
+                    .stream()
+                    .filter(Exps::holdsInt)
+                    .forEach(p -> paramSites.put(
+                            p, newSite(p, null, null, List.of())));
+            for (Stmt stmt : cfg) {
+                if (stmt instanceof DefinitionStmt<?, ?> def &&
+                        def.getLValue() instanceof Var lhs &&
+                        Exps.holdsInt(lhs)) {
+                    nodeSites[cfg.getIndex(stmt)] = newSite(lhs, stmt, null,
+                            getIntOperands(def.getRValue()));
+                }
+                if (edgeRefine) {
+                    for (CFGEdge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                        collectEdgeSites(edge);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Collects sites for the refinements performed by
+         * {@link ConstantPropagation.Analysis#transferEdge}.
+         */
+        private void collectEdgeSites(CFGEdge<Stmt> edge) {
+            CFGEdge.Kind kind = edge.getKind();
+            if (edge.source() instanceof If ifStmt) {
+                ConditionExp cond = ifStmt.getCondition();
+                ConditionExp.Op op = cond.getOperator();
+                if ((kind == CFGEdge.Kind.IF_TRUE && op == ConditionExp.Op.EQ) ||
+                        (kind == CFGEdge.Kind.IF_FALSE && op == ConditionExp.Op.NE)) {
+                    List<Var> operands = getIntOperands(cond);
+                    List<Site> refined = new ArrayList<>(operands.size());
+                    for (Var var : operands) {
+                        refined.add(newSite(var, ifStmt, edge, operands));
+                    }
+                    if (!refined.isEmpty()) {
+                        edgeSites.put(edge, refined);
+                    }
+                }
+            } else if (kind == CFGEdge.Kind.SWITCH_CASE) {
+                Var var = ((SwitchStmt) edge.source()).getVar();
+                if (Exps.holdsInt(var)) {
+                    edgeSites.put(edge, List.of(newSite(
+                            var, edge.source(), edge, List.of(var))));
+                }
+            }
+        }
+
+        /**
+         * @return the int variables whose values are used by
+         * {@link Evaluator#evaluate(Exp, CPFact)} to evaluate given expression.
+         */
+        private static List<Var> getIntOperands(Exp exp) {
+            List<Var> operands = new ArrayList<>(2);
+            if (exp instanceof Var var) {
+                addIntOperand(operands, var);
+            } else if (exp instanceof BinaryExp binary) {
+                addIntOperand(operands, binary.getOperand1());
+                addIntOperand(operands, binary.getOperand2());
+            }
+            return operands;
+        }
+
+        private static void addIntOperand(List<Var> operands, Var var) {
+            if (Exps.holdsInt(var) && !operands.contains(var)) {
+                operands.add(var);
+            }
+        }
+
+        private void buildDefUseChains() {
+            visitedSites = new int[sites.size()];
+            for (Site site : sites) {
+                if (site.node == null) { // parameter
+                    continue;
+                }
+                int nOperands = site.operands.size();
+                site.reachingDefs = new int[nOperands][];
+                for (int i = 0; i < nOperands; ++i) {
+                    List<Site> defs = new ArrayList<>();
+                    forEachReachingSite(site.operands.get(i), site.node, defs::add);
+                    int[] reachingDefs = new int[defs.size()];
+                    for (int j = 0; j < reachingDefs.length; ++j) {
+                        Site def = defs.get(j);
+                        reachingDefs[j] = def.index;
+                        def.users.add(site);
+                    }
+                    site.reachingDefs[i] = reachingDefs;
+                }
+            }
+        }
+
+        /**
+         * Searches the CFG backward from the IN of given node, and applies
+         * {@code action} to each site of {@code var} that reaches the node.
+         * The search along a path stops at the first definition of
+         * {@code var}, which is either an edge refinement or a node.
+         */
+        private void forEachReachingSite(Var var, Stmt node, Consumer<Site> action) {
+            ++stamp;
+            int top = 0;
+            // the start node is not marked as visited, so that its own
+            // definition is found when it is reached again via a loop
+            stack[top++] = cfg.getIndex(node);
+            while (top > 0) {
+                Stmt n = cfg.getNode(stack[--top]);
+                if (cfg.isEntry(n)) {
+                    Site param = paramSites.get(var);
+                    if (param != null) {
+                        visitSite(param, action);
+                    }
+                    continue;
+                }
+                for (CFGEdge<Stmt> edge : cfg.getInEdgesOf(n)) {
+                    Site refined = getEdgeSite(edge, var);
+                    if (refined != null) {
+                        visitSite(refined, action);
+                        continue;
+                    }
+                    int pred = cfg.getIndex(edge.source());
+                    if (visitedNodes[pred] != stamp) {
+                        visitedNodes[pred] = stamp;
+                        Site def = nodeSites[pred];
+                        if (def != null && def.var.equals(var)) {
+                            visitSite(def, action);
+                        } else {
+                            stack[top++] = pred;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void visitSite(Site site, Consumer<Site> action) {
+            if (visitedSites[site.index] != stamp) {
+                visitedSites[site.index] = stamp;
+                action.accept(site);
+            }
+        }
+
+        private Site getEdgeSite(CFGEdge<Stmt> edge, Var var) {
+            List<Site> refined = edgeSites.get(edge);
+            if (refined != null) {
+                for (Site site : refined) {
+                    if (site.var.equals(var)) {
+                        return site;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void propagate() {
+            Queue<Site> workList = new ArrayDeque<>(sites);
+            boolean[] inQueue = new boolean[sites.size()];
+            Arrays.fill(inQueue, true);
+            while (!workList.isEmpty()) {
+                Site site = workList.poll();
+                inQueue[site.index] = false;
+                Value value = evaluate(site);
+                if (!value.equals(site.value)) {
+                    site.value = value;
+                    for (Site user : site.users) {
+                        if (!inQueue[user.index]) {
+                            inQueue[user.index] = true;
+                            workList.add(user);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Evaluates the value of given site in the same way as
+         * {@link ConstantPropagation.Analysis} does.
+         */
+        private Value evaluate(Site site) {
+            if (site.node == null) {
+                // make conservative assumption about parameters
+                return Value.getNAC();
+            }
+            CPFact in = new CPFact();
+            for (int i = 0; i < site.operands.size(); ++i) {
+                Value value = Value.getUndef();
+                for (int d : site.reachingDefs[i]) {
+                    value = ConstantPropagation.meetValue(value, sites.get(d).value);
+                }
+                in.update(site.operands.get(i), value);
+            }
+            if (site.edge == null) {
+                return Evaluator.evaluate(
+                        ((DefinitionStmt<?, ?>) site.node).getRValue(), in);
+            } else if (site.edge.getKind() == CFGEdge.Kind.SWITCH_CASE) {
+                return ConstantPropagation.joinValue(in.get(site.var),
+                        Value.makeConstant(site.edge.getCaseValue()));
+            } else {
+                ConditionExp cond = ((If) site.node).getCondition();
+                return ConstantPropagation.joinValue(
+                        in.get(cond.getOperand1()), in.get(cond.getOperand2()));
+            }
+        }
+
+        /**
+         * Materializes {@link CPFact} from the sites that reach a node.
+         */
+        private synchronized CPFact toFact(Stmt node) {
+            CPFact fact = new CPFact();
+            for (Var var : vars) {
+                forEachReachingSite(var, node, site -> fact.update(var,
+                        ConstantPropagation.meetValue(fact.get(var), site.value)));
+            }
+            return fact;
+        }
+
+        private class Result implements NodeResult<Stmt, CPFact> {
+
+            @Override
+            public CPFact getInFact(Stmt node) {
+                return toFact(node);
+            }
+
+            @Override
+            public CPFact getOutFact(Stmt node) {
+                CPFact fact = getInFact(node);
+                Site site = nodeSites[cfg.getIndex(node)];
+                if (site != null) {
+                    fact.update(site.var, site.value);
+                }
+                return fact;
+            }
+        }
+    }
+}
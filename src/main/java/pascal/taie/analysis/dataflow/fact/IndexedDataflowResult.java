@@ -0,0 +1,108 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexer;
+
+import java.util.Map;
+
+/**
+ * Data-flow result for nodes with dense indexes (e.g., CFG nodes indexed
+ * by {@link pascal.taie.analysis.graph.cfg.CFGNodeIndexer}), which stores
+ * the facts in arrays. Besides the node-based accessors, it provides
+ * index-based accessors, so that solvers can work on node indexes
+ * directly without hashing and index lookup.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IndexedDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final Indexer<Node> indexer;
+
+    private final Fact[] inFacts;
+
+    private final Fact[] outFacts;
+
+    /**
+     * @param indexer indexer of the nodes
+     * @param size    number of the nodes, i.e., the indexes of the nodes
+     *                are in range [0, size).
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedDataflowResult(Indexer<Node> indexer, int size) {
+        super(Map.of(), Map.of());
+        this.indexer = indexer;
+        this.inFacts = (Fact[]) new Object[size];
+        this.outFacts = (Fact[]) new Object[size];
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return inFacts[indexer.getIndex(node)];
+    }
+
+    /**
+     * @return the flowing-in fact of the node of given index.
+     */
+    public Fact getInFact(int index) {
+        return inFacts[index];
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        inFacts[indexer.getIndex(node)] = fact;
+    }
+
+    /**
+     * Associates a data-flow fact with the node of given index
+     * as its flowing-in fact.
+     */
+    public void setInFact(int index, Fact fact) {
+        inFacts[index] = fact;
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return outFacts[indexer.getIndex(node)];
+    }
+
+    /**
+     * @return the flowing-out fact of the node of given index.
+     */
+    public Fact getOutFact(int index) {
+        return outFacts[index];
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        outFacts[indexer.getIndex(node)] = fact;
+    }
+
+    /**
+     * Associates a data-flow fact with the node of given index
+     * as its flowing-out fact.
+     */
+    public void setOutFact(int index, Fact fact) {
+        outFacts[index] = fact;
+    }
+}
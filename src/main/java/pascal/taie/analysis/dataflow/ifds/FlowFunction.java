@@ -0,0 +1,49 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import java.util.Set;
+
+/**
+ * Flow function of IFDS problems, which maps a data-flow fact
+ * holding at the source of an ICFG edge to the facts holding at
+ * the target of the edge. As IFDS problems are distributive, a flow
+ * function is fully determined by its results on individual facts.
+ *
+ * @param <D> type of data-flow facts
+ */
+@FunctionalInterface
+public interface FlowFunction<D> {
+
+    /**
+     * @return the facts generated from {@code source}.
+     */
+    Set<D> compute(D source);
+
+    /**
+     * @return the identity flow function.
+     */
+    static <D> FlowFunction<D> identity() {
+        return Set::of;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template interface for defining an IFDS (interprocedural, finite,
+ * distributive, subset) problem, which is solved by {@link IFDSSolver}.
+ * <p>
+ * The flow functions are specified for each kind of {@link ICFGEdge},
+ * and each flow function must map {@link #getZeroValue()} to a set
+ * containing the zero value itself (if the target of the edge should
+ * be reachable) together with the facts generated unconditionally.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the special zero (Λ) value, which holds at every
+     * node reachable from the seeds.
+     */
+    D getZeroValue();
+
+    /**
+     * @return the seeds, i.e., the nodes where the analysis starts,
+     * and the facts holding at them. Typically, the seeds are the entry
+     * nodes of entry methods with the zero value.
+     */
+    Map<Node, Set<D>> getSeeds();
+
+    /**
+     * @return flow function for intra-procedural edge.
+     */
+    FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge);
+
+    /**
+     * @return flow function that maps the facts at a call site to
+     * the facts at the entry of the callee.
+     */
+    FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge);
+
+    /**
+     * @return flow function that maps the facts at the exit of a callee
+     * to the facts at the return site.
+     */
+    FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge);
+
+    /**
+     * @return flow function that maps the facts at a call site to the facts
+     * at the return site, for the facts that are not passed to the callees.
+     */
+    FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge);
+}
@@ -0,0 +1,115 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.StmtResult;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Results of IFDS problems, i.e., the facts holding at
+ * the nodes reached by {@link IFDSSolver}.
+ * The zero value is excluded from the results.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public class IFDSResult<Node, D> implements StmtResult<Set<D>> {
+
+    /**
+     * Path edges computed by the solver, which map each node
+     * to the facts holding at it (keys of the multimap) and the
+     * corresponding facts at the entry of its method (values).
+     */
+    private final Map<Node, MultiMap<D, D>> pathEdges;
+
+    private final D zeroValue;
+
+    IFDSResult(Map<Node, MultiMap<D, D>> pathEdges, D zeroValue) {
+        this.pathEdges = pathEdges;
+        this.zeroValue = zeroValue;
+    }
+
+    /**
+     * @return {@code true} if given node is reached from the seeds.
+     */
+    public boolean isReached(Node node) {
+        return pathEdges.containsKey(node);
+    }
+
+    /**
+     * @return the facts holding before given node.
+     */
+    public Set<D> getFacts(Node node) {
+        return getFactsOf(node);
+    }
+
+    /**
+     * @return {@code true} if given fact holds before given node.
+     */
+    public boolean holds(Node node, D fact) {
+        MultiMap<D, D> facts = pathEdges.get(node);
+        return facts != null && facts.containsKey(fact);
+    }
+
+    /**
+     * @return the nodes reached from the seeds.
+     */
+    public Set<Node> getReachedNodes() {
+        return Collections.unmodifiableSet(pathEdges.keySet());
+    }
+
+    /**
+     * If the nodes of the ICFG are not {@link Stmt}s, no statements
+     * are relevant to this result.
+     */
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return pathEdges.containsKey(stmt);
+    }
+
+    @Override
+    public Set<D> getResult(Stmt stmt) {
+        return getFactsOf(stmt);
+    }
+
+    /**
+     * Accepts any object, so that the statements given to
+     * {@link StmtResult} APIs need not be cast to {@code Node}.
+     */
+    private Set<D> getFactsOf(Object node) {
+        MultiMap<D, D> facts = pathEdges.get(node);
+        if (facts == null) {
+            return Set.of();
+        }
+        return facts.keySet()
+                .stream()
+                .filter(d -> !d.equals(zeroValue))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.TwoKeyMultiMap;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}s, based on the algorithm in
+ * Reps, Horwitz and Sagiv, "Precise Interprocedural Dataflow Analysis via
+ * Graph Reachability", POPL 1995.
+ * <p>
+ * The solver explores the ICFG on demand from the seeds of the problem,
+ * thus it only visits the nodes and facts that are reachable from the
+ * seeds. Each callee is analyzed once for each fact at its entry: the
+ * facts reaching the callee exit are recorded as end summaries, and they
+ * are turned into summary edges (from call sites to return sites) which
+ * are reused by all path edges reaching the same call site with the same
+ * fact. Flow functions of ICFG edges are computed once and memoized.
+ * <p>
+ * The solver follows returns past seeds, i.e., the facts reaching the
+ * exit of a method from a seed (instead of from a call site) flow to the
+ * return sites of all callers of the method, so that the seeds can be
+ * located anywhere in the program.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private final IFDSProblem<Node, D> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final D zeroValue;
+
+    /**
+     * Memoized flow functions. ICFG edges are compared by identity,
+     * as there may be multiple equal edges of different CFG edge kinds.
+     */
+    private final Map<ICFGEdge<Node>, FlowFunction<D>> flowFunctions =
+            new IdentityHashMap<>();
+
+    /**
+     * Path edges, i.e., jump functions, which map each node n to
+     * d2 -> {d1}, meaning that there is a realizable path from fact d1
+     * at the entry of method of n to fact d2 at n.
+     */
+    private final Map<Node, MultiMap<D, D>> pathEdges = Maps.newMap();
+
+    /**
+     * Map (callee entry, fact at entry) to (call site, fact at call site).
+     */
+    private final TwoKeyMultiMap<Node, D, Pair<Node, D>> incoming =
+            Maps.newTwoKeyMultiMap();
+
+    /**
+     * End summaries, which map (method entry, fact at entry)
+     * to the facts at method exit.
+     */
+    private final TwoKeyMultiMap<Node, D, D> endSummaries =
+            Maps.newTwoKeyMultiMap();
+
+    /**
+     * Summary edges, which map (call site, fact at call site)
+     * to (return site, fact at return site).
+     */
+    private final TwoKeyMultiMap<Node, D, Pair<Node, D>> summaryEdges =
+            Maps.newTwoKeyMultiMap();
+
+    /**
+     * (method entry, fact at entry) whose path edges start from seeds
+     * instead of call sites.
+     */
+    private final MultiMap<Node, D> unbalancedStarts = Maps.newMultiMap();
+
+    private final Queue<PathEdge<Node, D>> workList = new ArrayDeque<>();
+
+    public IFDSSolver(IFDSProblem<Node, D> problem, ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+        this.zeroValue = problem.getZeroValue();
+    }
+
+    public IFDSResult<Node, D> solve() {
+        problem.getSeeds().forEach((node, facts) ->
+                facts.forEach(fact -> addSeed(node, fact)));
+        while (!workList.isEmpty()) {
+            PathEdge<Node, D> pathEdge = workList.poll();
+            Node node = pathEdge.node();
+            if (icfg.isCallSite(node)) {
+                processCall(pathEdge);
+            } else {
+                if (isExit(node)) {
+                    processExit(pathEdge);
+                }
+                processNormal(pathEdge);
+            }
+        }
+        return new IFDSResult<>(pathEdges, zeroValue);
+    }
+
+    private void addSeed(Node node, D fact) {
+        unbalancedStarts.put(getStartPoint(node), fact);
+        propagate(fact, node, fact);
+    }
+
+    private void propagate(D d1, Node node, D d2) {
+        if (pathEdges.computeIfAbsent(node, __ -> Maps.newMultiMap())
+                .put(d2, d1)) {
+            workList.add(new PathEdge<>(d1, node, d2));
+        }
+    }
+
+    private void processCall(PathEdge<Node, D> pathEdge) {
+        D d1 = pathEdge.source();
+        Node callSite = pathEdge.node();
+        D d2 = pathEdge.fact();
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                Node calleeEntry = callEdge.target();
+                for (D d3 : getFlowFunction(callEdge).compute(d2)) {
+                    propagate(d3, calleeEntry, d3);
+                    if (incoming.put(calleeEntry, d3, new Pair<>(callSite, d2))) {
+                        // the callee may have been analyzed for d3
+                        Node calleeExit = icfg.getExitOf(
+                                icfg.getContainingMethodOf(calleeEntry));
+                        for (D d4 : List.copyOf(endSummaries.get(calleeEntry, d3))) {
+                            addSummaryEdges(callSite, d2, calleeExit, d4);
+                        }
+                    }
+                }
+            } else if (!(edge instanceof ReturnEdge)) {
+                // CallToReturnEdge, or NormalEdge for exceptional flows
+                for (D d3 : getFlowFunction(edge).compute(d2)) {
+                    propagate(d1, edge.target(), d3);
+                }
+            }
+        }
+        for (Pair<Node, D> summary : List.copyOf(summaryEdges.get(callSite, d2))) {
+            propagate(d1, summary.first(), summary.second());
+        }
+    }
+
+    private void processExit(PathEdge<Node, D> pathEdge) {
+        D d1 = pathEdge.source();
+        Node exit = pathEdge.node();
+        D d2 = pathEdge.fact();
+        Node entry = getStartPoint(exit);
+        if (!endSummaries.put(entry, d1, d2)) {
+            return;
+        }
+        for (Pair<Node, D> callSiteFact : List.copyOf(incoming.get(entry, d1))) {
+            addSummaryEdges(callSiteFact.first(), callSiteFact.second(), exit, d2);
+        }
+        if (unbalancedStarts.contains(entry, d1)) {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(exit)) {
+                if (edge instanceof ReturnEdge<Node> returnEdge) {
+                    Node returnSite = returnEdge.target();
+                    for (D d5 : getFlowFunction(returnEdge).compute(d2)) {
+                        addSeed(returnSite, d5);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds summary edges for the call site fact d2 derived from the
+     * exit fact d4 of a callee, and applies them to the path edges
+     * reaching the call site with d2.
+     */
+    private void addSummaryEdges(Node callSite, D d2, Node calleeExit, D d4) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(calleeExit)) {
+            if (edge instanceof ReturnEdge<Node> returnEdge &&
+                    returnEdge.getCallSite().equals(callSite)) {
+                Node returnSite = returnEdge.target();
+                for (D d5 : getFlowFunction(returnEdge).compute(d4)) {
+                    if (summaryEdges.put(callSite, d2, new Pair<>(returnSite, d5))) {
+                        for (D d1 : List.copyOf(pathEdges.get(callSite).get(d2))) {
+                            propagate(d1, returnSite, d5);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void processNormal(PathEdge<Node, D> pathEdge) {
+        D d1 = pathEdge.source();
+        D d2 = pathEdge.fact();
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(pathEdge.node())) {
+            if (!(edge instanceof ReturnEdge)) {
+                for (D d3 : getFlowFunction(edge).compute(d2)) {
+                    propagate(d1, edge.target(), d3);
+                }
+            }
+        }
+    }
+
+    private FlowFunction<D> getFlowFunction(ICFGEdge<Node> edge) {
+        return flowFunctions.computeIfAbsent(edge, e -> {
+            if (e instanceof NormalEdge<Node> normalEdge) {
+                return problem.getNormalFlowFunction(normalEdge);
+            } else if (e instanceof CallToReturnEdge<Node> callToReturnEdge) {
+                return problem.getCallToReturnFlowFunction(callToReturnEdge);
+            } else if (e instanceof CallEdge<Node> callEdge) {
+                return problem.getCallFlowFunction(callEdge);
+            } else {
+                return problem.getReturnFlowFunction((ReturnEdge<Node>) e);
+            }
+        });
+    }
+
+    private Node getStartPoint(Node node) {
+        return icfg.getEntryOf(icfg.getContainingMethodOf(node));
+    }
+
+    private boolean isExit(Node node) {
+        return node.equals(icfg.getExitOf(icfg.getContainingMethodOf(node)));
+    }
+
+    /**
+     * Path edge from fact {@code source} at the entry of the method
+     * containing {@code node} to fact {@code fact} at {@code node}.
+     */
+    private record PathEdge<Node, D>(D source, Node node, D fact) {
+    }
+}
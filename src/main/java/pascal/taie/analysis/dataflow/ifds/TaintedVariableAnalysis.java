@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.NullType;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A simple interprocedural taint analysis of local variables, which is
+ * solved by {@link IFDSSolver}. The results of the calls to the methods
+ * with given name (option {@code source-method}) are tainted, and taint
+ * flows through assignments, operations, parameters and return values.
+ * The values loaded from fields and arrays are not tracked.
+ * <p>
+ * The result is the tainted variables before each statement.
+ */
+public class TaintedVariableAnalysis
+        extends ProgramAnalysis<IFDSResult<Stmt, Var>> {
+
+    public static final String ID = "tainted-var";
+
+    /**
+     * Name of the methods whose return values are tainted.
+     */
+    private final String sourceMethod;
+
+    public TaintedVariableAnalysis(AnalysisConfig config) {
+        super(config);
+        sourceMethod = getOptions().getString("source-method");
+    }
+
+    @Override
+    public IFDSResult<Stmt, Var> analyze() {
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        return new IFDSSolver<>(new Problem(icfg), icfg).solve();
+    }
+
+    private class Problem implements IFDSProblem<Stmt, Var> {
+
+        private final ICFG<JMethod, Stmt> icfg;
+
+        private final Var zeroValue = new Var(null, "%zero", NullType.NULL, -1);
+
+        private Problem(ICFG<JMethod, Stmt> icfg) {
+            this.icfg = icfg;
+        }
+
+        @Override
+        public Var getZeroValue() {
+            return zeroValue;
+        }
+
+        @Override
+        public Map<Stmt, Set<Var>> getSeeds() {
+            return icfg.entryMethods().collect(Collectors.toMap(
+                    icfg::getEntryOf, __ -> Set.of(zeroValue)));
+        }
+
+        @Override
+        public FlowFunction<Var> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+            Stmt stmt = edge.source();
+            // normal edges out of call sites are exceptional flows,
+            // through which the results of the calls are not assigned
+            if (stmt instanceof Invoke ||
+                    !(stmt.getDef().orElse(null) instanceof Var def)) {
+                return FlowFunction.identity();
+            }
+            boolean gen = !(stmt instanceof LoadField || stmt instanceof LoadArray);
+            return fact -> {
+                if (fact == zeroValue) {
+                    return Set.of(fact);
+                }
+                boolean flows = gen && stmt.getUses().contains(fact);
+                if (fact.equals(def)) {
+                    return flows ? Set.of(def) : Set.of();
+                } else {
+                    return flows ? Set.of(fact, def) : Set.of(fact);
+                }
+            };
+        }
+
+        @Override
+        public FlowFunction<Var> getCallFlowFunction(CallEdge<Stmt> edge) {
+            InvokeExp invokeExp = ((Invoke) edge.source()).getInvokeExp();
+            IR calleeIR = edge.getCallee().getIR();
+            return fact -> {
+                if (fact == zeroValue) {
+                    return Set.of(fact);
+                }
+                Set<Var> facts = Sets.newHybridSet();
+                int nParams = calleeIR.getParams().size();
+                for (int i = 0; i < invokeExp.getArgCount() && i < nParams; ++i) {
+                    if (invokeExp.getArg(i).equals(fact)) {
+                        facts.add(calleeIR.getParam(i));
+                    }
+                }
+                if (invokeExp instanceof InvokeInstanceExp instanceExp &&
+                        instanceExp.getBase().equals(fact) &&
+                        calleeIR.getThis() != null) {
+                    facts.add(calleeIR.getThis());
+                }
+                return facts;
+            };
+        }
+
+        @Override
+        public FlowFunction<Var> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+            Var result = ((Invoke) edge.getCallSite()).getResult();
+            Collection<Var> returnVars = edge.getReturnVars();
+            return fact -> {
+                if (fact == zeroValue) {
+                    return Set.of(fact);
+                }
+                return result != null && returnVars.contains(fact)
+                        ? Set.of(result) : Set.of();
+            };
+        }
+
+        @Override
+        public FlowFunction<Var> getCallToReturnFlowFunction(
+                CallToReturnEdge<Stmt> edge) {
+            Invoke callSite = (Invoke) edge.source();
+            Var result = callSite.getResult();
+            boolean isSource = result != null &&
+                    callSite.getMethodRef().getName().equals(sourceMethod);
+            return fact -> {
+                if (fact == zeroValue) {
+                    return isSource ? Set.of(fact, result) : Set.of(fact);
+                }
+                // the result is killed here, and it is tainted by
+                // return edges if the callees return tainted values
+                return fact.equals(result) ? Set.of() : Set.of(fact);
+            };
+        }
+    }
+}
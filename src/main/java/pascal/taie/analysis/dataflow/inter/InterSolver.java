@@ -24,9 +24,24 @@ package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
-import pascal.taie.util.collection.SetQueue;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.RegularBitSet;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopologicalSorter;
 
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -34,6 +49,14 @@ import java.util.stream.Collectors;
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * The nodes in the work-list are processed in a fixed priority order:
+ * the methods are ordered by the topological order of the SCCs of the
+ * call graph (callers before callees), and the nodes of each method are
+ * ordered by reverse post-order of its control-flow graph. Besides, the
+ * in-edges of a node are met in full only when the node is processed for
+ * the first time; afterwards, facts are propagated only along the
+ * out-edges of the nodes whose out facts have changed.
  */
 class InterSolver<Method, Node, Fact> {
 
@@ -43,7 +66,30 @@ class InterSolver<Method, Node, Fact> {
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    /**
+     * Maps each node to its position in the processing order.
+     */
+    private Map<Node, Integer> positions;
+
+    /**
+     * Nodes in the processing order.
+     */
+    private List<Node> order;
+
+    /**
+     * Positions of the nodes in the work-list.
+     */
+    private IBitSet workList;
+
+    /**
+     * Position to start the next scan of {@link #workList}.
+     */
+    private int cursor;
+
+    /**
+     * Positions of the nodes whose in-edges have been met in full.
+     */
+    private IBitSet visited;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
@@ -73,19 +119,110 @@ class InterSolver<Method, Node, Fact> {
             result.setInFact(node, analysis.newInitialFact());
             result.setOutFact(node, analysis.newInitialFact());
         });
+        computeOrder();
+    }
+
+    /**
+     * Computes the processing order of the nodes.
+     */
+    private void computeOrder() {
+        MultiMap<Method, Node> nodesOf = Maps.newMultiMap(
+                Maps.newLinkedHashMap(), Sets::newLinkedSet);
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            nodesOf.put(method, node);
+            callGraph.addNode(method);
+            if (icfg.isCallSite(node)) {
+                icfg.getCalleesOf(node).forEach(callee ->
+                        callGraph.addEdge(method, callee));
+            }
+        }
+        List<MergedNode<Method>> sccs = new TopologicalSorter<>(
+                new MergedSCCGraph<>(callGraph)).get();
+        int nNodes = icfg.getNumberOfNodes();
+        positions = Maps.newMap(nNodes);
+        order = new ArrayList<>(nNodes);
+        for (MergedNode<Method> scc : sccs) {
+            for (Method method : scc.getNodes()) {
+                Set<Node> nodes = nodesOf.get(method);
+                if (!nodes.isEmpty()) {
+                    addInReversePostOrder(method, nodes);
+                }
+            }
+        }
+        workList = new RegularBitSet(nNodes);
+        visited = new RegularBitSet(nNodes);
+        cursor = 0;
+    }
+
+    /**
+     * Appends the nodes of given method to {@link #order} in reverse
+     * post-order of the intra-procedural edges. The nodes unreachable
+     * from the method entry are appended at last.
+     */
+    private void addInReversePostOrder(Method method, Set<Node> nodes) {
+        List<Node> postOrder = new ArrayList<>(nodes.size());
+        Set<Node> visitedNodes = Sets.newSet(nodes.size());
+        Node entry = icfg.getEntryOf(method);
+        if (nodes.contains(entry)) {
+            // use iterative (non-recursive) algorithm to avoid stack overflow
+            Deque<Iterator<Node>> stack = new ArrayDeque<>();
+            Deque<Node> path = new ArrayDeque<>();
+            visitedNodes.add(entry);
+            stack.push(icfg.getSuccsOf(entry).iterator());
+            path.push(entry);
+            while (!stack.isEmpty()) {
+                Iterator<Node> succs = stack.peek();
+                Node next = null;
+                while (succs.hasNext()) {
+                    Node succ = succs.next();
+                    if (nodes.contains(succ) && visitedNodes.add(succ)) {
+                        next = succ;
+                        break;
+                    }
+                }
+                if (next != null) {
+                    stack.push(icfg.getSuccsOf(next).iterator());
+                    path.push(next);
+                } else {
+                    stack.pop();
+                    postOrder.add(path.pop());
+                }
+            }
+            Collections.reverse(postOrder);
+        }
+        for (Node node : postOrder) {
+            addToOrder(node);
+        }
+        for (Node node : nodes) {
+            if (!visitedNodes.contains(node)) {
+                addToOrder(node);
+            }
+        }
+    }
+
+    private void addToOrder(Node node) {
+        positions.put(node, order.size());
+        order.add(node);
     }
 
     private void doSolve() {
-        workList = new SetQueue<>();
-        icfg.forEach(workList::add);
+        for (int i = 0; i < order.size(); ++i) {
+            workList.set(i);
+        }
         while (!workList.isEmpty()) {
-            Node node = workList.poll();
-            // meet incoming facts
+            int position = pollWorkList();
+            Node node = order.get(position);
             Fact in = result.getInFact(node);
-            icfg.getInEdgesOf(node).forEach(inEdge -> {
-                Fact predOut = result.getOutFact(inEdge.source());
-                analysis.meetInto(analysis.transferEdge(inEdge, predOut), in);
-            });
+            if (visited.set(position)) {
+                // meet incoming facts in full on the first visit,
+                // afterwards, the facts are met by propagate()
+                icfg.getInEdgesOf(node).forEach(inEdge -> {
+                    Fact predOut = result.getOutFact(inEdge.source());
+                    analysis.meetInto(analysis.transferEdge(inEdge, predOut), in);
+                });
+            }
             Fact out = result.getOutFact(node);
             boolean changed = analysis.transferNode(node, in, out);
             if (changed) {
@@ -94,8 +231,31 @@ class InterSolver<Method, Node, Fact> {
         }
     }
 
+    private int pollWorkList() {
+        int position = workList.nextSetBit(cursor);
+        if (position < 0) {
+            position = workList.nextSetBit(0);
+        }
+        workList.clear(position);
+        cursor = position + 1;
+        return position;
+    }
+
+    /**
+     * Propagates the out fact of given node to its successors,
+     * and adds the successors to the work-list.
+     */
     void propagate(Node node) {
-        workList.addAll(icfg.getSuccsOf(node));
+        Fact out = result.getOutFact(node);
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(node)) {
+            Node succ = outEdge.target();
+            int position = positions.get(succ);
+            if (visited.get(position)) {
+                analysis.meetInto(analysis.transferEdge(outEdge, out),
+                        result.getInFact(succ));
+            }
+            workList.set(position);
+        }
     }
 
     Fact getOutFact(Node node) {
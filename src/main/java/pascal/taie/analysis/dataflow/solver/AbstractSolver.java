@@ -24,9 +24,9 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
-import pascal.taie.util.collection.IndexMap;
 
 /**
  * Provides common functionalities for {@link Solver}.
@@ -38,7 +38,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
 
     @Override
     public DataflowResult<Node, Fact> solve(DataflowAnalysis<Node, Fact> analysis) {
-        DataflowResult<Node, Fact> result = initialize(analysis);
+        IndexedDataflowResult<Node, Fact> result = initialize(analysis);
         doSolve(analysis, result);
         return result;
     }
@@ -48,12 +48,10 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(DataflowAnalysis<Node, Fact> analysis) {
+    private IndexedDataflowResult<Node, Fact> initialize(DataflowAnalysis<Node, Fact> analysis) {
         CFG<Node> cfg = analysis.getCFG();
-        var indexer = new CFGNodeIndexer<>(cfg);
-        DataflowResult<Node, Fact> result = new DataflowResult<>(
-                new IndexMap<>(indexer, cfg.getNumberOfNodes()),
-                new IndexMap<>(indexer, cfg.getNumberOfNodes()));
+        IndexedDataflowResult<Node, Fact> result = new IndexedDataflowResult<>(
+                new CFGNodeIndexer<>(cfg), cfg.getNumberOfNodes());
         if (analysis.isForward()) {
             initializeForward(analysis, result);
         } else {
@@ -63,7 +61,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
     }
 
     protected void initializeForward(DataflowAnalysis<Node, Fact> analysis,
-                                     DataflowResult<Node, Fact> result) {
+                                     IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
         // initialize entry
         Node entry = cfg.getEntry();
@@ -81,7 +79,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
     }
 
     protected void initializeBackward(DataflowAnalysis<Node, Fact> analysis,
-                                      DataflowResult<Node, Fact> result) {
+                                      IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
         // initialize exit
         Node exit = cfg.getExit();
@@ -102,7 +100,7 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
      * Solves the data-flow problem for given analysis.
      */
     private void doSolve(DataflowAnalysis<Node, Fact> analysis,
-                         DataflowResult<Node, Fact> result) {
+                         IndexedDataflowResult<Node, Fact> result) {
         if (analysis.isForward()) {
             doSolveForward(analysis, result);
         } else {
@@ -111,8 +109,8 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
     }
 
     protected abstract void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
-                                           DataflowResult<Node, Fact> result);
+                                           IndexedDataflowResult<Node, Fact> result);
 
     protected abstract void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
-                                            DataflowResult<Node, Fact> result);
+                                            IndexedDataflowResult<Node, Fact> result);
 }
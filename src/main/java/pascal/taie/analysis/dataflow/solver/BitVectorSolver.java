@@ -0,0 +1,299 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.GenKillAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.util.collection.IndexMap;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Bit-vector solver for {@link GenKillAnalysis}.
+ * <p>
+ * The data-flow facts of all nodes are stored as dense words in flat
+ * {@code long} arrays, and the gen/kill sets of each node are computed
+ * only once before solving, thus the solving loop neither allocates
+ * objects nor calls back into the analysis. The results are converted
+ * to {@link SetFact}s after reaching the fixed point, so that they are
+ * the same as the ones computed by {@link WorkListSolver}.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements in the data-flow facts
+ */
+class BitVectorSolver<Node, E> implements Solver<Node, SetFact<E>> {
+
+    @Override
+    public DataflowResult<Node, SetFact<E>> solve(
+            DataflowAnalysis<Node, SetFact<E>> analysis) {
+        if (!(analysis instanceof GenKillAnalysis<Node, E> genKill)) {
+            throw new IllegalArgumentException(
+                    "Bit-vector solver requires gen/kill analysis, given: " + analysis);
+        }
+        Problem<Node, E> problem = new Problem<>(genKill);
+        problem.solve();
+        return problem.getResult();
+    }
+
+    /**
+     * Bit-vector representation of a gen/kill problem on a CFG.
+     * Facts are named along the direction of the analysis, i.e.,
+     * {@code before} is the in (out) fact for forward (backward) analysis.
+     */
+    private static class Problem<Node, E> {
+
+        private final GenKillAnalysis<Node, E> analysis;
+
+        private final CFG<Node> cfg;
+
+        private final boolean isForward;
+
+        private final boolean isMay;
+
+        /**
+         * Number of CFG nodes.
+         */
+        private final int nNodes;
+
+        /**
+         * Number of words of each fact.
+         */
+        private final int nWords;
+
+        /**
+         * Index of the entry (exit) node for forward (backward) analysis.
+         */
+        private final int boundary;
+
+        /**
+         * Nodes whose facts flow into each node.
+         */
+        private final int[][] sources;
+
+        /**
+         * Nodes which the facts of each node flow into.
+         */
+        private final int[][] targets;
+
+        private final int[][] gen;
+
+        private final int[][] kill;
+
+        private final long[] before;
+
+        private final long[] after;
+
+        /**
+         * Scratch words for computing the result of a transfer.
+         */
+        private final long[] scratch;
+
+        /**
+         * Whether valid facts have arrived at each node. Only relevant to
+         * must analysis, as the facts of the unreached nodes are conceptually
+         * the top element, i.e., the universe set.
+         */
+        private final boolean[] reached;
+
+        private final RPOWorkList workList;
+
+        private Problem(GenKillAnalysis<Node, E> analysis) {
+            this.analysis = analysis;
+            this.cfg = analysis.getCFG();
+            this.isForward = analysis.isForward();
+            this.isMay = analysis.isMayAnalysis();
+            this.nNodes = cfg.getNumberOfNodes();
+            int nBits = analysis.getDomainSize();
+            this.nWords = (nBits + 63) >>> 6;
+            this.boundary = cfg.getIndex(isForward ? cfg.getEntry() : cfg.getExit());
+            this.sources = new int[nNodes][];
+            this.targets = new int[nNodes][];
+            this.gen = new int[nNodes][];
+            this.kill = new int[nNodes][];
+            for (int i = 0; i < nNodes; ++i) {
+                Node node = cfg.getNode(i);
+                int[] preds = toIndexes(cfg.getPredsOf(node));
+                int[] succs = toIndexes(cfg.getSuccsOf(node));
+                sources[i] = isForward ? preds : succs;
+                targets[i] = isForward ? succs : preds;
+                IntStream.Builder genBuilder = IntStream.builder();
+                analysis.forEachGen(node, genBuilder);
+                gen[i] = genBuilder.build().toArray();
+                IntStream.Builder killBuilder = IntStream.builder();
+                analysis.forEachKill(node, killBuilder);
+                kill[i] = killBuilder.build().toArray();
+            }
+            this.before = new long[nNodes * nWords];
+            this.after = new long[nNodes * nWords];
+            this.scratch = new long[nWords];
+            this.reached = new boolean[nNodes];
+            if (isMay) {
+                Arrays.fill(reached, true);
+            } else {
+                // initial facts of must analysis are the universe set
+                long lastMask = (nBits & 63) == 0 ? -1L : (1L << nBits) - 1;
+                for (int i = 0; i < nNodes; ++i) {
+                    if (i != boundary && nWords > 0) {
+                        int base = i * nWords;
+                        Arrays.fill(before, base, base + nWords, -1L);
+                        Arrays.fill(after, base, base + nWords, -1L);
+                        before[base + nWords - 1] = lastMask;
+                        after[base + nWords - 1] = lastMask;
+                    }
+                }
+                reached[boundary] = true;
+            }
+            this.workList = new RPOWorkList(cfg,
+                    isForward ? cfg.getEntry() : cfg.getExit(),
+                    cfg::getIndex, cfg::getNode, isForward);
+        }
+
+        private int[] toIndexes(Iterable<Node> nodes) {
+            IntStream.Builder builder = IntStream.builder();
+            nodes.forEach(n -> builder.accept(cfg.getIndex(n)));
+            return builder.build().toArray();
+        }
+
+        private void solve() {
+            workList.addAllExcept(boundary);
+            int node;
+            while ((node = workList.poll()) >= 0) {
+                if (!meet(node)) {
+                    continue;
+                }
+                boolean changed = !reached[node];
+                reached[node] = true;
+                if (transfer(node)) {
+                    changed = true;
+                }
+                if (changed) {
+                    for (int target : targets[node]) {
+                        workList.add(target);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Meets the facts flowing into given node.
+         *
+         * @return false if no valid facts have arrived at the node yet.
+         */
+        private boolean meet(int node) {
+            int base = node * nWords;
+            int[] srcs = sources[node];
+            if (isMay) {
+                if (srcs.length > 0) {
+                    Arrays.fill(before, base, base + nWords, 0L);
+                    for (int src : srcs) {
+                        int srcBase = src * nWords;
+                        for (int w = 0; w < nWords; ++w) {
+                            before[base + w] |= after[srcBase + w];
+                        }
+                    }
+                }
+                return true;
+            } else {
+                boolean first = true;
+                for (int src : srcs) {
+                    if (!reached[src]) {
+                        continue;
+                    }
+                    int srcBase = src * nWords;
+                    if (first) {
+                        System.arraycopy(after, srcBase, before, base, nWords);
+                        first = false;
+                    } else {
+                        for (int w = 0; w < nWords; ++w) {
+                            before[base + w] &= after[srcBase + w];
+                        }
+                    }
+                }
+                return !first;
+            }
+        }
+
+        /**
+         * Applies {@code after = gen ∪ (before - kill)} to given node.
+         *
+         * @return true if the after fact changed, otherwise false.
+         */
+        private boolean transfer(int node) {
+            int base = node * nWords;
+            System.arraycopy(before, base, scratch, 0, nWords);
+            for (int k : kill[node]) {
+                scratch[k >>> 6] &= ~(1L << k);
+            }
+            for (int g : gen[node]) {
+                scratch[g >>> 6] |= 1L << g;
+            }
+            boolean changed = false;
+            for (int w = 0; w < nWords; ++w) {
+                if (after[base + w] != scratch[w]) {
+                    after[base + w] = scratch[w];
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        private DataflowResult<Node, SetFact<E>> getResult() {
+            var indexer = new CFGNodeIndexer<>(cfg);
+            DataflowResult<Node, SetFact<E>> result = new DataflowResult<>(
+                    new IndexMap<>(indexer, nNodes),
+                    new IndexMap<>(indexer, nNodes));
+            for (int i = 0; i < nNodes; ++i) {
+                SetFact<E> beforeFact, afterFact;
+                if (reached[i]) {
+                    beforeFact = toFact(before, i);
+                    afterFact = toFact(after, i);
+                } else {
+                    beforeFact = analysis.newInitialFact();
+                    afterFact = analysis.newInitialFact();
+                }
+                Node node = cfg.getNode(i);
+                result.setInFact(node, isForward ? beforeFact : afterFact);
+                result.setOutFact(node, isForward ? afterFact : beforeFact);
+            }
+            return result;
+        }
+
+        private SetFact<E> toFact(long[] facts, int node) {
+            SetFact<E> fact = analysis.newBoundaryFact();
+            int base = node * nWords;
+            for (int w = 0; w < nWords; ++w) {
+                long word = facts[base + w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    fact.add(analysis.getElement((w << 6) + bit));
+                    word &= word - 1;
+                }
+            }
+            return fact;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.List;
+
+/**
+ * Data-flow result computed by {@link BlockSolver}, which stores the facts
+ * at the boundaries of each basic block, and expands the facts of the
+ * statements inside a block on demand, i.e., when any of them is queried
+ * for the first time.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+class BlockDataflowResult<Fact> extends IndexedDataflowResult<Stmt, Fact> {
+
+    private final DataflowAnalysis<Stmt, Fact> analysis;
+
+    private final BlockCFG blockCFG;
+
+    /**
+     * In facts of the first statements of blocks.
+     */
+    private final Fact[] blockInFacts;
+
+    /**
+     * Out facts of the last statements of blocks.
+     */
+    private final Fact[] blockOutFacts;
+
+    private final boolean[] expanded;
+
+    @SuppressWarnings("unchecked")
+    BlockDataflowResult(DataflowAnalysis<Stmt, Fact> analysis, BlockCFG blockCFG) {
+        super(new CFGNodeIndexer<>(analysis.getCFG()),
+                analysis.getCFG().getNumberOfNodes());
+        this.analysis = analysis;
+        this.blockCFG = blockCFG;
+        int nBlocks = blockCFG.getNumberOfNodes();
+        this.blockInFacts = (Fact[]) new Object[nBlocks];
+        this.blockOutFacts = (Fact[]) new Object[nBlocks];
+        this.expanded = new boolean[nBlocks];
+    }
+
+    Fact getBlockInFact(BasicBlock block) {
+        return blockInFacts[block.getIndex()];
+    }
+
+    void setBlockInFact(BasicBlock block, Fact fact) {
+        blockInFacts[block.getIndex()] = fact;
+    }
+
+    Fact getBlockOutFact(BasicBlock block) {
+        return blockOutFacts[block.getIndex()];
+    }
+
+    void setBlockOutFact(BasicBlock block, Fact fact) {
+        blockOutFacts[block.getIndex()] = fact;
+    }
+
+    @Override
+    public Fact getInFact(Stmt stmt) {
+        Fact fact = super.getInFact(stmt);
+        if (fact == null) {
+            expand(blockCFG.getBlockOf(stmt));
+            fact = super.getInFact(stmt);
+        }
+        return fact;
+    }
+
+    @Override
+    public Fact getOutFact(Stmt stmt) {
+        Fact fact = super.getOutFact(stmt);
+        if (fact == null) {
+            expand(blockCFG.getBlockOf(stmt));
+            fact = super.getOutFact(stmt);
+        }
+        return fact;
+    }
+
+    @Override
+    public Fact getInFact(int index) {
+        return getInFact(analysis.getCFG().getNode(index));
+    }
+
+    @Override
+    public Fact getOutFact(int index) {
+        return getOutFact(analysis.getCFG().getNode(index));
+    }
+
+    /**
+     * Re-applies the transfer functions of the statements in given block
+     * to compute and store their facts.
+     */
+    private synchronized void expand(BasicBlock block) {
+        if (expanded[block.getIndex()]) {
+            return;
+        }
+        List<Stmt> stmts = block.getStmts();
+        int last = stmts.size() - 1;
+        if (analysis.isForward()) {
+            Fact in = getBlockInFact(block);
+            for (int i = 0; i < last; ++i) {
+                Stmt stmt = stmts.get(i);
+                Fact out = analysis.newInitialFact();
+                analysis.transferNode(stmt, in, out);
+                setInFact(stmt, in);
+                setOutFact(stmt, out);
+                CFGEdge<Stmt> edge = CollectionUtils.getOne(
+                        analysis.getCFG().getOutEdgesOf(stmt));
+                in = analysis.needTransferEdge(edge) ?
+                        analysis.transferEdge(edge, out) : out;
+            }
+            setInFact(stmts.get(last), in);
+            setOutFact(stmts.get(last), getBlockOutFact(block));
+        } else {
+            Fact out = getBlockOutFact(block);
+            for (int i = last; i > 0; --i) {
+                Stmt stmt = stmts.get(i);
+                Fact in = analysis.newInitialFact();
+                analysis.transferNode(stmt, in, out);
+                setInFact(stmt, in);
+                setOutFact(stmt, out);
+                CFGEdge<Stmt> edge = CollectionUtils.getOne(
+                        analysis.getCFG().getInEdgesOf(stmt));
+                out = analysis.needTransferEdge(edge) ?
+                        analysis.transferEdge(edge, in) : in;
+            }
+            setInFact(stmts.get(0), getBlockInFact(block));
+            setOutFact(stmts.get(0), out);
+        }
+        expanded[block.getIndex()] = true;
+    }
+}
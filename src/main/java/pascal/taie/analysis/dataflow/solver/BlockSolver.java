@@ -0,0 +1,274 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Work-list solver on the basic-block view of CFG.
+ * It works in the same way as {@link WorkListSolver}, except that it only
+ * keeps the facts at the boundaries of basic blocks, and transfers each
+ * block as a whole by applying the transfer functions of its statements
+ * in sequence on temporary facts. The facts of the statements inside
+ * blocks are computed on demand by {@link BlockDataflowResult}.
+ */
+class BlockSolver<Fact> implements Solver<Stmt, Fact> {
+
+    @Override
+    public DataflowResult<Stmt, Fact> solve(DataflowAnalysis<Stmt, Fact> analysis) {
+        BlockCFG blockCFG = new BlockCFG(analysis.getCFG());
+        BlockDataflowResult<Fact> result = new BlockDataflowResult<>(analysis, blockCFG);
+        if (analysis.isForward()) {
+            initializeForward(analysis, blockCFG, result);
+            doSolveForward(analysis, blockCFG, result);
+        } else {
+            initializeBackward(analysis, blockCFG, result);
+            doSolveBackward(analysis, blockCFG, result);
+        }
+        return result;
+    }
+
+    private void initializeForward(DataflowAnalysis<Stmt, Fact> analysis,
+                                   BlockCFG blockCFG,
+                                   BlockDataflowResult<Fact> result) {
+        // initialize entry
+        BasicBlock entry = blockCFG.getEntry();
+        Fact entryFact = analysis.newBoundaryFact();
+        result.setBlockInFact(entry, entryFact);
+        result.setBlockOutFact(entry, entryFact);
+        blockCFG.forEach(block -> {
+            // skip entry which has been initialized
+            if (block == entry) {
+                return;
+            }
+            // initialize in fact
+            Set<CFGEdge<Stmt>> inEdges = blockCFG.getStmtInEdgesOf(block);
+            if (inEdges.size() == 1) {
+                CFGEdge<Stmt> edge = CollectionUtils.getOne(inEdges);
+                if (!analysis.needTransferEdge(edge)) {
+                    result.setBlockInFact(block, getOrNewOutFact(result, analysis,
+                            blockCFG.getBlockOf(edge.source())));
+                }
+            }
+            if (result.getBlockInFact(block) == null) {
+                result.setBlockInFact(block, analysis.newInitialFact());
+            }
+            // initialize out fact
+            getOrNewOutFact(result, analysis, block);
+        });
+    }
+
+    private Fact getOrNewOutFact(BlockDataflowResult<Fact> result,
+                                 DataflowAnalysis<Stmt, Fact> analysis,
+                                 BasicBlock block) {
+        Fact fact = result.getBlockOutFact(block);
+        if (fact == null) {
+            fact = analysis.newInitialFact();
+            result.setBlockOutFact(block, fact);
+        }
+        return fact;
+    }
+
+    private void doSolveForward(DataflowAnalysis<Stmt, Fact> analysis,
+                                BlockCFG blockCFG,
+                                BlockDataflowResult<Fact> result) {
+        BasicBlock entry = blockCFG.getEntry();
+        RPOWorkList workList = new RPOWorkList(blockCFG, entry,
+                BasicBlock::getIndex, blockCFG::getBlock, true);
+        workList.addAllExcept(entry.getIndex());
+        int index;
+        while ((index = workList.poll()) >= 0) {
+            BasicBlock block = blockCFG.getBlock(index);
+            // meet incoming facts
+            Fact in;
+            Set<CFGEdge<Stmt>> inEdges = blockCFG.getStmtInEdgesOf(block);
+            if (inEdges.size() > 1) {
+                in = result.getBlockInFact(block);
+                inEdges.forEach(inEdge -> {
+                    Fact fact = result.getBlockOutFact(
+                            blockCFG.getBlockOf(inEdge.source()));
+                    if (analysis.needTransferEdge(inEdge)) {
+                        fact = analysis.transferEdge(inEdge, fact);
+                    }
+                    analysis.meetInto(fact, in);
+                });
+            } else if (inEdges.size() == 1) {
+                CFGEdge<Stmt> inEdge = CollectionUtils.getOne(inEdges);
+                if (analysis.needTransferEdge(inEdge)) {
+                    in = analysis.transferEdge(inEdge, result.getBlockOutFact(
+                            blockCFG.getBlockOf(inEdge.source())));
+                    result.setBlockInFact(block, in);
+                } else {
+                    in = result.getBlockInFact(block);
+                }
+            } else {
+                in = result.getBlockInFact(block);
+            }
+            // apply transfer functions of the statements in the block
+            Fact out = result.getBlockOutFact(block);
+            boolean changed = transferForward(analysis, block, in, out);
+            if (changed) {
+                blockCFG.getSuccsOf(block).forEach(succ -> workList.add(succ.getIndex()));
+            }
+        }
+    }
+
+    /**
+     * Transfers the facts through the statements of given block forwardly.
+     * The intermediate facts are temporary and discarded after the transfer.
+     *
+     * @return true if the out fact of the block changed, otherwise false.
+     */
+    private boolean transferForward(DataflowAnalysis<Stmt, Fact> analysis,
+                                    BasicBlock block, Fact in, Fact out) {
+        CFG<Stmt> cfg = analysis.getCFG();
+        List<Stmt> stmts = block.getStmts();
+        int last = stmts.size() - 1;
+        Fact curr = in;
+        for (int i = 0; i < last; ++i) {
+            Stmt stmt = stmts.get(i);
+            Fact next = analysis.newInitialFact();
+            analysis.transferNode(stmt, curr, next);
+            CFGEdge<Stmt> edge = CollectionUtils.getOne(cfg.getOutEdgesOf(stmt));
+            curr = analysis.needTransferEdge(edge) ?
+                    analysis.transferEdge(edge, next) : next;
+        }
+        return analysis.transferNode(stmts.get(last), curr, out);
+    }
+
+    private void initializeBackward(DataflowAnalysis<Stmt, Fact> analysis,
+                                    BlockCFG blockCFG,
+                                    BlockDataflowResult<Fact> result) {
+        // initialize exit
+        BasicBlock exit = blockCFG.getExit();
+        Fact exitFact = analysis.newBoundaryFact();
+        result.setBlockInFact(exit, exitFact);
+        result.setBlockOutFact(exit, exitFact);
+        blockCFG.forEach(block -> {
+            // skip exit which has been initialized
+            if (block == exit) {
+                return;
+            }
+            // initialize out fact
+            Set<CFGEdge<Stmt>> outEdges = blockCFG.getStmtOutEdgesOf(block);
+            if (outEdges.size() == 1) {
+                CFGEdge<Stmt> edge = CollectionUtils.getOne(outEdges);
+                if (!analysis.needTransferEdge(edge)) {
+                    result.setBlockOutFact(block, getOrNewInFact(result, analysis,
+                            blockCFG.getBlockOf(edge.target())));
+                }
+            }
+            if (result.getBlockOutFact(block) == null) {
+                result.setBlockOutFact(block, analysis.newInitialFact());
+            }
+            // initialize in fact
+            getOrNewInFact(result, analysis, block);
+        });
+    }
+
+    private Fact getOrNewInFact(BlockDataflowResult<Fact> result,
+                                DataflowAnalysis<Stmt, Fact> analysis,
+                                BasicBlock block) {
+        Fact fact = result.getBlockInFact(block);
+        if (fact == null) {
+            fact = analysis.newInitialFact();
+            result.setBlockInFact(block, fact);
+        }
+        return fact;
+    }
+
+    private void doSolveBackward(DataflowAnalysis<Stmt, Fact> analysis,
+                                 BlockCFG blockCFG,
+                                 BlockDataflowResult<Fact> result) {
+        BasicBlock exit = blockCFG.getExit();
+        RPOWorkList workList = new RPOWorkList(blockCFG, exit,
+                BasicBlock::getIndex, blockCFG::getBlock, false);
+        workList.addAllExcept(exit.getIndex());
+        int index;
+        while ((index = workList.poll()) >= 0) {
+            BasicBlock block = blockCFG.getBlock(index);
+            // meet incoming facts
+            Fact out;
+            Set<CFGEdge<Stmt>> outEdges = blockCFG.getStmtOutEdgesOf(block);
+            if (outEdges.size() > 1) {
+                out = result.getBlockOutFact(block);
+                outEdges.forEach(outEdge -> {
+                    Fact fact = result.getBlockInFact(
+                            blockCFG.getBlockOf(outEdge.target()));
+                    if (analysis.needTransferEdge(outEdge)) {
+                        fact = analysis.transferEdge(outEdge, fact);
+                    }
+                    analysis.meetInto(fact, out);
+                });
+            } else if (outEdges.size() == 1) {
+                CFGEdge<Stmt> outEdge = CollectionUtils.getOne(outEdges);
+                if (analysis.needTransferEdge(outEdge)) {
+                    out = analysis.transferEdge(outEdge, result.getBlockInFact(
+                            blockCFG.getBlockOf(outEdge.target())));
+                    result.setBlockOutFact(block, out);
+                } else {
+                    out = result.getBlockOutFact(block);
+                }
+            } else {
+                out = result.getBlockOutFact(block);
+            }
+            // apply transfer functions of the statements in the block
+            Fact in = result.getBlockInFact(block);
+            boolean changed = transferBackward(analysis, block, in, out);
+            if (changed) {
+                blockCFG.getPredsOf(block).forEach(pred -> workList.add(pred.getIndex()));
+            }
+        }
+    }
+
+    /**
+     * Transfers the facts through the statements of given block backwardly.
+     * The intermediate facts are temporary and discarded after the transfer.
+     *
+     * @return true if the in fact of the block changed, otherwise false.
+     */
+    private boolean transferBackward(DataflowAnalysis<Stmt, Fact> analysis,
+                                     BasicBlock block, Fact in, Fact out) {
+        CFG<Stmt> cfg = analysis.getCFG();
+        List<Stmt> stmts = block.getStmts();
+        Fact curr = out;
+        for (int i = stmts.size() - 1; i > 0; --i) {
+            Stmt stmt = stmts.get(i);
+            Fact prev = analysis.newInitialFact();
+            analysis.transferNode(stmt, prev, curr);
+            CFGEdge<Stmt> edge = CollectionUtils.getOne(cfg.getInEdgesOf(stmt));
+            curr = analysis.needTransferEdge(edge) ?
+                    analysis.transferEdge(edge, prev) : prev;
+        }
+        return analysis.transferNode(stmts.get(0), in, curr);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.util.graph.Graph;
+
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Work-list of graph nodes ordered by reverse post-order, which lets the
+ * facts of a node be computed after those of its predecessors (except
+ * along back edges), thus usually reaches the fixed point with fewer
+ * iterations. The work-list works on node indexes and is backed by a
+ * bit set over the positions in the order, so that adding and polling
+ * nodes require neither allocation nor rebalancing.
+ * <p>
+ * Nodes that are unreachable from the root are placed after the
+ * reachable nodes, in the order of their indexes.
+ */
+final class RPOWorkList {
+
+    /**
+     * Maps node index to its position in reverse post-order.
+     */
+    private final int[] positions;
+
+    /**
+     * Maps position in reverse post-order to node index.
+     */
+    private final int[] order;
+
+    private final long[] bits;
+
+    /**
+     * Index of the word in {@link #bits} to start the next scan.
+     */
+    private int cursor;
+
+    private int size;
+
+    /**
+     * @param graph    the graph whose nodes are put in the work-list
+     * @param root     the root of the traversal, i.e., the entry (exit)
+     *                 for forward (backward) analysis
+     * @param indexer  maps nodes to their indexes, which must be in
+     *                 range [0, number of nodes)
+     * @param nodes    maps indexes to nodes
+     * @param isForward whether to traverse the graph along successors (true)
+     *                  or predecessors (false)
+     */
+    <N> RPOWorkList(Graph<N> graph, N root, ToIntFunction<N> indexer,
+                    IntFunction<N> nodes, boolean isForward) {
+        int nNodes = graph.getNumberOfNodes();
+        positions = new int[nNodes];
+        order = new int[nNodes];
+        bits = new long[(nNodes + 63) >>> 6];
+        // compute post-order by iterative depth-first search
+        int[][] adjacents = new int[nNodes][];
+        for (int i = 0; i < nNodes; ++i) {
+            N node = nodes.apply(i);
+            adjacents[i] = (isForward ? graph.getSuccsOf(node) : graph.getPredsOf(node))
+                    .stream()
+                    .mapToInt(indexer)
+                    .toArray();
+        }
+        boolean[] visited = new boolean[nNodes];
+        int[] stack = new int[nNodes];
+        int[] next = new int[nNodes]; // next adjacent to visit of each node on stack
+        int[] postOrder = new int[nNodes];
+        int nVisited = 0;
+        int rootIndex = indexer.applyAsInt(root);
+        int top = 0;
+        stack[0] = rootIndex;
+        visited[rootIndex] = true;
+        while (top >= 0) {
+            int node = stack[top];
+            if (next[node] < adjacents[node].length) {
+                int adj = adjacents[node][next[node]++];
+                if (!visited[adj]) {
+                    visited[adj] = true;
+                    stack[++top] = adj;
+                }
+            } else {
+                postOrder[nVisited++] = node;
+                --top;
+            }
+        }
+        int pos = 0;
+        for (int i = nVisited - 1; i >= 0; --i) {
+            order[pos++] = postOrder[i];
+        }
+        for (int i = 0; i < nNodes; ++i) {
+            if (!visited[i]) {
+                order[pos++] = i;
+            }
+        }
+        for (int i = 0; i < nNodes; ++i) {
+            positions[order[i]] = i;
+        }
+    }
+
+    /**
+     * Adds the node of given index to this work-list.
+     */
+    void add(int index) {
+        int pos = positions[index];
+        int word = pos >>> 6;
+        long mask = 1L << pos;
+        if ((bits[word] & mask) == 0) {
+            bits[word] |= mask;
+            ++size;
+            if (word < cursor) {
+                cursor = word;
+            }
+        }
+    }
+
+    /**
+     * Adds all nodes except the one of given index to this work-list.
+     */
+    void addAllExcept(int index) {
+        for (int i = 0; i < positions.length; ++i) {
+            if (i != index) {
+                add(i);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes and returns the node that comes first in reverse post-order.
+     *
+     * @return the index of the node, or -1 if the work-list is empty.
+     */
+    int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        while (bits[cursor] == 0) {
+            ++cursor;
+        }
+        long word = bits[cursor];
+        int bit = Long.numberOfTrailingZeros(word);
+        bits[cursor] = word & ~(1L << bit);
+        --size;
+        return order[(cursor << 6) + bit];
+    }
+}
@@ -47,6 +47,40 @@ public interface Solver<Node, Fact> {
         return (Solver<Node, Fact>) SOLVER;
     }
 
+    /**
+     * The solver specialized for gen/kill analyses.
+     *
+     * @see pascal.taie.analysis.dataflow.analysis.GenKillAnalysis
+     */
+    @SuppressWarnings("rawtypes")
+    Solver BIT_VECTOR_SOLVER = new BitVectorSolver<>();
+
+    /**
+     * Static factory method for obtaining the bit-vector solver.
+     * The solver can only solve
+     * {@link pascal.taie.analysis.dataflow.analysis.GenKillAnalysis}.
+     */
+    @SuppressWarnings("unchecked")
+    static <Node, Fact> Solver<Node, Fact> getBitVectorSolver() {
+        return (Solver<Node, Fact>) BIT_VECTOR_SOLVER;
+    }
+
+    /**
+     * The solver working on basic blocks.
+     */
+    @SuppressWarnings("rawtypes")
+    Solver BLOCK_SOLVER = new BlockSolver<>();
+
+    /**
+     * Static factory method for obtaining the basic-block solver.
+     * The solver can only solve analyses on CFGs of
+     * {@link pascal.taie.ir.stmt.Stmt}s.
+     */
+    @SuppressWarnings("unchecked")
+    static <Node, Fact> Solver<Node, Fact> getBlockSolver() {
+        return (Solver<Node, Fact>) BLOCK_SOLVER;
+    }
+
     /**
      * Solves the given analysis problem.
      *
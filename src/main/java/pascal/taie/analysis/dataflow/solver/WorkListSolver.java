@@ -24,22 +24,22 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGEdge;
 import pascal.taie.util.collection.CollectionUtils;
-import pascal.taie.util.collection.Sets;
-
-import java.util.Comparator;
-import java.util.NavigableSet;
 
 /**
  * Work-list solver with optimization.
+ * The nodes are processed in reverse post-order of the CFG
+ * (of the reverse CFG for backward analysis), and the facts are
+ * accessed by node indexes.
  */
 class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
 
     @Override
     protected void initializeForward(DataflowAnalysis<Node, Fact> analysis,
-                                     DataflowResult<Node, Fact> result) {
+                                     IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
         // initialize entry
         Node entry = cfg.getEntry();
@@ -80,53 +80,53 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
 
     @Override
     protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
-                                  DataflowResult<Node, Fact> result) {
+                                  IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(cfg::getIndex));
-        cfg.forEach(node -> {
-            if (!cfg.isEntry(node)) {
-                workList.add(node);
-            }
-        });
-        while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+        int entry = cfg.getIndex(cfg.getEntry());
+        RPOWorkList workList = new RPOWorkList(cfg, cfg.getEntry(),
+                cfg::getIndex, cfg::getNode, true);
+        workList.addAllExcept(entry);
+        int index;
+        while ((index = workList.poll()) >= 0) {
+            Node node = cfg.getNode(index);
             // meet incoming facts
             Fact in;
             int inDegree = cfg.getInDegreeOf(node);
             if (inDegree > 1) {
-                in = result.getInFact(node);
-                cfg.getInEdgesOf(node).forEach(inEdge -> {
-                    Fact fact = result.getOutFact(inEdge.source());
+                in = result.getInFact(index);
+                for (CFGEdge<Node> inEdge : cfg.getInEdgesOf(node)) {
+                    Fact fact = result.getOutFact(cfg.getIndex(inEdge.source()));
                     if (analysis.needTransferEdge(inEdge)) {
                         fact = analysis.transferEdge(inEdge, fact);
                     }
                     analysis.meetInto(fact, in);
-                });
+                }
             } else if (inDegree == 1) {
                 CFGEdge<Node> inEdge = CollectionUtils.getOne(cfg.getInEdgesOf(node));
                 if (analysis.needTransferEdge(inEdge)) {
                     in = analysis.transferEdge(inEdge,
-                            result.getOutFact(inEdge.source()));
-                    result.setInFact(node, in);
+                            result.getOutFact(cfg.getIndex(inEdge.source())));
+                    result.setInFact(index, in);
                 } else {
-                    in = result.getInFact(node);
+                    in = result.getInFact(index);
                 }
             } else {
-                in = result.getInFact(node);
+                in = result.getInFact(index);
             }
             // apply node transfer function
-            Fact out = result.getOutFact(node);
+            Fact out = result.getOutFact(index);
             boolean changed = analysis.transferNode(node, in, out);
             if (changed) {
-                workList.addAll(cfg.getSuccsOf(node));
+                for (CFGEdge<Node> outEdge : cfg.getOutEdgesOf(node)) {
+                    workList.add(cfg.getIndex(outEdge.target()));
+                }
             }
         }
     }
 
     @Override
     protected void initializeBackward(DataflowAnalysis<Node, Fact> analysis,
-                                      DataflowResult<Node, Fact> result) {
+                                      IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
         // initialize exit
         Node exit = cfg.getExit();
@@ -167,46 +167,46 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
 
     @Override
     protected void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
-                                   DataflowResult<Node, Fact> result) {
+                                   IndexedDataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(n -> -cfg.getIndex(n)));
-        cfg.forEach(node -> {
-            if (!cfg.isExit(node)) {
-                workList.add(node);
-            }
-        });
-        while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+        int exit = cfg.getIndex(cfg.getExit());
+        RPOWorkList workList = new RPOWorkList(cfg, cfg.getExit(),
+                cfg::getIndex, cfg::getNode, false);
+        workList.addAllExcept(exit);
+        int index;
+        while ((index = workList.poll()) >= 0) {
+            Node node = cfg.getNode(index);
             // meet incoming facts
             Fact out;
             int outDegree = cfg.getOutDegreeOf(node);
             if (outDegree > 1) {
-                out = result.getOutFact(node);
-                cfg.getOutEdgesOf(node).forEach(outEdge -> {
-                    Fact fact = result.getInFact(outEdge.target());
+                out = result.getOutFact(index);
+                for (CFGEdge<Node> outEdge : cfg.getOutEdgesOf(node)) {
+                    Fact fact = result.getInFact(cfg.getIndex(outEdge.target()));
                     if (analysis.needTransferEdge(outEdge)) {
                         fact = analysis.transferEdge(outEdge, fact);
                     }
                     analysis.meetInto(fact, out);
-                });
+                }
             } else if (outDegree == 1) {
                 CFGEdge<Node> outEdge = CollectionUtils.getOne(cfg.getOutEdgesOf(node));
                 if (analysis.needTransferEdge(outEdge)) {
                     out = analysis.transferEdge(outEdge,
-                            result.getInFact(outEdge.target()));
-                    result.setOutFact(node, out);
+                            result.getInFact(cfg.getIndex(outEdge.target())));
+                    result.setOutFact(index, out);
                 } else {
-                    out = result.getOutFact(node);
+                    out = result.getOutFact(index);
                 }
             } else {
-                out = result.getOutFact(node);
+                out = result.getOutFact(index);
             }
             // apply node transfer function
-            Fact in = result.getInFact(node);
+            Fact in = result.getInFact(index);
             boolean changed = analysis.transferNode(node, in, out);
             if (changed) {
-                workList.addAll(cfg.getPredsOf(node));
+                for (CFGEdge<Node> inEdge : cfg.getInEdgesOf(node)) {
+                    workList.add(cfg.getIndex(inEdge.source()));
+                }
             }
         }
     }
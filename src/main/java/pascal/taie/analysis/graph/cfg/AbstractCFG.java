@@ -155,4 +155,9 @@ abstract class AbstractCFG<N> implements CFG<N> {
     public Set<N> getNodes() {
         return Collections.unmodifiableSet(nodes);
     }
+
+    @Override
+    public int getNumberOfNodes() {
+        return nodes.size();
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.CollectionUtils;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Basic-block view of a {@link CFG} of {@link Stmt}s. Each node of this
+ * graph is a {@link BasicBlock}, and the entry and exit of the underlying
+ * CFG are kept as singleton blocks. Blocks are indexed in the order of
+ * the indexes of their first statements in the underlying CFG.
+ * <p>
+ * The edges between blocks are not materialized as new objects,
+ * instead, the CFG edges entering (leaving) a block can be obtained by
+ * {@link #getStmtInEdgesOf(BasicBlock)} ({@link #getStmtOutEdgesOf(BasicBlock)}).
+ */
+public class BlockCFG implements Graph<BasicBlock> {
+
+    private final CFG<Stmt> cfg;
+
+    private final List<BasicBlock> blocks;
+
+    /**
+     * Maps index of each CFG node to its block.
+     */
+    private final BasicBlock[] blockOf;
+
+    private final List<Set<BasicBlock>> preds;
+
+    private final List<Set<BasicBlock>> succs;
+
+    public BlockCFG(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        int nNodes = cfg.getNumberOfNodes();
+        blockOf = new BasicBlock[nNodes];
+        List<BasicBlock> blocks = new ArrayList<>();
+        // first, build blocks starting from leaders
+        for (int i = 0; i < nNodes; ++i) {
+            Stmt stmt = cfg.getNode(i);
+            if (isLeader(stmt)) {
+                blocks.add(buildBlock(stmt));
+            }
+        }
+        // then, build blocks for the remaining statements, which are
+        // in cycles without leaders (e.g., unreachable self-loops)
+        for (int i = 0; i < nNodes; ++i) {
+            if (blockOf[i] == null) {
+                blocks.add(buildBlock(cfg.getNode(i)));
+            }
+        }
+        blocks.sort(Comparator.comparingInt(b -> cfg.getIndex(b.getFirst())));
+        for (int i = 0; i < blocks.size(); ++i) {
+            blocks.get(i).setIndex(i);
+        }
+        this.blocks = Collections.unmodifiableList(blocks);
+        preds = new ArrayList<>(blocks.size());
+        succs = new ArrayList<>(blocks.size());
+        for (BasicBlock block : blocks) {
+            Set<BasicBlock> blockPreds = Sets.newHybridSet();
+            cfg.getInEdgesOf(block.getFirst())
+                    .forEach(e -> blockPreds.add(getBlockOf(e.source())));
+            preds.add(blockPreds);
+            Set<BasicBlock> blockSuccs = Sets.newHybridSet();
+            cfg.getOutEdgesOf(block.getLast())
+                    .forEach(e -> blockSuccs.add(getBlockOf(e.target())));
+            succs.add(blockSuccs);
+        }
+    }
+
+    /**
+     * A statement starts a new block unless it is the only successor of
+     * its only predecessor, and neither of them is entry or exit.
+     */
+    private boolean isLeader(Stmt stmt) {
+        if (cfg.isEntry(stmt) || cfg.isExit(stmt) ||
+                cfg.getInDegreeOf(stmt) != 1) {
+            return true;
+        }
+        Stmt pred = CollectionUtils.getOne(cfg.getPredsOf(stmt));
+        return cfg.isEntry(pred) || cfg.getOutDegreeOf(pred) != 1;
+    }
+
+    private BasicBlock buildBlock(Stmt first) {
+        List<Stmt> stmts = new ArrayList<>();
+        Stmt curr = first;
+        while (true) {
+            stmts.add(curr);
+            if (cfg.isEntry(curr) || cfg.isExit(curr) ||
+                    cfg.getOutDegreeOf(curr) != 1) {
+                break;
+            }
+            Stmt succ = CollectionUtils.getOne(cfg.getSuccsOf(curr));
+            if (isLeader(succ) || blockOf[cfg.getIndex(succ)] != null
+                    || succ == first) {
+                break;
+            }
+            curr = succ;
+        }
+        BasicBlock block = new BasicBlock(stmts);
+        stmts.forEach(s -> blockOf[cfg.getIndex(s)] = block);
+        return block;
+    }
+
+    /**
+     * @return the underlying statement-level CFG.
+     */
+    public CFG<Stmt> getStmtCFG() {
+        return cfg;
+    }
+
+    public BasicBlock getEntry() {
+        return getBlockOf(cfg.getEntry());
+    }
+
+    public BasicBlock getExit() {
+        return getBlockOf(cfg.getExit());
+    }
+
+    /**
+     * @return the block containing given statement.
+     */
+    public BasicBlock getBlockOf(Stmt stmt) {
+        return blockOf[cfg.getIndex(stmt)];
+    }
+
+    /**
+     * @return the block of given index.
+     */
+    public BasicBlock getBlock(int index) {
+        return blocks.get(index);
+    }
+
+    /**
+     * @return CFG edges entering given block, i.e., in edges of its first statement.
+     */
+    public Set<CFGEdge<Stmt>> getStmtInEdgesOf(BasicBlock block) {
+        return cfg.getInEdgesOf(block.getFirst());
+    }
+
+    /**
+     * @return CFG edges leaving given block, i.e., out edges of its last statement.
+     */
+    public Set<CFGEdge<Stmt>> getStmtOutEdgesOf(BasicBlock block) {
+        return cfg.getOutEdgesOf(block.getLast());
+    }
+
+    @Override
+    public Set<BasicBlock> getPredsOf(BasicBlock block) {
+        return Collections.unmodifiableSet(preds.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock> getSuccsOf(BasicBlock block) {
+        return Collections.unmodifiableSet(succs.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock> getNodes() {
+        Set<BasicBlock> nodes = Sets.newOrderedSet(
+                Comparator.comparingInt(BasicBlock::getIndex));
+        nodes.addAll(blocks);
+        return Collections.unmodifiableSet(nodes);
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+
+    @Override
+    public Iterator<BasicBlock> iterator() {
+        return blocks.iterator();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.flowgraph;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMultiMap;
+import pascal.taie.util.collection.Views;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Object flow graph whose out-edges are computed on demand from pointer
+ * flow graph, so that clients which only explore a small part of the graph,
+ * e.g., the part reachable from some nodes, do not need to build
+ * the complete {@link ObjectFlowGraph}.
+ * <p>
+ * The out-edges of a node are the same as the ones in {@link ObjectFlowGraph}.
+ * This graph can be explored by multiple threads concurrently.
+ * As pointer flow graph does not maintain in-edges, this class provides
+ * only the out-edges, and it does not implement {@link pascal.taie.util.graph.Graph}.
+ */
+public class DemandObjectFlowGraph extends NodeManager {
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final MultiMap<Var, CSVar> csVars = Maps.newMultiMap();
+
+    private final TwoKeyMultiMap<Obj, JField, InstanceField> iFields
+            = Maps.newTwoKeyMultiMap();
+
+    private final MultiMap<Obj, ArrayIndex> arrayIndexes = Maps.newMultiMap();
+
+    private final Map<JField, StaticField> sFields = Maps.newMap();
+
+    private final ConcurrentMap<Node, Set<FlowEdge>> outEdges
+            = Maps.newConcurrentMap(4096);
+
+    public DemandObjectFlowGraph(CSManager csManager,
+                                 CallGraph<Invoke, JMethod> callGraph) {
+        this.callGraph = callGraph;
+        // index the existing pointers by their context-insensitive
+        // variables and bases, so that querying the pointers of a node
+        // does not access csManager, which is not thread-safe
+        csManager.getCSVars().forEach(csVar ->
+                csVars.put(csVar.getVar(), csVar));
+        csManager.getInstanceFields().forEach(iField -> iFields.put(
+                iField.getBase().getObject(), iField.getField(), iField));
+        csManager.getArrayIndexes().forEach(arrayIndex -> arrayIndexes.put(
+                arrayIndex.getArray().getObject(), arrayIndex));
+        csManager.getStaticFields().forEach(sField ->
+                sFields.put(sField.getField(), sField));
+    }
+
+    /**
+     * @return the node of given variable, which is created if absent.
+     */
+    public synchronized VarNode toVarNode(Var var) {
+        return getOrCreateVarNode(var);
+    }
+
+    /**
+     * Converts given pointer to a node in this OFG.
+     */
+    private synchronized Node toNode(Pointer pointer) {
+        if (pointer instanceof CSVar csVar) {
+            return getOrCreateVarNode(csVar.getVar());
+        } else if (pointer instanceof InstanceField iField) {
+            return getOrCreateInstanceFieldNode(
+                    iField.getBase().getObject(), iField.getField());
+        } else if (pointer instanceof ArrayIndex arrayIndex) {
+            return getOrCreateArrayIndexNode(
+                    arrayIndex.getArray().getObject());
+        } else {
+            return getOrCreateStaticFieldNode(
+                    ((StaticField) pointer).getField());
+        }
+    }
+
+    /**
+     * @return the (context-sensitive) pointers represented by given node.
+     */
+    public Collection<? extends Pointer> getPointersOf(Node node) {
+        if (node instanceof VarNode varNode) {
+            return csVars.get(varNode.getVar());
+        } else if (node instanceof InstanceFieldNode ifNode) {
+            return iFields.get(ifNode.getBase(), ifNode.getField());
+        } else if (node instanceof ArrayIndexNode aiNode) {
+            return arrayIndexes.get(aiNode.getBase());
+        } else if (node instanceof StaticFieldNode sfNode) {
+            StaticField sField = sFields.get(sfNode.getField());
+            return sField != null ? Set.of(sField) : Set.of();
+        } else {
+            return Set.of();
+        }
+    }
+
+    public Set<Node> getSuccsOf(Node node) {
+        return Views.toMappedSet(getOutEdgesOf(node), FlowEdge::target);
+    }
+
+    public Set<FlowEdge> getOutEdgesOf(Node node) {
+        Set<FlowEdge> edges = outEdges.get(node);
+        if (edges == null) {
+            edges = computeOutEdges(node);
+            Set<FlowEdge> prev = outEdges.putIfAbsent(node, edges);
+            if (prev != null) {
+                edges = prev;
+            }
+        }
+        return edges;
+    }
+
+    private Set<FlowEdge> computeOutEdges(Node node) {
+        Set<FlowEdge> edges = Sets.newHybridSet();
+        getPointersOf(node).forEach(pointer ->
+                pointer.getOutEdges().forEach(e -> edges.add(
+                        new BasicFlowEdge(e.kind(), node, toNode(e.target())))));
+        // This-passing edges are absent on PFG, so we query call graph
+        // to complement this kind of edges.
+        if (node instanceof VarNode varNode) {
+            for (Invoke invoke : varNode.getVar().getInvokes()) {
+                // Currently ignore OTHER (e.g., reflective) call edges
+                callGraph.edgesOutOf(invoke)
+                        .filter(e -> e.getKind() != CallKind.OTHER)
+                        .forEach(e -> edges.add(new BasicFlowEdge(
+                                FlowKind.THIS_PASSING, node,
+                                toVarNode(e.getCallee().getIR().getThis()))));
+            }
+        }
+        return edges.isEmpty() ? Set.of() : edges;
+    }
+}
@@ -25,6 +25,8 @@ package pascal.taie.analysis.pta;
 import org.apache.logging.log4j.Level;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
@@ -41,6 +43,7 @@ import pascal.taie.analysis.pta.plugin.ReferenceHandler;
 import pascal.taie.analysis.pta.plugin.ResultProcessor;
 import pascal.taie.analysis.pta.plugin.ThreadHandler;
 import pascal.taie.analysis.pta.plugin.exception.ExceptionAnalysis;
+import pascal.taie.analysis.pta.plugin.incremental.IncrementalAnalysis;
 import pascal.taie.analysis.pta.plugin.invokedynamic.InvokeDynamicAnalysis;
 import pascal.taie.analysis.pta.plugin.invokedynamic.Java9StringConcatHandler;
 import pascal.taie.analysis.pta.plugin.invokedynamic.LambdaAnalysis;
@@ -48,18 +51,24 @@ import pascal.taie.analysis.pta.plugin.natives.NativeModeller;
 import pascal.taie.analysis.pta.plugin.reflection.ReflectionAnalysis;
 import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
 import pascal.taie.analysis.pta.toolkit.CollectionMethods;
+import pascal.taie.analysis.pta.toolkit.PreAnalysisCache;
 import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
 import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
 import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
@@ -81,20 +90,33 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
                         new CollectionMethods(World.get().getClassHierarchy()).get());
             } else {
-                // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
+                // run context-insensitive analysis as pre-analysis, which is
+                // skipped if the result of advanced analysis is cached
+                HeapModel preHeapModel = heapModel;
+                Supplier<PointerAnalysisResult> preAnalysis = () -> runAnalysis(
+                        preHeapModel, ContextSelectorFactory.makeCISelector());
+                PreAnalysisCache cache = PreAnalysisCache.load(options);
                 if (advanced.startsWith("scaler")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
-                            "Scaler", Level.INFO);
+                    Map<JMethod, String> ctxMap = cache.getScalerResult(advanced, () -> {
+                        PointerAnalysisResult preResult = preAnalysis.get();
+                        return Timer.runAndCount(() -> Scaler.run(preResult, advanced),
+                                "Scaler", Level.INFO);
+                    });
+                    selector = ContextSelectorFactory.makeGuidedSelector(ctxMap);
                 } else if (advanced.startsWith("zipper")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
-                            "Zipper", Level.INFO);
+                    Set<JMethod> pcms = cache.getZipperResult(advanced, () -> {
+                        PointerAnalysisResult preResult = preAnalysis.get();
+                        return Timer.runAndCount(() -> Zipper.run(preResult, advanced),
+                                "Zipper", Level.INFO);
+                    });
+                    selector = ContextSelectorFactory.makeSelectiveSelector(cs, pcms);
                 } else if (advanced.equals("mahjong")) {
-                    heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
-                            "Mahjong", Level.INFO);
+                    List<Set<New>> mergeGroups = cache.getMahjongResult(advanced, () -> {
+                        PointerAnalysisResult preResult = preAnalysis.get();
+                        return Timer.runAndCount(() -> Mahjong.computeMergeGroups(preResult),
+                                "Mahjong", Level.INFO);
+                    });
+                    heapModel = Mahjong.buildHeapModel(options, mergeGroups);
                 } else {
                     throw new IllegalArgumentException(
                             "Illegal advanced analysis argument: " + advanced);
@@ -111,7 +133,7 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                                               ContextSelector selector) {
         AnalysisOptions options = getOptions();
         Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+                heapModel, selector, makeCSManager(options));
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
@@ -120,6 +142,16 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         return solver.getResult();
     }
 
+    private static CSManager makeCSManager(AnalysisOptions options) {
+        String csManager = options.getString("cs-manager");
+        return switch (csManager) {
+            case "map" -> new MapBasedCSManager();
+            case "array" -> new ArrayBasedCSManager();
+            default -> throw new ConfigException(
+                    "Illegal cs-manager: " + csManager);
+        };
+    }
+
     private static void setPlugin(Solver solver, AnalysisOptions options) {
         CompositePlugin plugin = new CompositePlugin();
         // add builtin plugins
@@ -159,8 +191,10 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         // noinspection unchecked
         addPlugins(plugin, (List<String>) options.get("plugins"));
         // connects plugins and solver
-        plugin.setSolver(solver);
-        solver.setPlugin(plugin);
+        Plugin root = options.getString("incremental") != null
+                ? new IncrementalAnalysis(plugin) : plugin;
+        root.setSolver(solver);
+        solver.setPlugin(root);
     }
 
     private static void addPlugins(CompositePlugin plugin,
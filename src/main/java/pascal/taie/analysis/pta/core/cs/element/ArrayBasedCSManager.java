@@ -0,0 +1,486 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Manages data by maintaining the data and their context-sensitive
+ * counterparts by arrays, which are indexed by the indexes of the data,
+ * i.e., the indexes of {@link Var}s in their IRs, and the indexes of
+ * {@link Obj}s and {@link CSObj}s.
+ * <p>
+ * The counterparts of a datum under different contexts (or of an object
+ * on different fields) are kept in a small open-addressing table which
+ * compares keys by identity, as contexts (and fields) are unique objects.
+ * Methods and call sites are mapped to their tables in the same way.
+ * Compared to {@link MapBasedCSManager}, this saves the two hash map
+ * lookups (and the map entries) for each context-sensitive element.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    private final CSObjIndexer objIndexer = new CSObjIndexer();
+
+    /**
+     * Counter for assigning unique indexes to Pointers.
+     */
+    private int ptrCounter = 0;
+
+    /**
+     * Counter for assigning unique indexes to CSMethods.
+     */
+    private int mtdCounter = 0;
+
+    // ---------- CSVars ----------
+
+    /**
+     * Maps each method to the tables of its variables,
+     * which are indexed by the indexes of the variables.
+     * Methods are unique objects, so they are also looked up by identity.
+     */
+    private final IdentityTable<JMethod, IdentityTable<Context, CSVar>[]> varTables
+            = new IdentityTable<>();
+
+    /**
+     * Cache of the last accessed entry of {@link #varTables},
+     * since the solver usually accesses the variables of the same method
+     * consecutively.
+     */
+    private JMethod lastMethod;
+
+    private IdentityTable<Context, CSVar>[] lastVarTables;
+
+    /**
+     * Tables of the variables which do not reside in IR,
+     * e.g., the temporary variables created by plugins.
+     */
+    private final Map<Var, IdentityTable<Context, CSVar>> extraVarTables
+            = Maps.newMap();
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private final List<CSVar> csVars = new ArrayList<>();
+
+    // ---------- static fields ----------
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    // ---------- instance fields and array indexes ----------
+
+    /**
+     * Tables of instance fields, indexed by the indexes of base objects.
+     */
+    private IdentityTable<JField, InstanceField>[] fieldTables = newTables(1024);
+
+    private final List<InstanceField> instanceFields = new ArrayList<>();
+
+    /**
+     * Array indexes, indexed by the indexes of array objects.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[1024];
+
+    private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+    // ---------- CSObjs ----------
+
+    /**
+     * Tables of CSObjs, indexed by the indexes of objects.
+     */
+    private IdentityTable<Context, CSObj>[] objTables = newTables(1024);
+
+    /**
+     * Tables of the objects which have not been assigned indexes,
+     * e.g., the objects not created by heap model.
+     */
+    private final Map<Obj, IdentityTable<Context, CSObj>> extraObjTables
+            = Maps.newMap();
+
+    private final List<CSObj> csObjs = new ArrayList<>();
+
+    // ---------- CSMethods and CSCallSites ----------
+
+    private final IdentityTable<JMethod, IdentityTable<Context, CSMethod>> mtdTables
+            = new IdentityTable<>();
+
+    private final List<CSMethod> csMethods = new ArrayList<>(65536);
+
+    private final IdentityTable<Invoke, IdentityTable<Context, CSCallSite>> callSiteTables
+            = new IdentityTable<>();
+
+    private final Indexer<CSMethod> mtdIndexer = new Indexer<>() {
+
+        @Override
+        public int getIndex(CSMethod m) {
+            return m.getIndex();
+        }
+
+        @Override
+        public CSMethod getObject(int index) {
+            return csMethods.get(index);
+        }
+    };
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        return getVarTable(var).computeIfAbsent(context, c -> {
+            CSVar csVar = new CSVar(var, c, ptrCounter++);
+            csVars.add(csVar);
+            return csVar;
+        });
+    }
+
+    /**
+     * @return the table of CSVars of {@code var}, which is created
+     * if it is absent.
+     */
+    private IdentityTable<Context, CSVar> getVarTable(Var var) {
+        JMethod method = var.getMethod();
+        if (method != lastMethod) {
+            lastVarTables = varTables.computeIfAbsent(method,
+                    m -> newTables(m.getIR().getVars().size()));
+            lastMethod = method;
+        }
+        IdentityTable<Context, CSVar>[] tables = lastVarTables;
+        int i = var.getIndex();
+        if (0 <= i && i < tables.length) {
+            IdentityTable<Context, CSVar> table = tables[i];
+            if (table == null) {
+                table = tables[i] = newVarTable(var);
+            }
+            return table;
+        } else {
+            return extraVarTables.computeIfAbsent(var, this::newVarTable);
+        }
+    }
+
+    /**
+     * Looks up the table of CSVars of {@code var} without creating it.
+     * Unlike {@link #getVarTable(Var)}, this method does not update
+     * the cache of the last accessed entry, thus it performs no writes
+     * and can be called by multiple threads concurrently.
+     *
+     * @return the table of CSVars of {@code var}, or {@code null}
+     * if the table is absent.
+     */
+    @Nullable
+    private IdentityTable<Context, CSVar> findVarTable(Var var) {
+        IdentityTable<Context, CSVar>[] tables = varTables.get(var.getMethod());
+        int i = var.getIndex();
+        if (tables != null && 0 <= i && i < tables.length) {
+            return tables[i];
+        } else {
+            return extraVarTables.get(var);
+        }
+    }
+
+    private IdentityTable<Context, CSVar> newVarTable(Var var) {
+        vars.add(var);
+        return new IdentityTable<>();
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> new StaticField(f, ptrCounter++));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        int i = base.getIndex();
+        if (i >= fieldTables.length) {
+            fieldTables = Arrays.copyOf(fieldTables, newLength(fieldTables.length, i));
+        }
+        IdentityTable<JField, InstanceField> table = fieldTables[i];
+        if (table == null) {
+            table = fieldTables[i] = new IdentityTable<>();
+        }
+        return table.computeIfAbsent(field, f -> {
+            InstanceField iField = new InstanceField(base, f, ptrCounter++);
+            instanceFields.add(iField);
+            return iField;
+        });
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int i = array.getIndex();
+        if (i >= arrayIndexes.length) {
+            arrayIndexes = Arrays.copyOf(arrayIndexes, newLength(arrayIndexes.length, i));
+        }
+        ArrayIndex arrayIndex = arrayIndexes[i];
+        if (arrayIndex == null) {
+            arrayIndex = arrayIndexes[i] = new ArrayIndex(array, ptrCounter++);
+            arrayIndexList.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableList(vars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        IdentityTable<Context, CSVar> table = findVarTable(var);
+        return table != null ? table.values() : Set.of();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFields);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexList);
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return Streams.concat(
+                csVars.stream(),
+                instanceFields.stream(),
+                arrayIndexList.stream(),
+                staticFields.values().stream());
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return getObjTable(obj, true).computeIfAbsent(heapContext, c -> {
+            CSObj csObj = objIndexer.newCSObj(c, obj);
+            csObjs.add(csObj);
+            return csObj;
+        });
+    }
+
+    /**
+     * @param create whether create the table if it is absent.
+     * @return the table of CSObjs of {@code obj}, or {@code null}
+     * if the table is absent and {@code create} is {@code false}.
+     */
+    private IdentityTable<Context, CSObj> getObjTable(Obj obj, boolean create) {
+        int i = obj.getIndex();
+        if (i < 0) {
+            return create ?
+                    extraObjTables.computeIfAbsent(obj, o -> new IdentityTable<>()) :
+                    extraObjTables.get(obj);
+        }
+        if (i >= objTables.length) {
+            if (!create) {
+                return null;
+            }
+            objTables = Arrays.copyOf(objTables, newLength(objTables.length, i));
+        }
+        IdentityTable<Context, CSObj> table = objTables[i];
+        if (table == null && create) {
+            table = objTables[i] = new IdentityTable<>();
+        }
+        return table;
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return Collections.unmodifiableList(csObjs);
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        IdentityTable<Context, CSObj> table = getObjTable(obj, false);
+        return table != null ? table.values() : Set.of();
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return callSiteTables.computeIfAbsent(callSite, cs -> new IdentityTable<>())
+                .computeIfAbsent(context, ctx -> {
+                    CSMethod container = getCSMethod(ctx, callSite.getContainer());
+                    return new CSCallSite(callSite, ctx, container);
+                });
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return mtdTables.computeIfAbsent(method, m -> new IdentityTable<>())
+                .computeIfAbsent(context, c -> {
+                    CSMethod csMethod = new CSMethod(method, c, mtdCounter++);
+                    csMethods.add(csMethod);
+                    return csMethod;
+                });
+    }
+
+    @Override
+    public Indexer<CSMethod> getMethodIndexer() {
+        return mtdIndexer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> IdentityTable<K, V>[] newTables(int length) {
+        return (IdentityTable<K, V>[]) new IdentityTable[length];
+    }
+
+    /**
+     * @return the new length of an array with {@code length}
+     * to accommodate {@code index}.
+     */
+    private static int newLength(int length, int index) {
+        return Math.max(index + 1, (int) (length * 1.5));
+    }
+
+    /**
+     * A compact open-addressing hash table which compares keys by identity.
+     * The keys and values are stored alternately in one array, and
+     * the initial capacity is small, as most tables contain a few entries
+     * (e.g., one context for each variable in context-insensitive analysis).
+     */
+    private static final class IdentityTable<K, V> {
+
+        /**
+         * Keys and values, i.e., [k0, v0, k1, v1, ...].
+         * The number of slots (i.e., table.length / 2) is a power of 2.
+         */
+        private Object[] table = new Object[4];
+
+        private int size = 0;
+
+        /**
+         * @return the value of {@code key}, or {@code null} if it is absent.
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        V get(K key) {
+            int mask = (table.length >> 1) - 1;
+            int i = hash(key) & mask;
+            Object k;
+            while ((k = table[i << 1]) != null) {
+                if (k == key) {
+                    return (V) table[(i << 1) + 1];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V computeIfAbsent(K key, Function<K, V> mappingFunction) {
+            int mask = (table.length >> 1) - 1;
+            int i = hash(key) & mask;
+            Object k;
+            while ((k = table[i << 1]) != null) {
+                if (k == key) {
+                    return (V) table[(i << 1) + 1];
+                }
+                i = (i + 1) & mask;
+            }
+            V value = mappingFunction.apply(key);
+            // re-compute the slot in put(), as the table may be resized
+            // if the mapping function modifies this table
+            put(key, value);
+            return value;
+        }
+
+        private void put(K key, V value) {
+            if ((size + 1) * 4 > (table.length >> 1) * 3) {
+                resize();
+            }
+            int mask = (table.length >> 1) - 1;
+            int i = hash(key) & mask;
+            while (table[i << 1] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i << 1] = key;
+            table[(i << 1) + 1] = value;
+            ++size;
+        }
+
+        private void resize() {
+            Object[] oldTable = table;
+            // fill the new table before publishing it, so that
+            // get() never observes a partially filled table
+            Object[] newTable = new Object[oldTable.length << 1];
+            int mask = (newTable.length >> 1) - 1;
+            for (int j = 0; j < oldTable.length; j += 2) {
+                Object key = oldTable[j];
+                if (key != null) {
+                    int i = hash(key) & mask;
+                    while (newTable[i << 1] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    newTable[i << 1] = key;
+                    newTable[(i << 1) + 1] = oldTable[j + 1];
+                }
+            }
+            table = newTable;
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<V> values() {
+            List<V> values = new ArrayList<>(size);
+            for (int j = 1; j < table.length; j += 2) {
+                if (table[j] != null) {
+                    values.add((V) table[j]);
+                }
+            }
+            return Collections.unmodifiableList(values);
+        }
+
+        private static int hash(Object key) {
+            int h = System.identityHashCode(key);
+            return h ^ (h >>> 16);
+        }
+    }
+}
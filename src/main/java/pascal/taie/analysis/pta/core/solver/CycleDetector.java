@@ -0,0 +1,276 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects cycles of copy edges in pointer flow graph, and maintains
+ * the pointers that have been collapsed into a single representative.
+ * <p>
+ * All pointers in a cycle of copy edges (i.e., edges whose only transfer
+ * is {@link Identity}) must have the same points-to set. The solver
+ * lets these pointers share one points-to set, and propagates objects
+ * only to the representative of the cycle.
+ * <p>
+ * Cycles are found by lazy cycle detection (LCD): when a copy edge
+ * {@code s -> t} propagates objects and the points-to set of {@code t}
+ * is about to become equal to that of {@code s}, the edge is recorded
+ * as a candidate, and the solver later searches for a path from
+ * {@code t} back to {@code s}. Each edge triggers at most one search.
+ * Pointers that have filters are never collapsed, as filters may make
+ * their points-to sets differ from the ones of their predecessors.
+ * For the same reason, when a filter is added to a collapsed pointer,
+ * the collapsed pointers are split (see {@link #split(Pointer)}).
+ */
+final class CycleDetector {
+
+    /**
+     * Maps each collapsed pointer to its representative.
+     * The pointers absent from this map represent themselves.
+     */
+    private final Map<Pointer, Pointer> reps = Maps.newMap();
+
+    /**
+     * Maps each representative of collapsed pointers to all pointers
+     * (including itself) it represents.
+     */
+    private final Map<Pointer, List<Pointer>> members = Maps.newMap();
+
+    /**
+     * Edges that have triggered cycle detection.
+     */
+    private final Set<PointerFlowEdge> triggeredEdges = Sets.newSet();
+
+    /**
+     * Candidate edges waiting for cycle detection.
+     */
+    private final Deque<PointerFlowEdge> candidates = new ArrayDeque<>();
+
+    /**
+     * Number of cycles that have been collapsed.
+     */
+    private int nCycles = 0;
+
+    /**
+     * @return the representative of given pointer.
+     */
+    Pointer getRep(Pointer pointer) {
+        return reps.getOrDefault(pointer, pointer);
+    }
+
+    /**
+     * @return all pointers represented by the representative of given pointer.
+     */
+    List<Pointer> getMembers(Pointer pointer) {
+        Pointer rep = getRep(pointer);
+        List<Pointer> result = members.get(rep);
+        return result != null ? result : List.of(rep);
+    }
+
+    /**
+     * Checks the copy edge through which {@code diff} is being propagated,
+     * and records it as a candidate if its target is likely to be in the
+     * same cycle as its source.
+     */
+    void checkEdge(PointerFlowEdge edge, PointsToSet diff) {
+        Pointer source = edge.source();
+        Pointer target = edge.target();
+        PointsToSet sourceSet = source.getPointsToSet();
+        PointsToSet targetSet = target.getPointsToSet();
+        if (targetSet == null || sourceSet == null || sourceSet == targetSet) {
+            return;
+        }
+        int targetSize = targetSet.size();
+        int sourceSize = sourceSet.size();
+        // after propagation, pt(target) equals pt(source) only if
+        // pt(target) is a subset of pt(source), and the size of
+        // pt(target) plus diff is not smaller than pt(source)
+        if (targetSize > sourceSize || targetSize + diff.size() < sourceSize) {
+            return;
+        }
+        if (!isCopyEdge(edge) || !isCollapsible(source)
+                || !isCollapsible(target) || triggeredEdges.contains(edge)) {
+            return;
+        }
+        for (CSObj obj : targetSet) {
+            if (!sourceSet.contains(obj)) {
+                return;
+            }
+        }
+        triggeredEdges.add(edge);
+        candidates.add(edge);
+    }
+
+    /**
+     * Searches cycles for the candidate edges.
+     *
+     * @return the representatives of the pointers on a cycle that contains
+     * a candidate edge, or {@code null} if no more cycles are found.
+     */
+    List<Pointer> nextCycle() {
+        while (!candidates.isEmpty()) {
+            PointerFlowEdge edge = candidates.poll();
+            Pointer source = getRep(edge.source());
+            Pointer target = getRep(edge.target());
+            if (source != target) {
+                List<Pointer> path = findPath(target, source);
+                if (path != null) {
+                    return path;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a path of copy edges from {@code from} to {@code to}
+     * in the graph of representatives.
+     *
+     * @return the representatives on the path, or {@code null}
+     * if such path does not exist.
+     */
+    private List<Pointer> findPath(Pointer from, Pointer to) {
+        Map<Pointer, Pointer> parents = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        parents.put(from, from);
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Pointer node = stack.pop();
+            for (Pointer member : getMembers(node)) {
+                for (PointerFlowEdge edge : member.getOutEdges()) {
+                    if (!isCopyEdge(edge) || !isCollapsible(edge.target())) {
+                        continue;
+                    }
+                    Pointer succ = getRep(edge.target());
+                    if (parents.containsKey(succ)) {
+                        continue;
+                    }
+                    parents.put(succ, node);
+                    if (succ == to) {
+                        List<Pointer> path = new ArrayList<>();
+                        for (Pointer p = to; p != from; p = parents.get(p)) {
+                            path.add(p);
+                        }
+                        path.add(from);
+                        return path;
+                    }
+                    stack.push(succ);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merges the pointers represented by given representatives, and
+     * returns the representative of the merged pointers. The pointers
+     * of the largest group keep their representative.
+     */
+    Pointer merge(List<Pointer> cycleReps) {
+        Pointer rep = cycleReps.get(0);
+        for (Pointer r : cycleReps) {
+            if (getMembers(r).size() > getMembers(rep).size()) {
+                rep = r;
+            }
+        }
+        List<Pointer> repMembers = new ArrayList<>(getMembers(rep));
+        for (Pointer r : cycleReps) {
+            if (r != rep) {
+                for (Pointer member : getMembers(r)) {
+                    reps.put(member, rep);
+                    repMembers.add(member);
+                }
+                members.remove(r);
+            }
+        }
+        members.put(rep, Collections.unmodifiableList(repMembers));
+        ++nCycles;
+        return rep;
+    }
+
+    /**
+     * Splits the pointers collapsed with given pointer, so that each of
+     * them represents itself again. The edges among them may trigger
+     * cycle detection again, so that the cycles without the pointers
+     * that have filters can be collapsed later.
+     *
+     * @return the pointers that were collapsed with given pointer
+     * (including itself).
+     */
+    List<Pointer> split(Pointer pointer) {
+        Pointer rep = getRep(pointer);
+        List<Pointer> result = members.remove(rep);
+        if (result == null) {
+            return List.of(pointer);
+        }
+        for (Pointer member : result) {
+            reps.remove(member);
+            member.getOutEdges().forEach(triggeredEdges::remove);
+        }
+        return result;
+    }
+
+    private static boolean isCopyEdge(PointerFlowEdge edge) {
+        Set<Transfer> transfers = edge.getTransfers();
+        return transfers.size() == 1 && transfers.contains(Identity.get());
+    }
+
+    private static boolean isCollapsible(Pointer pointer) {
+        return pointer.getFilters().isEmpty();
+    }
+
+    /**
+     * @return {@code true} if given pointer has been collapsed with others.
+     */
+    boolean isCollapsed(Pointer pointer) {
+        return members.containsKey(getRep(pointer));
+    }
+
+    /**
+     * @return number of cycles that have been collapsed.
+     */
+    int getCollapsedCycles() {
+        return nCycles;
+    }
+
+    /**
+     * @return number of pointers that have been collapsed into
+     * other pointers, i.e., excluding the representatives.
+     */
+    int getCollapsedPointers() {
+        return reps.size();
+    }
+}
@@ -51,6 +51,7 @@ import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.CastExp;
 import pascal.taie.ir.exp.InvokeExp;
@@ -83,6 +84,7 @@ import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -108,6 +110,13 @@ public class DefaultSolver implements Solver {
      */
     private static final long UNLIMITED = -1;
 
+    /**
+     * Maximum number of pointer entries processed as a batch in parallel.
+     * Batches are polled in the order of the work list, and bounding
+     * them keeps the processing order close to the one of the work list.
+     */
+    private static final int PARALLEL_BATCH_SIZE = 4096;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -124,6 +133,22 @@ public class DefaultSolver implements Solver {
 
     private final PropagateTypes propTypes;
 
+    /**
+     * Detects and collapses cycles in pointer flow graph,
+     * {@code null} if cycle collapsing is disabled.
+     */
+    private CycleDetector cycleDetector;
+
+    /**
+     * Whether collapses cycles in pointer flow graph.
+     */
+    private final boolean collapseCycles;
+
+    /**
+     * Order in which the pointer entries of work list are processed.
+     */
+    private final String workListOrder;
+
     /**
      * Whether only analyzes application code.
      */
@@ -136,6 +161,14 @@ public class DefaultSolver implements Solver {
 
     private TimeLimiter timeLimiter;
 
+    /**
+     * Number of threads used to propagate points-to sets of work list
+     * entries. 1 means the entries are processed sequentially.
+     */
+    private final int parallelThreads;
+
+    private ParallelPropagator propagator;
+
     /**
      * Whether the analysis has reached time limit.
      */
@@ -174,10 +207,18 @@ public class DefaultSolver implements Solver {
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                options.getString("points-to-set"));
         propTypes = new PropagateTypes((List<String>) options.get("propagate-types"));
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        workListOrder = options.getString("worklist-order");
+        collapseCycles = options.getBoolean("collapse-cycles");
+        parallelThreads = options.getInt("parallel-threads");
+        if (parallelThreads < 1) {
+            throw new ConfigException(
+                    "Illegal parallel-threads: " + parallelThreads);
+        }
     }
 
     @Override
@@ -252,7 +293,8 @@ public class DefaultSolver implements Solver {
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        workList = new WorkList(
+                PointerQueue.make(workListOrder, pointerFlowGraph));
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
@@ -262,6 +304,12 @@ public class DefaultSolver implements Solver {
             timeLimiter = new TimeLimiter(timeLimit);
             timeLimiter.countDown();
         }
+        if (parallelThreads > 1) {
+            propagator = new ParallelPropagator(parallelThreads);
+        }
+        if (collapseCycles) {
+            cycleDetector = new CycleDetector();
+        }
         plugin.onStart();
     }
 
@@ -304,22 +352,23 @@ public class DefaultSolver implements Solver {
      */
     private void analyze() {
         while (!workList.isEmpty() && !isTimeout) {
+            if (propagator != null && !workList.hasCallEdges()) {
+                processPointerEntries(
+                        workList.pollPointerEntries(PARALLEL_BATCH_SIZE));
+                continue;
+            }
             WorkList.Entry entry = workList.pollEntry();
             if (entry instanceof WorkList.PointerEntry pEntry) {
-                Pointer p = pEntry.pointer();
+                Pointer p = getRep(pEntry.pointer());
                 PointsToSet pts = pEntry.pointsToSet();
                 PointsToSet diff = propagate(p, pts);
-                if (!diff.isEmpty() && p instanceof CSVar v) {
-                    processInstanceStore(v, diff);
-                    processInstanceLoad(v, diff);
-                    processArrayStore(v, diff);
-                    processArrayLoad(v, diff);
-                    processCall(v, diff);
-                    plugin.onNewPointsToSet(v, diff);
-                }
+                processPointsToDiff(p, diff);
             } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
                 processCallEdge(eEntry.edge());
             }
+            if (cycleDetector != null) {
+                collapseCycles();
+            }
         }
         if (!workList.isEmpty() && isTimeout) {
             logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
@@ -327,15 +376,157 @@ public class DefaultSolver implements Solver {
         } else if (timeLimiter != null) { // finish normally but time limiter is still running
             timeLimiter.stop();
         }
+        if (propagator != null) {
+            propagator.shutdown();
+            propagator = null;
+        }
+        logger.info("Work list ({} order) processed {} pointer entries" +
+                        " and {} call edges", workListOrder,
+                workList.getPolledPointerEntries(), workList.getPolledCallEdges());
+        if (cycleDetector != null) {
+            logger.info("Collapsed {} cycles, {} pointers are merged" +
+                            " into their representatives",
+                    cycleDetector.getCollapsedCycles(),
+                    cycleDetector.getCollapsedPointers());
+        }
         plugin.onFinish();
     }
 
+    /**
+     * Processes a batch of pointer entries polled from the work list.
+     * The steps that only update the points-to sets owned by distinct
+     * pointers run in parallel:
+     * <ol>
+     *     <li>the points-to sets of the entries are merged into the
+     *     points-to sets of their pointers;</li>
+     *     <li>the differences propagated along the PFG edges without
+     *     transfer functions (other than {@link Identity}) are grouped by
+     *     the targets of the edges, and the group of each target is merged
+     *     into one points-to set, which is added to the work list.</li>
+     * </ol>
+     * The other steps, i.e., filters, transfer functions, statement
+     * processing and plugin callbacks, are performed sequentially in
+     * the order of the entries, as they may modify the pointer flow graph
+     * and context-sensitive elements, and plugins need not be thread-safe.
+     * The result is the same as sequential processing, as pointer analysis
+     * computes the same fixed point in any order.
+     */
+    private void processPointerEntries(List<WorkList.PointerEntry> entries) {
+        if (cycleDetector != null) {
+            // entries of the pointers collapsed after they were added to
+            // the work list share the same points-to set, so we merge them
+            // by representatives to avoid updating a set concurrently
+            Map<Pointer, PointsToSet> repEntries = Maps.newLinkedHashMap();
+            entries.forEach(e -> repEntries.merge(getRep(e.pointer()),
+                    e.pointsToSet(), (pts1, pts2) -> {
+                        pts1.addAll(pts2);
+                        return pts1;
+                    }));
+            if (repEntries.size() < entries.size()) {
+                entries = repEntries.entrySet()
+                        .stream()
+                        .map(e -> new WorkList.PointerEntry(e.getKey(), e.getValue()))
+                        .toList();
+            }
+        }
+        // filters are provided by plugins and may not be thread-safe,
+        // so we apply them and create the missing points-to sets here
+        List<WorkList.PointerEntry> filtered = entries.stream()
+                .map(e -> {
+                    getPointsToSetOf(e.pointer());
+                    PointsToSet pts = applyFilters(e.pointer(), e.pointsToSet());
+                    return pts == e.pointsToSet() ? e
+                            : new WorkList.PointerEntry(e.pointer(), pts);
+                })
+                .toList();
+        int size = filtered.size();
+        PointsToSet[] diffs = new PointsToSet[size];
+        propagator.forEachIndex(size, i -> {
+            WorkList.PointerEntry entry = filtered.get(i);
+            diffs[i] = entry.pointer().getPointsToSet()
+                    .addAllDiff(entry.pointsToSet());
+        });
+        if (cycleDetector != null) {
+            // cycle detection inspects and collapses the edges during
+            // propagation, thus the propagation is performed sequentially
+            for (int i = 0; i < size; ++i) {
+                propagateDiff(filtered.get(i).pointer(), diffs[i]);
+            }
+        } else {
+            propagateDiffs(filtered, diffs);
+        }
+        for (int i = 0; i < size; ++i) {
+            processPointsToDiff(filtered.get(i).pointer(), diffs[i]);
+        }
+        if (cycleDetector != null) {
+            collapseCycles();
+        }
+    }
+
+    /**
+     * Propagates the differences of a batch of entries to the PFG
+     * successors of their pointers, see
+     * {@link #processPointerEntries(List)}.
+     */
+    private void propagateDiffs(List<WorkList.PointerEntry> entries,
+                                PointsToSet[] diffs) {
+        // group the differences by targets in the order of the edges,
+        // so that the targets are added to the work list in the same
+        // order as sequential propagation
+        Map<Pointer, List<PointsToSet>> targetDiffs = Maps.newLinkedHashMap();
+        for (int i = 0; i < diffs.length; ++i) {
+            PointsToSet diff = diffs[i];
+            if (diff.isEmpty()) {
+                continue;
+            }
+            for (PointerFlowEdge edge : pointerFlowGraph
+                    .getOutEdgesOf(entries.get(i).pointer())) {
+                Set<Transfer> transfers = edge.getTransfers();
+                if (transfers.size() == 1 && transfers.contains(Identity.get())) {
+                    targetDiffs.computeIfAbsent(edge.target(),
+                            __ -> new ArrayList<>()).add(diff);
+                } else {
+                    transfers.forEach(transfer ->
+                            addPointsTo(edge.target(), transfer.apply(edge, diff)));
+                }
+            }
+        }
+        List<Pointer> targets = new ArrayList<>(targetDiffs.keySet());
+        List<List<PointsToSet>> groups = new ArrayList<>(targetDiffs.values());
+        PointsToSet[] unions = new PointsToSet[targets.size()];
+        propagator.forEachIndex(unions.length, i -> {
+            List<PointsToSet> sets = groups.get(i);
+            if (sets.size() == 1) {
+                unions[i] = sets.get(0);
+            } else {
+                PointsToSet union = ptsFactory.make();
+                sets.forEach(union::addAll);
+                unions[i] = union;
+            }
+        });
+        for (int i = 0; i < unions.length; ++i) {
+            addPointsTo(targets.get(i), unions[i]);
+        }
+    }
+
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
+        pointsToSet = applyFilters(pointer, pointsToSet);
+        PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
+        propagateDiff(pointer, diff);
+        return diff;
+    }
+
+    /**
+     * Applies filters of given pointer on pointsToSet, and returns
+     * the filtered set. If the pointer has no filters, pointsToSet
+     * itself is returned.
+     */
+    private PointsToSet applyFilters(Pointer pointer, PointsToSet pointsToSet) {
         Set<Predicate<CSObj>> filters = pointer.getFilters();
         if (!filters.isEmpty()) {
             // apply filters (of the pointer) on pointsToSet
@@ -343,15 +534,109 @@ public class DefaultSolver implements Solver {
                     .filter(o -> filters.stream().allMatch(f -> f.test(o)))
                     .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
         }
-        PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
+        return pointsToSet;
+    }
+
+    /**
+     * Propagates diff, i.e., the objects newly added to pt(pointer),
+     * to the PFG successors of pointer. If pointer represents a collapsed
+     * cycle, diff is propagated to the successors of all its members.
+     */
+    private void propagateDiff(Pointer pointer, PointsToSet diff) {
         if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
-                Pointer target = edge.target();
-                edge.getTransfers().forEach(transfer ->
-                        addPointsTo(target, transfer.apply(edge, diff)));
-            });
+            if (cycleDetector == null) {
+                propagateAlongOutEdges(pointer, diff);
+            } else {
+                for (Pointer member : cycleDetector.getMembers(pointer)) {
+                    propagateAlongOutEdges(member, diff);
+                }
+            }
+        }
+    }
+
+    private void propagateAlongOutEdges(Pointer pointer, PointsToSet diff) {
+        pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
+            Pointer target = edge.target();
+            if (cycleDetector != null) {
+                if (getRep(target) == getRep(pointer)) {
+                    // target shares points-to set with pointer
+                    return;
+                }
+                cycleDetector.checkEdge(edge, diff);
+            }
+            edge.getTransfers().forEach(transfer ->
+                    addPointsTo(target, transfer.apply(edge, diff)));
+        });
+    }
+
+    /**
+     * Processes the statements and plugins that are affected by
+     * the new objects (i.e., diff) pointed to by given pointer.
+     * If pointer represents a collapsed cycle, all its members
+     * are processed.
+     */
+    private void processPointsToDiff(Pointer pointer, PointsToSet diff) {
+        if (!diff.isEmpty()) {
+            if (cycleDetector == null) {
+                processVarPointsToDiff(pointer, diff);
+            } else {
+                for (Pointer member : cycleDetector.getMembers(pointer)) {
+                    processVarPointsToDiff(member, diff);
+                }
+            }
+        }
+    }
+
+    private void processVarPointsToDiff(Pointer pointer, PointsToSet diff) {
+        if (pointer instanceof CSVar v) {
+            processInstanceStore(v, diff);
+            processInstanceLoad(v, diff);
+            processArrayStore(v, diff);
+            processArrayLoad(v, diff);
+            processCall(v, diff);
+            plugin.onNewPointsToSet(v, diff);
+        }
+    }
+
+    /**
+     * @return the representative of given pointer if cycle collapsing
+     * is enabled, otherwise the pointer itself.
+     */
+    private Pointer getRep(Pointer pointer) {
+        return cycleDetector == null ? pointer : cycleDetector.getRep(pointer);
+    }
+
+    /**
+     * Collapses the cycles found by cycle detector. The pointers on each
+     * cycle are merged to share one points-to set, i.e., the union of
+     * their current points-to sets, and the objects that are new to each
+     * pointer are propagated and processed as usual.
+     */
+    private void collapseCycles() {
+        List<Pointer> cycle;
+        while ((cycle = cycleDetector.nextCycle()) != null) {
+            // record the pointers and points-to sets before merging
+            List<List<Pointer>> groups = cycle.stream()
+                    .map(cycleDetector::getMembers)
+                    .toList();
+            List<PointsToSet> oldSets = cycle.stream()
+                    .map(this::getPointsToSetOf)
+                    .toList();
+            PointsToSet shared = ptsFactory.make();
+            oldSets.forEach(shared::addAll);
+            cycleDetector.merge(cycle);
+            for (int i = 0; i < groups.size(); ++i) {
+                List<Pointer> group = groups.get(i);
+                group.forEach(p -> p.setPointsToSet(shared));
+                PointsToSet diff = oldSets.get(i).copy().addAllDiff(shared);
+                if (!diff.isEmpty()) {
+                    for (Pointer p : group) {
+                        propagateAlongOutEdges(p, diff);
+                        processVarPointsToDiff(p, diff);
+                    }
+                }
+            }
         }
-        return diff;
     }
 
     /**
@@ -731,7 +1016,7 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointsTo(Pointer pointer, PointsToSet pts) {
-        workList.addEntry(pointer, pts);
+        workList.addEntry(getRep(pointer), pts);
     }
 
     @Override
@@ -763,6 +1048,15 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        if (cycleDetector != null && cycleDetector.isCollapsed(pointer)) {
+            // the filter may make pt(pointer) differ from the points-to sets
+            // of the pointers collapsed with it, so we split these pointers,
+            // and each of them takes a copy of the shared points-to set
+            PointsToSet shared = getPointsToSetOf(pointer);
+            for (Pointer member : cycleDetector.split(pointer)) {
+                member.setPointsToSet(shared.copy());
+            }
+        }
         pointer.addFilter(filter);
     }
 
@@ -869,6 +1163,36 @@ public class DefaultSolver implements Solver {
         }
     }
 
+    // ---------- restoration of solver states ----------
+
+    /**
+     * Adds a pointer flow edge without propagating the points-to set of
+     * its source along the edge. This is used to restore a persisted solver
+     * state, whose points-to sets already satisfy the edge; the caller is
+     * responsible for propagating the objects that are not yet in the
+     * points-to set of the target, e.g., by {@link #addPointsTo}.
+     */
+    public void restorePFGEdge(Pointer source, Pointer target, FlowKind kind,
+                               Transfer transfer) {
+        PointerFlowEdge edge = pointerFlowGraph.getOrAddEdge(kind, source, target);
+        if (edge != null) {
+            edge.addTransfer(transfer);
+        }
+    }
+
+    /**
+     * Adds a call edge to the call graph without processing it, i.e.,
+     * without adding the callee, the parameter passing and return edges,
+     * and notifying plugins. This is used to restore a persisted solver
+     * state, and the caller is responsible for restoring the effects
+     * of processing the edge.
+     *
+     * @return true if the call graph changed as a result of the call.
+     */
+    public boolean restoreCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        return callGraph.addEdge(edge);
+    }
+
     @Override
     public PointerAnalysisResult getResult() {
         if (result == null) {
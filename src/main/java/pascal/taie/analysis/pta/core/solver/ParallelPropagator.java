@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the parallelizable steps of processing a batch of work list
+ * entries on a fixed thread pool, i.e., merging the points-to sets of
+ * the entries into the points-to sets of their pointers, and computing
+ * the points-to sets propagated to the PFG successors of the pointers.
+ * <p>
+ * Each step is split into tasks that update disjoint points-to sets
+ * (e.g., the pointers of the entries in a batch are pairwise distinct,
+ * see {@link WorkList#pollPointerEntries(int)}), so the tasks can safely
+ * run concurrently without any locking. The steps that modify the pointer
+ * flow graph, the context-sensitive elements or the work list, and the
+ * callbacks of plugins, are performed by the solver thread.
+ */
+final class ParallelPropagator {
+
+    /**
+     * Steps with fewer tasks than this are run by the calling thread,
+     * as dispatching them to the thread pool costs more than it gains.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final int nThreads;
+
+    private final ExecutorService executor;
+
+    ParallelPropagator(int nThreads) {
+        this.nThreads = nThreads;
+        this.executor = Executors.newFixedThreadPool(nThreads, r -> {
+            Thread thread = new Thread(r, "pta-propagator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Applies {@code task} to each index in [0, {@code size}), and returns
+     * when all of them finish. The indexes are partitioned among the threads,
+     * thus {@code task} must be safe to be invoked concurrently on distinct
+     * indexes.
+     */
+    void forEachIndex(int size, IntConsumer task) {
+        if (size < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < size; ++i) {
+                task.accept(i);
+            }
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(nThreads);
+        for (int t = 0; t < nThreads; ++t) {
+            int start = t;
+            tasks.add(() -> {
+                for (int i = start; i < size; i += nThreads) {
+                    task.accept(i);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Parallel propagation is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Parallel propagation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Releases the threads of this propagator.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
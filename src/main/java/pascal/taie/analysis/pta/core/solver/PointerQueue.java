@@ -0,0 +1,282 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.graph.SCC;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Determines the order in which the pointer entries of {@link WorkList}
+ * are processed. Each pointer is added to the queue when it enters the
+ * work list, and is removed when its entry is polled; while a pointer
+ * is in the queue, further points-to sets propagated to it are merged
+ * into its entry by the work list, so the queue never contains
+ * duplicate pointers.
+ */
+abstract class PointerQueue {
+
+    /**
+     * Creates a pointer queue for given order.
+     *
+     * @param order either "fifo", "lifo", "lrf" (least recently fired)
+     *              or "topo" (topological order of pointer flow graph).
+     * @param pfg   the pointer flow graph, which is used by topological order.
+     */
+    static PointerQueue make(String order, PointerFlowGraph pfg) {
+        return switch (order) {
+            case "fifo" -> new FIFOQueue();
+            case "lifo" -> new LIFOQueue();
+            case "lrf" -> new LRFQueue();
+            case "topo" -> new TopoQueue(pfg);
+            default -> throw new ConfigException(
+                    "Illegal worklist-order: " + order);
+        };
+    }
+
+    abstract void add(Pointer pointer);
+
+    abstract Pointer poll();
+
+    abstract boolean isEmpty();
+
+    /**
+     * First-in-first-out order, i.e., breadth-first propagation.
+     */
+    private static class FIFOQueue extends PointerQueue {
+
+        private final Deque<Pointer> queue = new ArrayDeque<>();
+
+        @Override
+        void add(Pointer pointer) {
+            queue.addLast(pointer);
+        }
+
+        @Override
+        Pointer poll() {
+            return queue.pollFirst();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+
+    /**
+     * Last-in-first-out order, i.e., depth-first propagation.
+     */
+    private static class LIFOQueue extends PointerQueue {
+
+        private final Deque<Pointer> stack = new ArrayDeque<>();
+
+        @Override
+        void add(Pointer pointer) {
+            stack.push(pointer);
+        }
+
+        @Override
+        Pointer poll() {
+            return stack.poll();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return stack.isEmpty();
+        }
+    }
+
+    /**
+     * Queue whose pointers are ordered by priorities, and pointers with
+     * the same priority are polled in first-in-first-out order.
+     */
+    private abstract static class PriorityPointerQueue extends PointerQueue {
+
+        private record Item(Pointer pointer, long priority, long seq) {
+        }
+
+        private static final Comparator<Item> COMPARATOR = Comparator
+                .comparingLong(Item::priority)
+                .thenComparingLong(Item::seq);
+
+        private PriorityQueue<Item> queue = new PriorityQueue<>(COMPARATOR);
+
+        private long seq = 0;
+
+        /**
+         * @return the priority of given pointer. Smaller value means
+         * higher priority.
+         */
+        abstract long getPriority(Pointer pointer);
+
+        @Override
+        void add(Pointer pointer) {
+            queue.add(new Item(pointer, getPriority(pointer), seq++));
+        }
+
+        @Override
+        Pointer poll() {
+            Item item = queue.poll();
+            return item == null ? null : item.pointer();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        /**
+         * Recomputes the priorities of the pointers in this queue,
+         * which is necessary when the priorities have changed.
+         */
+        void reprioritize() {
+            PriorityQueue<Item> oldQueue = queue;
+            queue = new PriorityQueue<>(Math.max(1, oldQueue.size()), COMPARATOR);
+            for (Item item : oldQueue) {
+                queue.add(new Item(item.pointer(),
+                        getPriority(item.pointer()), item.seq()));
+            }
+        }
+    }
+
+    /**
+     * Least-recently-fired order: the pointer whose entry was polled
+     * least recently is processed first, and pointers that have never
+     * been processed precede all others.
+     */
+    private static class LRFQueue extends PriorityPointerQueue {
+
+        /**
+         * Time when the entry of each pointer (indexed by pointer index)
+         * was polled last time. 0 means never.
+         */
+        private long[] lastFired = new long[1024];
+
+        private long time = 0;
+
+        @Override
+        long getPriority(Pointer pointer) {
+            int i = pointer.getIndex();
+            return i < lastFired.length ? lastFired[i] : 0;
+        }
+
+        @Override
+        Pointer poll() {
+            Pointer pointer = super.poll();
+            if (pointer != null) {
+                int i = pointer.getIndex();
+                if (i >= lastFired.length) {
+                    lastFired = Arrays.copyOf(lastFired,
+                            Math.max(i + 1, lastFired.length * 2));
+                }
+                lastFired[i] = ++time;
+            }
+            return pointer;
+        }
+    }
+
+    /**
+     * Topological order of the strongly connected components of pointer
+     * flow graph, so that the points-to sets flowing into a component are
+     * accumulated before the component is processed.
+     * <p>
+     * As pointer flow graph keeps growing during solving, the order is
+     * recomputed whenever the number of polled pointers that are not
+     * covered by the current order exceeds the number of covered ones.
+     * This bounds the amortized cost of the recomputation, and pointers
+     * not covered by the current order are processed after the covered
+     * ones in first-in-first-out order.
+     */
+    private static class TopoQueue extends PriorityPointerQueue {
+
+        private static final int UNRANKED = Integer.MAX_VALUE;
+
+        /**
+         * Minimum number of polled unranked pointers that triggers
+         * recomputation of the order.
+         */
+        private static final int MIN_RERANK_THRESHOLD = 1024;
+
+        private final PointerFlowGraph pfg;
+
+        /**
+         * Topological rank of each pointer (indexed by pointer index).
+         */
+        private int[] ranks = new int[0];
+
+        private int nRanked = 0;
+
+        private int nUnrankedPolls = 0;
+
+        private TopoQueue(PointerFlowGraph pfg) {
+            this.pfg = pfg;
+        }
+
+        @Override
+        long getPriority(Pointer pointer) {
+            int i = pointer.getIndex();
+            return i < ranks.length ? ranks[i] : UNRANKED;
+        }
+
+        @Override
+        Pointer poll() {
+            Pointer pointer = super.poll();
+            if (pointer != null && getPriority(pointer) == UNRANKED &&
+                    ++nUnrankedPolls > Math.max(nRanked, MIN_RERANK_THRESHOLD)) {
+                rerank();
+                reprioritize();
+            }
+            return pointer;
+        }
+
+        private void rerank() {
+            List<List<Pointer>> components = new SCC<>(pfg).getComponents();
+            int maxIndex = -1;
+            for (List<Pointer> component : components) {
+                for (Pointer p : component) {
+                    maxIndex = Math.max(maxIndex, p.getIndex());
+                }
+            }
+            int[] newRanks = new int[maxIndex + 1];
+            Arrays.fill(newRanks, UNRANKED);
+            // Tarjan's algorithm outputs components in reverse topological order
+            int rank = components.size();
+            for (List<Pointer> component : components) {
+                --rank;
+                for (Pointer p : component) {
+                    newRanks[p.getIndex()] = rank;
+                }
+            }
+            ranks = newRanks;
+            nRanked = components.stream().mapToInt(List::size).sum();
+            nUnrankedPolls = 0;
+        }
+    }
+}
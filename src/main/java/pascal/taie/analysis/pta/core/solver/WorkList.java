@@ -30,6 +30,8 @@ import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.util.collection.Maps;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
@@ -42,19 +44,39 @@ final class WorkList {
     /**
      * Pointer entries to be processed.
      */
-    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
+    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newMap();
+
+    /**
+     * Order in which the pointer entries are processed.
+     */
+    private final PointerQueue pointerQueue;
 
     /**
      * Call edges to be processed.
      */
     private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
 
+    /**
+     * Number of pointer entries that have been polled.
+     */
+    private long nPolledPointerEntries = 0;
+
+    /**
+     * Number of call edges that have been polled.
+     */
+    private long nPolledCallEdges = 0;
+
+    WorkList(PointerQueue pointerQueue) {
+        this.pointerQueue = pointerQueue;
+    }
+
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
         PointsToSet set = pointerEntries.get(pointer);
         if (set != null) {
             set.addAll(pointsToSet);
         } else {
             pointerEntries.put(pointer, pointsToSet.copy());
+            pointerQueue.add(pointer);
         }
     }
 
@@ -66,21 +88,59 @@ final class WorkList {
         if (!callEdges.isEmpty()) {
             // for correctness, we need to ensure that any call edges in
             // the work list must be processed prior to the pointer entries
+            ++nPolledCallEdges;
             return new CallEdgeEntry(callEdges.poll());
         } else if (!pointerEntries.isEmpty()) {
-            var it = pointerEntries.entrySet().iterator();
-            var e = it.next();
-            it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            return pollPointerEntry();
         } else {
             throw new NoSuchElementException();
         }
     }
 
+    private PointerEntry pollPointerEntry() {
+        Pointer pointer = pointerQueue.poll();
+        ++nPolledPointerEntries;
+        return new PointerEntry(pointer, pointerEntries.remove(pointer));
+    }
+
+    /**
+     * Removes and returns at most {@code limit} pointer entries in
+     * the order of {@link #pointerQueue}, i.e., the entries that would be
+     * polled next by {@link #pollEntry()} one by one. As pointer entries
+     * are merged by their pointers, the pointers of the returned entries
+     * are pairwise distinct.
+     */
+    List<PointerEntry> pollPointerEntries(int limit) {
+        int size = Math.min(limit, pointerEntries.size());
+        List<PointerEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            entries.add(pollPointerEntry());
+        }
+        return entries;
+    }
+
+    boolean hasCallEdges() {
+        return !callEdges.isEmpty();
+    }
+
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    /**
+     * @return the number of pointer entries that have been polled.
+     */
+    long getPolledPointerEntries() {
+        return nPolledPointerEntries;
+    }
+
+    /**
+     * @return the number of call edges that have been polled.
+     */
+    long getPolledCallEdges() {
+        return nPolledCallEdges;
+    }
+
     interface Entry {
     }
 
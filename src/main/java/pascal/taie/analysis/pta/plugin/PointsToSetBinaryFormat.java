@@ -0,0 +1,251 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.util.AnalysisException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary format of points-to sets dumped by {@link ResultProcessor}.
+ * A file of this format consists of:
+ * <ol>
+ *     <li>{@link #MAGIC}</li>
+ *     <li>the object table, i.e., the number of objects followed by
+ *     the string of each object, where the objects are sorted by
+ *     their strings</li>
+ *     <li>the number of sections, followed by the sections, each of which consists of its description,
+ *     the number of pointers, and the records of the pointers sorted by
+ *     their strings. Each record consists of the string of the pointer,
+ *     the size of its points-to set and the indexes of the objects
+ *     (in the object table) in the points-to set. The indexes are in
+ *     ascending order, and each of them is encoded as its difference
+ *     from the previous one.</li>
+ *     <li>the number of taint flows followed by the string of each flow</li>
+ * </ol>
+ * All numbers are encoded as unsigned variable-length integers,
+ * and all strings are encoded as lengths followed by UTF-8 bytes.
+ * As the records are sorted, the file can be compared with
+ * analysis results by reading one record at a time.
+ */
+class PointsToSetBinaryFormat {
+
+    private static final byte[] MAGIC = {'T', 'A', 'I', 'E', 'P', 'T', 'S', 1};
+
+    private PointsToSetBinaryFormat() {
+    }
+
+    /**
+     * @return {@code true} if {@code header} starts with the magic number
+     * of this format.
+     */
+    static boolean isBinary(byte[] header) {
+        return header.length >= MAGIC.length &&
+                Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    static int getMagicLength() {
+        return MAGIC.length;
+    }
+
+    /**
+     * Encodes contents of this format into a byte buffer,
+     * so that the records can be encoded in parallel.
+     */
+    static class Encoder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeMagic() {
+            out.writeBytes(MAGIC);
+        }
+
+        void writeInt(int i) {
+            while ((i & ~0x7F) != 0) {
+                out.write((i & 0x7F) | 0x80);
+                i >>>= 7;
+            }
+            out.write(i);
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        /**
+         * Writes indexes in ascending order, each of which is encoded
+         * as its difference from the previous one.
+         */
+        void writeIndexes(int[] indexes) {
+            Arrays.sort(indexes);
+            writeInt(indexes.length);
+            int prev = 0;
+            for (int index : indexes) {
+                writeInt(index - prev);
+                prev = index;
+            }
+        }
+
+        void writeStrings(List<String> strings) {
+            writeInt(strings.size());
+            strings.forEach(this::writeString);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        void writeTo(OutputStream os) throws IOException {
+            out.writeTo(os);
+            out.reset();
+        }
+    }
+
+    /**
+     * Reads a file of this format one record at a time.
+     */
+    static class Reader implements Closeable {
+
+        private final DataInputStream in;
+
+        private final String[] objects;
+
+        /**
+         * Number of remaining sections.
+         */
+        private int sections;
+
+        /**
+         * Number of remaining records in current section.
+         */
+        private int remaining;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            byte[] header = new byte[MAGIC.length];
+            this.in.readFully(header);
+            if (!isBinary(header)) {
+                throw new AnalysisException("Not a binary points-to set file");
+            }
+            objects = new String[readInt()];
+            for (int i = 0; i < objects.length; ++i) {
+                objects[i] = readString();
+            }
+            sections = readInt();
+        }
+
+        boolean hasNextSection() {
+            return sections > 0;
+        }
+
+        /**
+         * Starts reading next section. Remaining records of current section
+         * are skipped.
+         *
+         * @return description of the section.
+         */
+        String nextSection() throws IOException {
+            while (hasNextRecord()) {
+                nextRecord();
+            }
+            --sections;
+            String desc = readString();
+            remaining = readInt();
+            return desc;
+        }
+
+        boolean hasNextRecord() {
+            return remaining > 0;
+        }
+
+        /**
+         * @return the record as a pair of pointer string and
+         * points-to set string (in the same format as the text results,
+         * see {@link pascal.taie.util.collection.Streams#toString}).
+         */
+        String[] nextRecord() throws IOException {
+            --remaining;
+            String pointer = readString();
+            int size = readInt();
+            StringBuilder pts = new StringBuilder("[");
+            for (int i = 0, index = 0; i < size; ++i) {
+                if (i > 0) {
+                    pts.append(", ");
+                }
+                index += readInt();
+                pts.append(objects[index]);
+            }
+            return new String[]{ pointer, pts.append(']').toString() };
+        }
+
+        /**
+         * Reads the taint flows after all sections. Remaining sections
+         * are skipped.
+         */
+        List<String> readTaintFlows() throws IOException {
+            while (hasNextSection()) {
+                nextSection();
+            }
+            while (hasNextRecord()) {
+                nextRecord();
+            }
+            String[] flows = new String[readInt()];
+            for (int i = 0; i < flows.length; ++i) {
+                flows[i] = readString();
+            }
+            return List.of(flows);
+        }
+
+        private int readInt() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new AnalysisException("Malformed binary points-to set file");
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
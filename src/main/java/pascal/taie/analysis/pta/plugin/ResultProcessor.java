@@ -35,6 +35,7 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
@@ -42,12 +43,19 @@ import pascal.taie.util.collection.Lists;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Streams;
 
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DecimalFormat;
@@ -61,15 +69,23 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static pascal.taie.util.collection.CollectionUtils.sum;
 
 /**
  * Dump points-to set to file or compare the analysis result with
  * the ones read from input file.
+ * The points-to sets are sorted and encoded in parallel, and written
+ * to file partition by partition, optionally in a compact binary format
+ * (see {@link PointsToSetBinaryFormat}) and/or compressed by gzip.
  * Currently, the compare functionality is mainly for testing purpose.
- * It is not efficient and not recommended applying on large program.
+ * Comparing with a text file loads the whole file into memory, and thus
+ * is not recommended applying on large program; comparing with a binary
+ * file reads the file one pointer at a time.
  */
 public class ResultProcessor implements Plugin {
 
@@ -79,8 +95,21 @@ public class ResultProcessor implements Plugin {
 
     public static final String RESULTS_YAML_FILE = "pta-results.yml";
 
+    public static final String RESULTS_BINARY_FILE = "pta-results.bin";
+
     private static final String CI_RESULTS_FILE = "pta-ci-results.txt";
 
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final String NL = System.lineSeparator();
+
+    /**
+     * Number of pointers encoded by a task when dumping results in parallel.
+     */
+    private static final int PARTITION_SIZE = 4096;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private static final String HEADER = "Points-to sets of all ";
 
     /**
@@ -107,16 +136,23 @@ public class ResultProcessor implements Plugin {
         logStatistics(result);
 
         boolean taintEnabled = options.getString("taint-config") != null;
+        boolean gzip = isGzip(options.getString("dump-compression"));
         if (options.getBoolean("dump")) {
-            dumpPointsToSet(result, taintEnabled);
+            String format = options.getString("dump-format");
+            switch (format) {
+                case "text" -> dumpPointsToSet(result, taintEnabled, gzip);
+                case "binary" -> dumpPointsToSetInBinary(result, taintEnabled, gzip);
+                default -> throw new ConfigException(
+                        "Illegal dump-format: " + format);
+            }
         }
 
         if (options.getBoolean("dump-ci")) {
-            dumpCIPointsToSet(result);
+            dumpCIPointsToSet(result, gzip);
         }
 
         if (options.getBoolean("dump-yaml")) {
-            dumpPointsToSetInYaml(result);
+            dumpPointsToSetInYaml(result, gzip);
         }
 
         String expectedFile = options.getString("expected-file");
@@ -170,10 +206,99 @@ public class ResultProcessor implements Plugin {
         return formatter.format(i);
     }
 
+    private static boolean isGzip(String compression) {
+        return switch (compression) {
+            case "none" -> false;
+            case "gzip" -> true;
+            default -> throw new ConfigException(
+                    "Illegal dump-compression: " + compression);
+        };
+    }
+
+    private static File getOutputFile(String fileName, boolean gzip) {
+        return new File(World.get().getOptions().getOutputDir(),
+                gzip ? fileName + GZIP_SUFFIX : fileName);
+    }
+
+    private static OutputStream openOutput(File outFile, boolean gzip)
+            throws IOException {
+        OutputStream out = Files.newOutputStream(outFile.toPath());
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the input file, which is decompressed if it is compressed by gzip.
+     */
+    private static InputStream openInput(String input) throws IOException {
+        InputStream in = new BufferedInputStream(
+                Files.newInputStream(Path.of(input)), BUFFER_SIZE);
+        in.mark(2);
+        int b1 = in.read(), b2 = in.read();
+        in.reset();
+        if (b1 == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                && b2 == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            in = new BufferedInputStream(
+                    new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    private static boolean isBinary(InputStream in) throws IOException {
+        int length = PointsToSetBinaryFormat.getMagicLength();
+        in.mark(length);
+        byte[] header = in.readNBytes(length);
+        in.reset();
+        return PointsToSetBinaryFormat.isBinary(header);
+    }
+
+    private static byte[] encode(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pair of an element and its string, which is used to sort elements
+     * by their strings without computing the strings repeatedly.
+     */
+    private record Named<T>(String name, T elem) {
+    }
+
+    private static <T> List<Named<T>> sortByString(
+            Collection<? extends T> elems, Function<? super T, String> toString) {
+        return elems.parallelStream()
+                .map(e -> new Named<T>(toString.apply(e), e))
+                .sorted(Comparator.comparing(Named::name))
+                .toList();
+    }
+
+    /**
+     * Encodes the elements in partitions in parallel, and writes the
+     * encoded partitions to {@code out} in order. To bound the memory
+     * footprint, the partitions are encoded batch by batch.
+     */
+    private static <T> void writeInParallel(
+            OutputStream out, List<T> elems,
+            Function<List<T>, byte[]> encoder) throws IOException {
+        int nParts = (elems.size() + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        int batchSize = 4 * Runtime.getRuntime().availableProcessors();
+        for (int start = 0; start < nParts; start += batchSize) {
+            List<byte[]> batch = IntStream.range(start, Math.min(start + batchSize, nParts))
+                    .parallel()
+                    .mapToObj(i -> encoder.apply(elems.subList(i * PARTITION_SIZE,
+                            Math.min((i + 1) * PARTITION_SIZE, elems.size()))))
+                    .toList();
+            for (byte[] bytes : batch) {
+                out.write(bytes);
+            }
+        }
+    }
+
     private static void dumpPointsToSet(PointerAnalysisResult result,
-                                        boolean taintEnabled) {
-        File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_FILE);
-        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+                                        boolean taintEnabled, boolean gzip) {
+        File outFile = getOutputFile(RESULTS_FILE, gzip);
+        try (OutputStream out = openOutput(outFile, gzip)) {
             logger.info("Dumping points-to set (with contexts) to {}",
                     outFile.getAbsolutePath());
             dumpPointers(out, result.getCSVars(), "variables");
@@ -183,22 +308,88 @@ public class ResultProcessor implements Plugin {
             if (taintEnabled) {
                 dumpTaintFlows(out, result);
             }
-        } catch (FileNotFoundException e) {
-            logger.error("Failed to open output file {}", outFile);
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile);
         }
     }
 
     private static void dumpPointers(
-            PrintStream out, Collection<? extends Pointer> pointers, String desc) {
-        out.println(HEADER + desc);
-        pointers.stream()
-                .sorted(Comparator.comparing(Pointer::toString))
-                .forEach(p -> out.println(p + SEP + Streams.toString(p.objects())));
-        out.println();
+            OutputStream out, Collection<? extends Pointer> pointers,
+            String desc) throws IOException {
+        out.write(encode(HEADER + desc + NL));
+        writeInParallel(out, sortByString(pointers, Pointer::toString), part -> {
+            StringBuilder builder = new StringBuilder();
+            part.forEach(p -> builder.append(p.name())
+                    .append(SEP)
+                    .append(Streams.toString(p.elem().objects()))
+                    .append(NL));
+            return encode(builder.toString());
+        });
+        out.write(encode(NL));
+    }
+
+    /**
+     * Dumps points-to set (with contexts) in {@link PointsToSetBinaryFormat}.
+     */
+    private static void dumpPointsToSetInBinary(PointerAnalysisResult result,
+                                                boolean taintEnabled, boolean gzip) {
+        File outFile = getOutputFile(RESULTS_BINARY_FILE, gzip);
+        try (OutputStream out = openOutput(outFile, gzip)) {
+            logger.info("Dumping points-to set (with contexts) in binary to {}",
+                    outFile.getAbsolutePath());
+            List<Collection<? extends Pointer>> sections = List.of(
+                    result.getCSVars(), result.getStaticFields(),
+                    result.getInstanceFields(), result.getArrayIndexes());
+            List<String> descs = List.of("variables", "static fields",
+                    "instance fields", "array indexes");
+            // build object table
+            List<Named<CSObj>> objs = sortByString(sections.stream()
+                    .flatMap(Collection::stream)
+                    .parallel()
+                    .flatMap(Pointer::objects)
+                    .collect(Collectors.toSet()), CSObj::toString);
+            Map<CSObj, Integer> objIndexes = Maps.newMap(objs.size());
+            for (int i = 0; i < objs.size(); ++i) {
+                objIndexes.put(objs.get(i).elem(), i);
+            }
+            PointsToSetBinaryFormat.Encoder header = new PointsToSetBinaryFormat.Encoder();
+            header.writeMagic();
+            header.writeStrings(Lists.map(objs, Named::name));
+            header.writeInt(sections.size());
+            header.writeTo(out);
+            for (int i = 0; i < sections.size(); ++i) {
+                PointsToSetBinaryFormat.Encoder sectionHeader =
+                        new PointsToSetBinaryFormat.Encoder();
+                sectionHeader.writeString(descs.get(i));
+                sectionHeader.writeInt(sections.get(i).size());
+                sectionHeader.writeTo(out);
+                writeInParallel(out, sortByString(sections.get(i), Pointer::toString),
+                        part -> {
+                            PointsToSetBinaryFormat.Encoder encoder =
+                                    new PointsToSetBinaryFormat.Encoder();
+                            part.forEach(p -> {
+                                encoder.writeString(p.name());
+                                encoder.writeIndexes(p.elem().objects()
+                                        .mapToInt(objIndexes::get)
+                                        .toArray());
+                            });
+                            return encoder.toByteArray();
+                        });
+            }
+            PointsToSetBinaryFormat.Encoder taintFlows =
+                    new PointsToSetBinaryFormat.Encoder();
+            taintFlows.writeStrings(taintEnabled
+                    ? Lists.map(getTaintFlows(result), TaintFlow::toString)
+                    : List.of());
+            taintFlows.writeTo(out);
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile);
+        }
     }
 
-    private static void dumpPointsToSetInYaml(PointerAnalysisResult result) {
-        File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_YAML_FILE);
+    private static void dumpPointsToSetInYaml(PointerAnalysisResult result,
+                                              boolean gzip) {
+        File outFile = getOutputFile(RESULTS_YAML_FILE, gzip);
         logger.info("Dumping points-to set (with contexts) in YAML to {}",
                 outFile.getAbsolutePath());
 
@@ -316,7 +507,8 @@ public class ResultProcessor implements Plugin {
         dumpData.put("static-fields", staticFields);
         dumpData.put("instance-fields", instanceFields);
         dumpData.put("array-indexes", arrayIndexes);
-        try (FileWriter writer = new FileWriter(outFile)) {
+        try (Writer writer = new OutputStreamWriter(
+                openOutput(outFile, gzip), StandardCharsets.UTF_8)) {
             ObjectMapper mapper = new ObjectMapper(new YAMLFactory()
                     .enable(YAMLGenerator.Feature.INDENT_ARRAYS)
                     .enable(YAMLGenerator.Feature.ALLOW_LONG_KEYS)
@@ -326,37 +518,48 @@ public class ResultProcessor implements Plugin {
             );
             mapper.writeValue(writer, dumpData);
         } catch (IOException e) {
-            logger.error("Failed to open output file {}", outFile);
+            logger.error("Failed to write output file {}", outFile);
         }
     }
 
     /**
      * Dumps points-to sets for all variables (without contexts).
      */
-    private static void dumpCIPointsToSet(PointerAnalysisResult result) {
-        File outFile = new File(World.get().getOptions().getOutputDir(), CI_RESULTS_FILE);
-        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+    private static void dumpCIPointsToSet(PointerAnalysisResult result,
+                                          boolean gzip) {
+        File outFile = getOutputFile(CI_RESULTS_FILE, gzip);
+        try (OutputStream out = openOutput(outFile, gzip)) {
             logger.info("Dumping points-to set (without contexts) to {}",
                     outFile.getAbsolutePath());
             Function<Var, String> toString =
                     v -> v.getMethod().toString() + '/' + v.getName();
-            result.getVars()
-                    .stream()
-                    .sorted(Comparator.comparing(toString))
-                    .forEach(v -> {
-                        Set<Obj> pts = result.getPointsToSet(v);
-                        if (!pts.isEmpty()) {
-                            out.printf("%s:%n", toString.apply(v));
-                            pts.forEach(o -> out.printf("    %s%n", o));
-                        }
-                    });
-        } catch (FileNotFoundException e) {
-            logger.error("Failed to open output file {}", outFile);
+            writeInParallel(out, sortByString(result.getVars(), toString), part -> {
+                StringBuilder builder = new StringBuilder();
+                part.forEach(v -> {
+                    Set<Obj> pts = result.getPointsToSet(v.elem());
+                    if (!pts.isEmpty()) {
+                        builder.append(v.name()).append(':').append(NL);
+                        pts.forEach(o -> builder.append("    ").append(o).append(NL));
+                    }
+                });
+                return encode(builder.toString());
+            });
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile);
         }
     }
 
     private static void comparePointsToSet(PointerAnalysisResult result, String input) {
         logger.info("Comparing points-to set with {}", input);
+        try (InputStream in = openInput(input)) {
+            if (isBinary(in)) {
+                comparePointsToSetWithBinary(result, in);
+                return;
+            }
+        } catch (IOException e) {
+            throw new AnalysisException(
+                    "Failed to read points-to set from " + input, e);
+        }
         var inputs = readPointsToSets(input);
         Map<String, Pointer> pointers = Maps.newLinkedHashMap();
         addPointers(pointers, result.getCSVars());
@@ -386,8 +589,106 @@ public class ResultProcessor implements Plugin {
         }
     }
 
+    /**
+     * Compares points-to set with the ones in {@link PointsToSetBinaryFormat},
+     * by merging the sorted pointers of each section with the sorted records
+     * read from {@code in}.
+     */
+    private static void comparePointsToSetWithBinary(
+            PointerAnalysisResult result, InputStream in) throws IOException {
+        List<String> mismatches = new ArrayList<>();
+        try (PointsToSetBinaryFormat.Reader reader =
+                     new PointsToSetBinaryFormat.Reader(in)) {
+            for (Collection<? extends Pointer> pointers : List.of(
+                    result.getCSVars(), result.getStaticFields(),
+                    result.getInstanceFields(), result.getArrayIndexes())) {
+                List<Named<Pointer>> given = sortByString(pointers, Pointer::toString);
+                if (reader.hasNextSection()) {
+                    reader.nextSection();
+                }
+                SectionRecords records = new SectionRecords(reader);
+                int i = 0;
+                String[] expected = records.next();
+                while (i < given.size() || expected != null) {
+                    int cmp = i == given.size() ? 1 : expected == null ? -1
+                            : given.get(i).name().compareTo(expected[0]);
+                    if (cmp < 0) { // pointer is absent in expected results
+                        Named<Pointer> p = given.get(i++);
+                        mismatches.add(String.format("%s, expected: null, given: %s",
+                                p.name(), Streams.toString(p.elem().objects())));
+                    } else if (cmp > 0) { // pointer is absent in given results
+                        mismatches.add(String.format("%s, expected: %s, given: null",
+                                expected[0], expected[1]));
+                        expected = records.next();
+                    } else {
+                        Named<Pointer> p = given.get(i++);
+                        String pts = Streams.toString(p.elem().objects());
+                        if (!pts.equals(expected[1])) {
+                            mismatches.add(String.format("%s, expected: %s, given: %s",
+                                    p.name(), expected[1], pts));
+                        }
+                        expected = records.next();
+                    }
+                }
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new AnalysisException("Mismatches of points-to set\n" +
+                    String.join("\n", mismatches));
+        }
+    }
+
+    /**
+     * Iterates the sorted records in current section of a binary points-to
+     * set file. Same as {@link #readPointsToSets(String)}, if multiple
+     * records have the same pointer, the last one is taken.
+     */
+    private static class SectionRecords {
+
+        private final PointsToSetBinaryFormat.Reader reader;
+
+        /**
+         * The record which has been read but not returned yet.
+         */
+        private String[] pending;
+
+        private SectionRecords(PointsToSetBinaryFormat.Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return next record in current section, or {@code null} if
+         * there is no more record in current section.
+         */
+        @Nullable
+        private String[] next() throws IOException {
+            String[] record = pending;
+            pending = null;
+            if (record == null) {
+                if (!reader.hasNextRecord()) {
+                    return null;
+                }
+                record = reader.nextRecord();
+            }
+            while (reader.hasNextRecord()) {
+                String[] following = reader.nextRecord();
+                int cmp = record[0].compareTo(following[0]);
+                if (cmp == 0) { // duplicate pointer, take the last record
+                    record = following;
+                } else if (cmp < 0) {
+                    pending = following;
+                    break;
+                } else {
+                    throw new AnalysisException("Records of binary points-to set" +
+                            " file are not sorted: " + following[0]);
+                }
+            }
+            return record;
+        }
+    }
+
     private static Map<String, String> readPointsToSets(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
+        try (Stream<String> lines = readLines(input)) {
             Map<String, String> result = Maps.newLinkedHashMap();
             lines.filter(line -> line.contains(SEP))
                     .map(line -> line.split(SEP))
@@ -406,11 +707,29 @@ public class ResultProcessor implements Plugin {
                 .forEach(p -> map.put(p.toString(), p));
     }
 
-    private static void dumpTaintFlows(PrintStream out, PointerAnalysisResult result) {
+    /**
+     * @return the lines of the input file, which may be compressed by gzip.
+     */
+    private static Stream<String> readLines(String input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                openInput(input), StandardCharsets.UTF_8));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void dumpTaintFlows(OutputStream out, PointerAnalysisResult result)
+            throws IOException {
         Set<TaintFlow> taintFlows = getTaintFlows(result);
-        out.printf("Detected %d taint flow(s):%n", taintFlows.size());
-        taintFlows.forEach(out::println);
-        out.println();
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Detected %d taint flow(s):%n", taintFlows.size()));
+        taintFlows.forEach(flow -> builder.append(flow).append(NL));
+        builder.append(NL);
+        out.write(encode(builder.toString()));
     }
 
     /**
@@ -448,7 +767,18 @@ public class ResultProcessor implements Plugin {
     }
 
     private static List<String> readTaintFlows(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
+        try (InputStream in = openInput(input)) {
+            if (isBinary(in)) {
+                try (PointsToSetBinaryFormat.Reader reader =
+                             new PointsToSetBinaryFormat.Reader(in)) {
+                    return reader.readTaintFlows();
+                }
+            }
+        } catch (IOException e) {
+            throw new AnalysisException(
+                    "Failed to read taint flows from " + input, e);
+        }
+        try (Stream<String> lines = readLines(input)) {
             List<String> taintFlows = new ArrayList<>();
             lines.filter(line -> line.startsWith("TaintFlow{") && line.contains(SEP))
                     .forEach(taintFlows::add);
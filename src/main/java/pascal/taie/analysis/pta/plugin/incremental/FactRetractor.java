@@ -0,0 +1,395 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.CallEdge;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.FlowEdge;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.MethodInfo;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.ObjInfo;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.PointerInfo;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.RegularBitSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.ARRAY_INDEX;
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.INSTANCE_FIELD;
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.NEW_OBJ;
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.OPAQUE_OBJ;
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.OPAQUE_POINTER;
+import static pascal.taie.analysis.pta.plugin.incremental.SolverState.VAR;
+
+/**
+ * Retracts the facts of a persisted solver state that may be affected
+ * by code changes, in the style of the deletion phase of DRed
+ * (delete and re-derive) algorithm.
+ * <p>
+ * A fact, i.e., a points-to relation, is deleted if any of its derivations
+ * may rely on changed methods, on plugins, or on other deleted facts,
+ * pointer flow edges or call edges. A method stays reachable only if it is
+ * reachable from root methods (i.e., entry methods, class initializers and
+ * the methods added by plugins) via the call edges that are not deleted,
+ * and all facts of unreachable methods are deleted. The remaining facts
+ * are still derivable in the changed program, and the deleted facts which
+ * are still valid are re-derived by the solver.
+ */
+class FactRetractor {
+
+    private final SolverState state;
+
+    private final boolean[] changedMethods;
+
+    /**
+     * Facts which are not deleted, i.e., objects (indexes) kept
+     * in the points-to set of each pointer.
+     */
+    private final IBitSet[] kept;
+
+    private final boolean[] deletedEdges;
+
+    private final boolean[] deletedCalls;
+
+    /**
+     * Whether each method has been found unreachable.
+     */
+    private final boolean[] deadMethods;
+
+    // indexes of the state
+
+    private final int[][] outEdges;
+
+    /**
+     * Base variable -> field/array edges introduced by the variable.
+     */
+    private final int[][] premiseEdges;
+
+    /**
+     * Receiver variable -> call edges introduced by the variable.
+     */
+    private final int[][] receiverCalls;
+
+    /**
+     * Call edge -> parameter passing and return edges introduced by the call.
+     */
+    private final int[][] paramEdges;
+
+    private final int[][] methodVars;
+
+    private final int[][] methodCalls;
+
+    /**
+     * Deleted facts (pointer, obj) to be processed.
+     */
+    private final Deque<long[]> workList = new ArrayDeque<>();
+
+    /**
+     * @param changedMethods whether each method in the state is changed
+     */
+    FactRetractor(SolverState state, boolean[] changedMethods) {
+        this.state = state;
+        this.changedMethods = changedMethods;
+        int nPointers = state.pointers.size();
+        kept = new IBitSet[nPointers];
+        for (int i = 0; i < nPointers; ++i) {
+            kept[i] = toBitSet(state.pointers.get(i).pts());
+        }
+        deletedEdges = new boolean[state.flowEdges.size()];
+        deletedCalls = new boolean[state.callEdges.size()];
+        deadMethods = new boolean[state.methods.size()];
+        // build indexes
+        List<List<Integer>> outs = newLists(nPointers);
+        List<List<Integer>> premises = newLists(nPointers);
+        List<List<Integer>> params = newLists(state.callEdges.size());
+        for (int e = 0; e < state.flowEdges.size(); ++e) {
+            FlowEdge edge = state.flowEdges.get(e);
+            outs.get(edge.source()).add(e);
+            switch (edge.kind()) {
+                case INSTANCE_LOAD, INSTANCE_STORE, ARRAY_LOAD, ARRAY_STORE -> {
+                    for (int base : edge.premises()) {
+                        premises.get(base).add(e);
+                    }
+                }
+                case PARAMETER_PASSING, RETURN -> {
+                    for (int call : edge.premises()) {
+                        params.get(call).add(e);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        List<List<Integer>> receivers = newLists(nPointers);
+        List<List<Integer>> calls = newLists(state.methods.size());
+        for (int c = 0; c < state.callEdges.size(); ++c) {
+            CallEdge call = state.callEdges.get(c);
+            if (call.receiver() >= 0) {
+                receivers.get(call.receiver()).add(c);
+            }
+            calls.get(call.caller()).add(c);
+        }
+        List<List<Integer>> vars = newLists(state.methods.size());
+        for (int p = 0; p < nPointers; ++p) {
+            PointerInfo pointer = state.pointers.get(p);
+            if (pointer.kind() == VAR) {
+                vars.get(pointer.base()).add(p);
+            }
+        }
+        outEdges = toArrays(outs);
+        premiseEdges = toArrays(premises);
+        receiverCalls = toArrays(receivers);
+        paramEdges = toArrays(params);
+        methodVars = toArrays(vars);
+        methodCalls = toArrays(calls);
+    }
+
+    /**
+     * Retracts the affected facts.
+     *
+     * @return the facts which are not deleted, i.e., objects (indexes)
+     * kept in the points-to set of each pointer.
+     */
+    IBitSet[] retract() {
+        deleteInitialFacts();
+        do {
+            while (!workList.isEmpty()) {
+                long[] fact = workList.poll();
+                processDeletedFact((int) fact[0], (int) fact[1]);
+            }
+        } while (deleteUnreachableMethods());
+        return kept;
+    }
+
+    private void deleteInitialFacts() {
+        List<ObjInfo> objs = state.objs;
+        boolean[] deletedObjs = new boolean[objs.size()];
+        for (int o = 0; o < objs.size(); ++o) {
+            ObjInfo obj = objs.get(o);
+            deletedObjs[o] = obj.kind() == OPAQUE_OBJ ||
+                    (obj.kind() == NEW_OBJ && changedMethods[obj.method()]);
+        }
+        for (int p = 0; p < state.pointers.size(); ++p) {
+            PointerInfo pointer = state.pointers.get(p);
+            int kind = pointer.kind();
+            if (kind == OPAQUE_POINTER || pointer.touched()
+                    || (kind == VAR && changedMethods[pointer.base()])
+                    || ((kind == INSTANCE_FIELD || kind == ARRAY_INDEX)
+                    && deletedObjs[pointer.base()])) {
+                deletePointer(p);
+            } else {
+                for (int o : pointer.pts()) {
+                    if (deletedObjs[o]) {
+                        deleteFact(p, o);
+                    }
+                }
+            }
+        }
+        for (int e = 0; e < state.flowEdges.size(); ++e) {
+            FlowEdge edge = state.flowEdges.get(e);
+            boolean known = switch (edge.kind()) {
+                case LOCAL_ASSIGN, CAST, STATIC_LOAD, STATIC_STORE -> true;
+                case INSTANCE_LOAD, INSTANCE_STORE, ARRAY_LOAD, ARRAY_STORE,
+                        PARAMETER_PASSING, RETURN -> edge.premises().length > 0;
+                default -> false;
+            };
+            if (!known) {
+                deleteEdge(e);
+            }
+        }
+        for (int c = 0; c < state.callEdges.size(); ++c) {
+            CallEdge call = state.callEdges.get(c);
+            if (!call.derived() || changedMethods[call.caller()]) {
+                deleteCall(c);
+            }
+        }
+    }
+
+    private void deleteFact(int pointer, int obj) {
+        IBitSet objs = kept[pointer];
+        if (objs.clear(obj)) {
+            workList.add(new long[]{ pointer, obj });
+        }
+    }
+
+    private void deletePointer(int pointer) {
+        IBitSet objs = kept[pointer];
+        for (int o = objs.nextSetBit(0); o >= 0; o = objs.nextSetBit(o + 1)) {
+            deleteFact(pointer, o);
+        }
+    }
+
+    private void deleteEdge(int edge) {
+        if (!deletedEdges[edge]) {
+            deletedEdges[edge] = true;
+            FlowEdge e = state.flowEdges.get(edge);
+            for (int o : state.pointers.get(e.source()).pts()) {
+                deleteFact(e.target(), o);
+            }
+        }
+    }
+
+    private void deleteCall(int call) {
+        if (!deletedCalls[call]) {
+            deletedCalls[call] = true;
+            CallEdge c = state.callEdges.get(call);
+            if (c.thisVar() >= 0) {
+                for (int o : c.supports()) {
+                    deleteFact(c.thisVar(), o);
+                }
+            }
+            for (int e : paramEdges[call]) {
+                deleteEdge(e);
+            }
+        }
+    }
+
+    private void processDeletedFact(int pointer, int obj) {
+        for (int e : outEdges[pointer]) {
+            if (!deletedEdges[e]) {
+                deleteFact(state.flowEdges.get(e).target(), obj);
+            }
+        }
+        for (int e : premiseEdges[pointer]) {
+            if (!deletedEdges[e] && getBaseObj(state.flowEdges.get(e)) == obj) {
+                deleteEdge(e);
+            }
+        }
+        for (int c : receiverCalls[pointer]) {
+            if (!deletedCalls[c] && contains(state.callEdges.get(c).supports(), obj)) {
+                deleteCall(c);
+            }
+        }
+    }
+
+    /**
+     * @return whether the pointer flow edge of given index is deleted.
+     * Only valid after {@link #retract()}.
+     */
+    boolean isDeletedEdge(int edge) {
+        return deletedEdges[edge];
+    }
+
+    /**
+     * @return whether the call edge of given index is deleted.
+     * Only valid after {@link #retract()}.
+     */
+    boolean isDeletedCall(int call) {
+        return deletedCalls[call];
+    }
+
+    /**
+     * @return whether the method of given index is unreachable after
+     * retraction. Only valid after {@link #retract()}.
+     */
+    boolean isDeadMethod(int method) {
+        return deadMethods[method];
+    }
+
+    /**
+     * @return the base object of instance field or array edge.
+     */
+    int getBaseObj(FlowEdge edge) {
+        FlowKind kind = edge.kind();
+        int fieldPointer = kind == FlowKind.INSTANCE_LOAD || kind == FlowKind.ARRAY_LOAD
+                ? edge.source() : edge.target();
+        return state.pointers.get(fieldPointer).base();
+    }
+
+    /**
+     * Finds the methods that are not reachable from root methods via
+     * remaining call edges, and deletes their facts and call edges.
+     *
+     * @return {@code true} if any new unreachable methods are found.
+     */
+    private boolean deleteUnreachableMethods() {
+        List<MethodInfo> methods = state.methods;
+        boolean[] reachable = new boolean[methods.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int m = 0; m < methods.size(); ++m) {
+            if (methods.get(m).root()) {
+                reachable[m] = true;
+                queue.add(m);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int m = queue.poll();
+            for (int c : methodCalls[m]) {
+                int callee = state.callEdges.get(c).callee();
+                if (!deletedCalls[c] && !reachable[callee]) {
+                    reachable[callee] = true;
+                    queue.add(callee);
+                }
+            }
+        }
+        boolean changed = false;
+        for (int m = 0; m < methods.size(); ++m) {
+            if (!reachable[m] && !deadMethods[m]) {
+                deadMethods[m] = true;
+                changed = true;
+                for (int v : methodVars[m]) {
+                    deletePointer(v);
+                }
+                for (int c : methodCalls[m]) {
+                    deleteCall(c);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static boolean contains(int[] array, int value) {
+        for (int i : array) {
+            if (i == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IBitSet toBitSet(int[] ints) {
+        IBitSet bits = new RegularBitSet();
+        for (int i : ints) {
+            bits.set(i);
+        }
+        return bits;
+    }
+
+    private static List<List<Integer>> newLists(int n) {
+        List<List<Integer>> lists = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            lists.add(new ArrayList<>(0));
+        }
+        return lists;
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; ++i) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+
+/**
+ * Computes fingerprints of classes and methods, which are used to
+ * detect the code that changes between two runs of pointer analysis.
+ */
+final class Fingerprints {
+
+    private Fingerprints() {
+    }
+
+    /**
+     * @return fingerprint of the declaration of given class, i.e.,
+     * its modifiers, super class, interfaces, and the signatures
+     * and modifiers of its fields and methods. The method bodies
+     * are not included.
+     */
+    static long ofClass(JClass jclass) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(jclass.getModifiers()).append(' ')
+                .append(jclass.getName()).append('\n');
+        JClass superclass = jclass.getSuperClass();
+        if (superclass != null) {
+            sb.append("extends ").append(superclass.getName()).append('\n');
+        }
+        jclass.getInterfaces()
+                .stream()
+                .map(JClass::getName)
+                .sorted()
+                .forEach(i -> sb.append("implements ").append(i).append('\n'));
+        jclass.getDeclaredFields()
+                .stream()
+                .sorted(Comparator.comparing(JField::getSignature))
+                .forEach(f -> sb.append(f.getModifiers()).append(' ')
+                        .append(f.getSignature()).append('\n'));
+        jclass.getDeclaredMethods()
+                .stream()
+                .sorted(Comparator.comparing(JMethod::getSignature))
+                .forEach(m -> sb.append(m.getModifiers()).append(' ')
+                        .append(m.getSignature()).append('\n'));
+        return hash(sb);
+    }
+
+    /**
+     * @return fingerprint of the body (i.e., the IR) of given method,
+     * or 0 if the method has no body.
+     */
+    static long ofMethod(JMethod method) {
+        if (method.isAbstract() || method.isNative()) {
+            return 0;
+        }
+        IR ir = method.getIR();
+        StringBuilder sb = new StringBuilder();
+        ir.getVars().forEach(v -> sb.append(v.getName()).append(':')
+                .append(v.getType()).append('\n'));
+        ir.forEach(s -> sb.append(s).append('\n'));
+        ir.getExceptionEntries().forEach(e -> sb.append(e).append('\n'));
+        return hash(sb);
+    }
+
+    private static long hash(CharSequence s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(s.toString().getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; ++i) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
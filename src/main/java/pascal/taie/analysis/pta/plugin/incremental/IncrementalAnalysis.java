@@ -0,0 +1,679 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.Identity;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.Transfer;
+import pascal.taie.analysis.pta.core.solver.TypeFilter;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.CallEdge;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.FlowEdge;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.MethodInfo;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.ObjInfo;
+import pascal.taie.analysis.pta.plugin.incremental.SolverState.PointerInfo;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.toolkit.PointsToOptionsKey;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Timer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.RegularBitSet;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental pointer analysis. This plugin wraps all other plugins,
+ * and persists the state of the solver to a file when the analysis finishes.
+ * In the next run, it compares the program with the persisted state,
+ * retracts the facts affected by changed methods (see {@link FactRetractor}),
+ * and restores the remaining facts to the solver directly (see {@link Restorer}).
+ * Then the solver re-derives the retracted facts from the boundary of
+ * the retracted region together with the facts introduced by changed code,
+ * and produces the same result as a from-scratch run.
+ * <p>
+ * If the options of pointer analysis, or the declaration of any class
+ * (e.g., super class or members) is changed, the persisted state is discarded.
+ * Currently, incremental analysis supports only context-insensitive analysis.
+ */
+public class IncrementalAnalysis implements Plugin {
+
+    private static final Logger logger = LogManager.getLogger(IncrementalAnalysis.class);
+
+    private final Plugin plugin;
+
+    private DefaultSolver solver;
+
+    private TrackingSolver tracker;
+
+    private File stateFile;
+
+    private String optionsKey;
+
+    /**
+     * @param plugin the plugins of the analysis
+     */
+    public IncrementalAnalysis(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void setSolver(Solver solver) {
+        AnalysisOptions options = solver.getOptions();
+        if (!options.getString("cs").equals("ci")
+                || options.getString("advanced") != null) {
+            throw new ConfigException(
+                    "Incremental analysis supports only context-insensitive analysis");
+        }
+        if (options.getBoolean("collapse-cycles")) {
+            throw new ConfigException(
+                    "Incremental analysis does not support collapse-cycles");
+        }
+        if (!(solver instanceof DefaultSolver defaultSolver)) {
+            throw new ConfigException(
+                    "Incremental analysis requires " + DefaultSolver.class.getName());
+        }
+        this.solver = defaultSolver;
+        this.stateFile = new File(options.getString("incremental"));
+        this.optionsKey = PointsToOptionsKey.of(options);
+        this.tracker = new TrackingSolver(solver);
+        plugin.setSolver(tracker);
+    }
+
+    @Override
+    public void onStart() {
+        plugin.onStart();
+        if (stateFile.exists()) {
+            Timer.runAndCount(this::restore, "Restoring solver state");
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        plugin.onFinish();
+        Timer.runAndCount(this::save, "Saving solver state");
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        plugin.onNewPointsToSet(csVar, pts);
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        plugin.onNewCallEdge(edge);
+    }
+
+    @Override
+    public void onNewMethod(JMethod method) {
+        plugin.onNewMethod(method);
+    }
+
+    @Override
+    public void onNewStmt(Stmt stmt, JMethod container) {
+        plugin.onNewStmt(stmt, container);
+    }
+
+    @Override
+    public void onNewCSMethod(CSMethod csMethod) {
+        plugin.onNewCSMethod(csMethod);
+    }
+
+    @Override
+    public void onUnresolvedCall(CSObj recv, Context context, Invoke invoke) {
+        plugin.onUnresolvedCall(recv, context, invoke);
+    }
+
+    private void restore() {
+        SolverState state;
+        try {
+            state = SolverState.read(stateFile);
+        } catch (IOException e) {
+            logger.warn("Failed to read solver state from {}: {}",
+                    stateFile, e.toString());
+            return;
+        }
+        if (!state.optionsKey.equals(optionsKey)) {
+            logger.info("Options of pointer analysis are changed," +
+                    " solving from scratch");
+            return;
+        }
+        if (!state.classFingerprints.equals(SolverState.computeClassFingerprints())) {
+            logger.info("Declarations of classes are changed," +
+                    " solving from scratch");
+            return;
+        }
+        List<MethodInfo> methodInfos = state.methods;
+        JMethod[] methods = new JMethod[methodInfos.size()];
+        boolean[] changed = new boolean[methods.length];
+        int nChanged = 0;
+        for (int i = 0; i < methods.length; ++i) {
+            MethodInfo info = methodInfos.get(i);
+            JMethod method = solver.getHierarchy().getMethod(info.signature());
+            methods[i] = method;
+            changed[i] = method == null || info.extended() || !info.reachable()
+                    || Fingerprints.ofMethod(method) != info.fingerprint();
+            if (changed[i] && info.reachable()) {
+                ++nChanged;
+            }
+        }
+        FactRetractor retractor = new FactRetractor(state, changed);
+        IBitSet[] kept = retractor.retract();
+        Restorer restorer = new Restorer(state, methods, changed, retractor, kept);
+        restorer.restore();
+        int nFacts = state.pointers.stream()
+                .mapToInt(p -> p.pts().length)
+                .sum();
+        logger.info("{} changed methods, restored {}/{} points-to relations" +
+                        " ({} on the boundary are re-processed)",
+                nChanged, restorer.nRestored + restorer.nBoundary, nFacts,
+                restorer.nBoundary);
+    }
+
+    private void save() {
+        SolverState state = SolverState.capture(solver, tracker, optionsKey);
+        try {
+            File dir = stateFile.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Failed to create directory " + dir);
+            }
+            state.write(stateFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write solver state to {}: {}",
+                    stateFile, e.toString());
+        }
+    }
+
+    /**
+     * Maps the facts in the persisted state to current program, and restores
+     * the ones that are kept after retraction to the solver.
+     * <p>
+     * The kept points-to sets, pointer flow edges, call edges and reachable
+     * methods are restored directly, i.e., they are not propagated through
+     * the work list of the solver. Only the facts on the boundary of the
+     * retracted region are added to the work list, so that the solver
+     * re-derives the retracted facts from them, i.e.,
+     * <ul>
+     *     <li>the kept facts whose consequences (e.g., instance field edges
+     *     and call edges) are not restored;</li>
+     *     <li>the objects which flow along restored edges but are not
+     *     in the points-to sets of the targets; and</li>
+     *     <li>the kept call edges to changed methods.</li>
+     * </ul>
+     * Plugins are notified of the restored methods, call edges and
+     * points-to sets in the same way as they are derived by the solver.
+     */
+    private class Restorer {
+
+        private final SolverState state;
+
+        private final JMethod[] methods;
+
+        private final boolean[] changed;
+
+        private final FactRetractor retractor;
+
+        private final IBitSet[] kept;
+
+        /**
+         * Kept facts which are restored via the work list.
+         */
+        private final IBitSet[] boundary;
+
+        private final Obj[] objs;
+
+        private final Pointer[] pointers;
+
+        private final boolean[] resolved;
+
+        private final Map<JMethod, Map<String, Var>> vars = Maps.newMap();
+
+        private final CSManager csManager = solver.getCSManager();
+
+        private final Context emptyContext = solver.getContextSelector().getEmptyContext();
+
+        private int nRestored = 0;
+
+        private int nBoundary = 0;
+
+        private Restorer(SolverState state, JMethod[] methods, boolean[] changed,
+                         FactRetractor retractor, IBitSet[] kept) {
+            this.state = state;
+            this.methods = methods;
+            this.changed = changed;
+            this.retractor = retractor;
+            this.kept = kept;
+            int nPointers = state.pointers.size();
+            this.boundary = new IBitSet[nPointers];
+            for (int i = 0; i < nPointers; ++i) {
+                boundary[i] = new RegularBitSet();
+            }
+            this.objs = new Obj[state.objs.size()];
+            this.pointers = new Pointer[nPointers];
+            this.resolved = new boolean[nPointers];
+        }
+
+        private void restore() {
+            // edges added before restoration, e.g., by entry methods
+            List<PointerFlowEdge> oldEdges = csManager.pointers()
+                    .flatMap(p -> p.getOutEdges().stream())
+                    .toList();
+            boolean[] restoredEdges = new boolean[state.flowEdges.size()];
+            boolean[] restoredCalls = new boolean[state.callEdges.size()];
+            for (int e = 0; e < restoredEdges.length; ++e) {
+                restoredEdges[e] = isRestorableEdge(e);
+            }
+            for (int c = 0; c < restoredCalls.length; ++c) {
+                restoredCalls[c] = isRestorableCall(c);
+            }
+            findBoundary(restoredEdges, restoredCalls);
+            List<CSVar> restoredVars = restorePointsToSets();
+            restorePFGEdges(restoredEdges);
+            List<Edge<CSCallSite, CSMethod>> calls = restoreCallEdges(restoredCalls);
+            restoreReachableMethods();
+            notifyPlugin(calls, restoredVars);
+            // add the boundary to the work list
+            for (int p = 0; p < boundary.length; ++p) {
+                if (!boundary[p].isEmpty()) {
+                    Pointer pointer = getPointer(p);
+                    PointsToSet pts = toPointsToSet(boundary[p]);
+                    if (pointer != null && !pts.isEmpty()) {
+                        nBoundary += pts.size();
+                        solver.addPointsTo(pointer, pts);
+                    }
+                }
+            }
+            for (int e = 0; e < restoredEdges.length; ++e) {
+                FlowEdge edge = state.flowEdges.get(e);
+                if (restoredEdges[e] && !isSubset(edge.source(), edge.target())) {
+                    propagate(getPointer(edge.source()).getOutEdges(),
+                            getPointer(edge.target()));
+                }
+            }
+            oldEdges.forEach(edge -> propagate(List.of(edge), edge.target()));
+            enqueueCallsToChangedMethods();
+        }
+
+        private boolean isRestorableMethod(int method) {
+            return !changed[method] && !retractor.isDeadMethod(method);
+        }
+
+        /**
+         * @return whether the pointer exists in current program and
+         * is not retracted as a whole.
+         */
+        private boolean isRestorablePointer(int pointer) {
+            PointerInfo info = state.pointers.get(pointer);
+            return (info.kind() != SolverState.VAR || isRestorableMethod(info.base()))
+                    && getPointer(pointer) != null;
+        }
+
+        /**
+         * @return whether the pointer flow edge can be restored directly,
+         * i.e., it is not deleted, it is derived from the statements of
+         * restorable methods, and its transfer function can be recovered.
+         */
+        private boolean isRestorableEdge(int edge) {
+            FlowEdge e = state.flowEdges.get(edge);
+            boolean knownKind = switch (e.kind()) {
+                case LOCAL_ASSIGN, STATIC_LOAD, STATIC_STORE,
+                        INSTANCE_LOAD, INSTANCE_STORE, ARRAY_LOAD, ARRAY_STORE,
+                        PARAMETER_PASSING, RETURN -> true;
+                // cast edges are restored when the cast statements are processed
+                default -> false;
+            };
+            return knownKind && !retractor.isDeletedEdge(edge)
+                    && isRestorablePointer(e.source())
+                    && isRestorablePointer(e.target());
+        }
+
+        private boolean isRestorableCall(int call) {
+            CallEdge c = state.callEdges.get(call);
+            return !retractor.isDeletedCall(call)
+                    && isRestorableMethod(c.caller())
+                    && isRestorableMethod(c.callee())
+                    && resolveCallSite(c) != null;
+        }
+
+        /**
+         * Finds the kept facts whose consequences are not restored.
+         */
+        private void findBoundary(boolean[] restoredEdges, boolean[] restoredCalls) {
+            for (int e = 0; e < restoredEdges.length; ++e) {
+                FlowEdge edge = state.flowEdges.get(e);
+                if (!restoredEdges[e] && isFieldEdge(edge.kind())) {
+                    int obj = retractor.getBaseObj(edge);
+                    for (int base : edge.premises()) {
+                        addBoundary(base, obj);
+                    }
+                }
+            }
+            for (int c = 0; c < restoredCalls.length; ++c) {
+                CallEdge call = state.callEdges.get(c);
+                if (call.receiver() < 0) {
+                    continue;
+                }
+                for (int obj : call.supports()) {
+                    // the receiver object must also be passed to this variable
+                    if (!restoredCalls[c] || call.thisVar() < 0
+                            || !kept[call.thisVar()].get(obj)) {
+                        addBoundary(call.receiver(), obj);
+                    }
+                }
+            }
+        }
+
+        private boolean isFieldEdge(FlowKind kind) {
+            return kind == FlowKind.INSTANCE_LOAD || kind == FlowKind.INSTANCE_STORE
+                    || kind == FlowKind.ARRAY_LOAD || kind == FlowKind.ARRAY_STORE;
+        }
+
+        private void addBoundary(int pointer, int obj) {
+            if (kept[pointer].get(obj)) {
+                boundary[pointer].set(obj);
+            }
+        }
+
+        /**
+         * Restores the kept facts which are not on the boundary.
+         *
+         * @return the variables whose points-to sets are restored.
+         */
+        private List<CSVar> restorePointsToSets() {
+            List<CSVar> restoredVars = new ArrayList<>();
+            for (int p = 0; p < kept.length; ++p) {
+                IBitSet objIds = kept[p];
+                if (objIds.isEmpty() || !isRestorablePointer(p)) {
+                    continue;
+                }
+                Pointer pointer = getPointer(p);
+                PointsToSet pts = solver.getPointsToSetOf(pointer);
+                for (int o = objIds.nextSetBit(0); o >= 0; o = objIds.nextSetBit(o + 1)) {
+                    if (!boundary[p].get(o)) {
+                        CSObj csObj = resolveCSObj(o);
+                        if (csObj != null && pts.addObject(csObj)) {
+                            ++nRestored;
+                        }
+                    }
+                }
+                if (pointer instanceof CSVar csVar && !pts.isEmpty()) {
+                    restoredVars.add(csVar);
+                }
+            }
+            return restoredVars;
+        }
+
+        private void restorePFGEdges(boolean[] restoredEdges) {
+            for (int e = 0; e < restoredEdges.length; ++e) {
+                if (restoredEdges[e]) {
+                    FlowEdge edge = state.flowEdges.get(e);
+                    Pointer target = getPointer(edge.target());
+                    Transfer transfer = edge.kind() == FlowKind.ARRAY_STORE
+                            // array stores are guarded by the type of array elements
+                            ? new TypeFilter(((ArrayIndex) target).getType(), solver)
+                            : Identity.get();
+                    solver.restorePFGEdge(getPointer(edge.source()), target,
+                            edge.kind(), transfer);
+                }
+            }
+        }
+
+        private List<Edge<CSCallSite, CSMethod>> restoreCallEdges(boolean[] restoredCalls) {
+            List<Edge<CSCallSite, CSMethod>> calls = new ArrayList<>();
+            for (int c = 0; c < restoredCalls.length; ++c) {
+                if (restoredCalls[c]) {
+                    Edge<CSCallSite, CSMethod> edge = makeCallEdge(state.callEdges.get(c));
+                    if (solver.restoreCallEdge(edge)) {
+                        calls.add(edge);
+                    }
+                }
+            }
+            return calls;
+        }
+
+        /**
+         * Adds the kept call edges whose callees are changed to the work
+         * list, so that the changed callees are processed by the solver.
+         */
+        private void enqueueCallsToChangedMethods() {
+            for (int c = 0; c < state.callEdges.size(); ++c) {
+                CallEdge call = state.callEdges.get(c);
+                if (!retractor.isDeletedCall(c)
+                        && isRestorableMethod(call.caller())
+                        && !isRestorableMethod(call.callee())
+                        && methods[call.callee()] != null
+                        && resolveCallSite(call) != null) {
+                    solver.addCallEdge(makeCallEdge(call));
+                }
+            }
+        }
+
+        private Edge<CSCallSite, CSMethod> makeCallEdge(CallEdge call) {
+            Invoke callSite = resolveCallSite(call);
+            return new Edge<>(CallGraphs.getCallKind(callSite),
+                    csManager.getCSCallSite(emptyContext, callSite),
+                    csManager.getCSMethod(emptyContext, methods[call.callee()]));
+        }
+
+        /**
+         * Adds the restorable reachable methods to the solver. As the
+         * effects of their statements are mostly restored, processing
+         * the statements only adds the facts that are not persisted
+         * (e.g., cast edges and mock objects) or retracted.
+         */
+        private void restoreReachableMethods() {
+            List<MethodInfo> infos = state.methods;
+            for (int m = 0; m < infos.size(); ++m) {
+                if (infos.get(m).reachable() && isRestorableMethod(m)) {
+                    solver.addCSMethod(csManager.getCSMethod(emptyContext, methods[m]));
+                }
+            }
+        }
+
+        /**
+         * Notifies plugins of the restored call edges and points-to sets.
+         */
+        private void notifyPlugin(List<Edge<CSCallSite, CSMethod>> calls,
+                                  List<CSVar> restoredVars) {
+            calls.forEach(plugin::onNewCallEdge);
+            for (CSVar csVar : restoredVars) {
+                PointsToSet pts = solver.getPointsToSetOf(csVar).copy();
+                for (Invoke callSite : csVar.getVar().getInvokes()) {
+                    pts.forEach(recvObj -> {
+                        if (CallGraphs.resolveCallee(
+                                recvObj.getObject().getType(), callSite) == null) {
+                            plugin.onUnresolvedCall(recvObj, emptyContext, callSite);
+                        }
+                    });
+                }
+                plugin.onNewPointsToSet(csVar, pts);
+            }
+        }
+
+        /**
+         * @return whether the restored facts of {@code source} are all
+         * restored to {@code target}.
+         */
+        private boolean isSubset(int source, int target) {
+            IBitSet diff = kept[source].copy();
+            diff.andNot(boundary[source]);
+            diff.andNot(kept[target]);
+            return diff.isEmpty();
+        }
+
+        /**
+         * Adds the points-to sets flowing along given edges to
+         * {@code target} via the work list, if they are not
+         * in the points-to set of {@code target}.
+         */
+        private void propagate(Collection<PointerFlowEdge> edges, Pointer target) {
+            PointsToSet targetSet = solver.getPointsToSetOf(target);
+            for (PointerFlowEdge edge : edges) {
+                if (!edge.target().equals(target)) {
+                    continue;
+                }
+                PointsToSet sourceSet = solver.getPointsToSetOf(edge.source());
+                if (sourceSet.isEmpty()) {
+                    continue;
+                }
+                edge.getTransfers().forEach(transfer -> {
+                    PointsToSet pts = transfer.apply(edge, sourceSet);
+                    if (!pts.objects().allMatch(targetSet::contains)) {
+                        solver.addPointsTo(target, pts);
+                    }
+                });
+            }
+        }
+
+        private PointsToSet toPointsToSet(IBitSet objIds) {
+            PointsToSet pts = solver.makePointsToSet();
+            for (int o = objIds.nextSetBit(0); o >= 0; o = objIds.nextSetBit(o + 1)) {
+                CSObj csObj = resolveCSObj(o);
+                if (csObj != null) {
+                    pts.addObject(csObj);
+                }
+            }
+            return pts;
+        }
+
+        private Pointer getPointer(int id) {
+            if (!resolved[id]) {
+                pointers[id] = resolvePointer(state.pointers.get(id));
+                resolved[id] = true;
+            }
+            return pointers[id];
+        }
+
+        @Nullable
+        private Invoke resolveCallSite(CallEdge call) {
+            JMethod caller = methods[call.caller()];
+            if (caller != null && call.callSite() >= 0) {
+                List<Stmt> stmts = caller.getIR().getStmts();
+                if (call.callSite() < stmts.size()
+                        && stmts.get(call.callSite()) instanceof Invoke invoke) {
+                    return invoke;
+                }
+            }
+            return null;
+        }
+
+        private Pointer resolvePointer(PointerInfo info) {
+            switch (info.kind()) {
+                case SolverState.VAR -> {
+                    JMethod method = methods[info.base()];
+                    Var var = method == null ? null : vars.computeIfAbsent(method, m -> {
+                        Map<String, Var> map = Maps.newMap();
+                        m.getIR().getVars().forEach(v -> map.put(v.getName(), v));
+                        return map;
+                    }).get(info.name());
+                    return var == null ? null : csManager.getCSVar(emptyContext, var);
+                }
+                case SolverState.STATIC_FIELD -> {
+                    JField field = solver.getHierarchy().getField(info.name());
+                    return field == null ? null : csManager.getStaticField(field);
+                }
+                case SolverState.INSTANCE_FIELD -> {
+                    JField field = solver.getHierarchy().getField(info.name());
+                    CSObj base = resolveCSObj(info.base());
+                    return field == null || base == null ? null
+                            : csManager.getInstanceField(base, field);
+                }
+                case SolverState.ARRAY_INDEX -> {
+                    CSObj array = resolveCSObj(info.base());
+                    return array == null ? null : csManager.getArrayIndex(array);
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        private CSObj resolveCSObj(int id) {
+            Obj obj = objs[id];
+            if (obj == null) {
+                obj = resolveObj(state.objs.get(id));
+                objs[id] = obj;
+            }
+            return obj == null ? null : csManager.getCSObj(emptyContext, obj);
+        }
+
+        private Obj resolveObj(ObjInfo info) {
+            HeapModel heapModel = solver.getHeapModel();
+            switch (info.kind()) {
+                case SolverState.NEW_OBJ -> {
+                    JMethod method = methods[info.method()];
+                    if (method != null) {
+                        List<Stmt> stmts = method.getIR().getStmts();
+                        if (info.stmt() < stmts.size()
+                                && stmts.get(info.stmt()) instanceof New newStmt) {
+                            return heapModel.getObj(newStmt);
+                        }
+                    }
+                    return null;
+                }
+                case SolverState.STRING_OBJ -> {
+                    return heapModel.getConstantObj(StringLiteral.get(info.value()));
+                }
+                case SolverState.CLASS_OBJ -> {
+                    return heapModel.getConstantObj(ClassLiteral.get(
+                            solver.getTypeSystem().getType(info.value())));
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,607 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.ConstantObj;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Context-insensitive solver state persisted by incremental analysis.
+ * The state refers to the program elements by their names (e.g., signatures
+ * of methods and fields, names of variables, and indexes of allocation sites),
+ * so that it can be mapped to the world built in later runs.
+ * <p>
+ * Besides the points-to sets, the state keeps the dependencies among
+ * the points-to relations, i.e., the pointer flow graph, the call graph,
+ * and the premises of pointer flow edges, which are used by
+ * {@link FactRetractor} to retract the facts affected by code changes.
+ */
+final class SolverState {
+
+    private static final int MAGIC = 0x7A1E_14C5;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Kinds of objects.
+     */
+    static final int NEW_OBJ = 0, STRING_OBJ = 1, CLASS_OBJ = 2, OPAQUE_OBJ = 3;
+
+    /**
+     * Kinds of pointers.
+     */
+    static final int VAR = 0, STATIC_FIELD = 1, INSTANCE_FIELD = 2,
+            ARRAY_INDEX = 3, OPAQUE_POINTER = 4;
+
+    /**
+     * @param fingerprint fingerprint of method body, see {@link Fingerprints}
+     * @param root        whether the method is reachable without call edges,
+     *                    i.e., it is an entry method, a class initializer,
+     *                    or a method added by plugins
+     * @param extended    whether the method body is extended or ignored by plugins
+     */
+    record MethodInfo(String signature, long fingerprint,
+                      boolean reachable, boolean root, boolean extended) {
+    }
+
+    /**
+     * @param method for {@link #NEW_OBJ}, the method containing the allocation site
+     * @param stmt   for {@link #NEW_OBJ}, the index of the allocation site
+     * @param value  for {@link #STRING_OBJ} and {@link #CLASS_OBJ},
+     *               the value of the constant
+     */
+    record ObjInfo(int kind, int method, int stmt, String value) {
+    }
+
+    /**
+     * @param base    for {@link #VAR}, the method declaring the variable;
+     *                for {@link #INSTANCE_FIELD} and {@link #ARRAY_INDEX},
+     *                the base object
+     * @param name    name of the variable or signature of the field
+     * @param touched whether the points-to set is changed by plugins
+     * @param pts     objects pointed to by the pointer
+     */
+    record PointerInfo(int kind, int base, String name,
+                       boolean touched, int[] pts) {
+    }
+
+    /**
+     * @param kind     kind of the edge, {@link FlowKind#OTHER} if the edge
+     *                 is added by plugins
+     * @param premises for load/store edges, the base variables (pointers)
+     *                 whose points-to sets introduce the edge; for parameter
+     *                 passing and return edges, the call edges that
+     *                 introduce the edge
+     */
+    record FlowEdge(int source, int target, FlowKind kind, int[] premises) {
+    }
+
+    /**
+     * @param caller   the method containing the call site
+     * @param callSite index of the call site
+     * @param derived  whether the edge is derived by the solver (instead of plugins)
+     * @param receiver the receiver variable (pointer), -1 for static calls
+     * @param thisVar  <i>this</i> variable (pointer) of the callee, -1 if absent
+     * @param supports receiver objects which are dispatched to the callee
+     */
+    record CallEdge(int caller, int callSite, int callee, boolean derived,
+                    int receiver, int thisVar, int[] supports) {
+    }
+
+    final String optionsKey;
+
+    final Map<String, Long> classFingerprints;
+
+    final List<MethodInfo> methods;
+
+    final List<ObjInfo> objs;
+
+    final List<PointerInfo> pointers;
+
+    final List<FlowEdge> flowEdges;
+
+    final List<CallEdge> callEdges;
+
+    private SolverState(String optionsKey, Map<String, Long> classFingerprints,
+                        List<MethodInfo> methods, List<ObjInfo> objs,
+                        List<PointerInfo> pointers, List<FlowEdge> flowEdges,
+                        List<CallEdge> callEdges) {
+        this.optionsKey = optionsKey;
+        this.classFingerprints = classFingerprints;
+        this.methods = methods;
+        this.objs = objs;
+        this.pointers = pointers;
+        this.flowEdges = flowEdges;
+        this.callEdges = callEdges;
+    }
+
+    /**
+     * @return fingerprints of the declarations of all classes in current world.
+     */
+    static Map<String, Long> computeClassFingerprints() {
+        Map<String, Long> fingerprints = Maps.newMap();
+        World.get().getClassHierarchy().allClasses().forEach(c ->
+                fingerprints.put(c.getName(), Fingerprints.ofClass(c)));
+        return fingerprints;
+    }
+
+    /**
+     * Captures the state of given solver, which has finished solving.
+     */
+    static SolverState capture(Solver solver, TrackingSolver tracker,
+                               String optionsKey) {
+        return new Capturer(solver, tracker).capture(optionsKey);
+    }
+
+    private static class Capturer {
+
+        private final Solver solver;
+
+        private final TrackingSolver tracker;
+
+        private final CSManager csManager;
+
+        private final Map<JMethod, Integer> methodIds = Maps.newMap();
+
+        private final List<MethodInfo> methods = new ArrayList<>();
+
+        private final Map<Obj, Integer> objIds = Maps.newMap();
+
+        private final List<ObjInfo> objs = new ArrayList<>();
+
+        private final Map<Pointer, Integer> pointerIds = Maps.newMap();
+
+        private final List<PointerInfo> pointers = new ArrayList<>();
+
+        private final Map<Pair<Integer, Integer>, Integer> edgeIds = Maps.newMap();
+
+        private final List<FlowEdge> flowEdges = new ArrayList<>();
+
+        private final List<List<Integer>> edgePremises = new ArrayList<>();
+
+        private final List<CallEdge> callEdges = new ArrayList<>();
+
+        private Capturer(Solver solver, TrackingSolver tracker) {
+            this.solver = solver;
+            this.tracker = tracker;
+            this.csManager = solver.getCSManager();
+        }
+
+        private SolverState capture(String optionsKey) {
+            solver.getCallGraph().reachableMethods()
+                    .map(CSMethod::getMethod)
+                    .distinct()
+                    .forEach(m -> getMethodId(m, true));
+            csManager.pointers().toList().forEach(this::getPointerId);
+            captureFlowEdges();
+            captureFieldPremises();
+            captureCallEdges();
+            List<FlowEdge> edges = new ArrayList<>(flowEdges.size());
+            for (int i = 0; i < flowEdges.size(); ++i) {
+                FlowEdge e = flowEdges.get(i);
+                edges.add(new FlowEdge(e.source(), e.target(), e.kind(),
+                        toArray(edgePremises.get(i))));
+            }
+            return new SolverState(optionsKey, computeClassFingerprints(),
+                    methods, objs, pointers, edges, callEdges);
+        }
+
+        private int getMethodId(JMethod method, boolean reachable) {
+            Integer id = methodIds.get(method);
+            if (id == null) {
+                id = methods.size();
+                methodIds.put(method, id);
+                methods.add(new MethodInfo(method.getSignature(),
+                        reachable ? Fingerprints.ofMethod(method) : 0,
+                        reachable,
+                        tracker.getRootMethods().contains(method)
+                                || method.isStaticInitializer(),
+                        tracker.getExtendedMethods().contains(method)));
+            }
+            return id;
+        }
+
+        private int getObjId(Obj obj) {
+            Integer id = objIds.get(obj);
+            if (id == null) {
+                ObjInfo info;
+                if (obj instanceof NewObj newObj) {
+                    JMethod container = newObj.getAllocation().getContainer();
+                    info = new ObjInfo(NEW_OBJ, getMethodId(container, false),
+                            newObj.getAllocation().getIndex(), null);
+                } else if (obj instanceof ConstantObj constObj
+                        && constObj.getAllocation() instanceof StringLiteral s) {
+                    info = new ObjInfo(STRING_OBJ, -1, -1, s.getString());
+                } else if (obj instanceof ConstantObj constObj
+                        && constObj.getAllocation() instanceof ClassLiteral c) {
+                    info = new ObjInfo(CLASS_OBJ, -1, -1, c.getTypeValue().getName());
+                } else {
+                    info = new ObjInfo(OPAQUE_OBJ, -1, -1, null);
+                }
+                id = objs.size();
+                objIds.put(obj, id);
+                objs.add(info);
+            }
+            return id;
+        }
+
+        private int getPointerId(Pointer pointer) {
+            Integer id = pointerIds.get(pointer);
+            if (id == null) {
+                PointerInfo info;
+                if (pointer instanceof CSVar csVar) {
+                    Var var = csVar.getVar();
+                    JMethod method = var.getMethod();
+                    IR ir = method.getIR();
+                    int index = var.getIndex();
+                    // variables created by plugins are not in IR
+                    boolean inIR = index >= 0 && index < ir.getVars().size()
+                            && ir.getVar(index) == var;
+                    info = inIR ? new PointerInfo(VAR, getMethodId(method, false),
+                            var.getName(), false, null) : null;
+                } else if (pointer instanceof StaticField sf) {
+                    info = new PointerInfo(STATIC_FIELD, -1,
+                            sf.getField().getSignature(), false, null);
+                } else if (pointer instanceof InstanceField iField) {
+                    info = new PointerInfo(INSTANCE_FIELD,
+                            getObjId(iField.getBase().getObject()),
+                            iField.getField().getSignature(), false, null);
+                } else if (pointer instanceof ArrayIndex arrayIndex) {
+                    info = new PointerInfo(ARRAY_INDEX,
+                            getObjId(arrayIndex.getArray().getObject()),
+                            null, false, null);
+                } else {
+                    info = null;
+                }
+                if (info == null) {
+                    info = new PointerInfo(OPAQUE_POINTER, -1, null, false, null);
+                }
+                PointsToSet pts = pointer.getPointsToSet();
+                int[] objs = pts == null ? new int[0] : pts.objects()
+                        .mapToInt(o -> getObjId(o.getObject()))
+                        .toArray();
+                id = pointers.size();
+                pointerIds.put(pointer, id);
+                pointers.add(new PointerInfo(info.kind(), info.base(), info.name(),
+                        tracker.getTouchedPointers().contains(pointer), objs));
+            }
+            return id;
+        }
+
+        private void captureFlowEdges() {
+            Set<Pair<Pointer, Pointer>> pluginEdges = tracker.getPFGEdges();
+            csManager.pointers().toList().forEach(source ->
+                    source.getOutEdges().forEach(edge -> {
+                        Pointer target = edge.target();
+                        FlowKind kind = pluginEdges.contains(new Pair<>(source, target))
+                                ? FlowKind.OTHER : edge.kind();
+                        int s = getPointerId(source), t = getPointerId(target);
+                        edgeIds.put(new Pair<>(s, t), flowEdges.size());
+                        flowEdges.add(new FlowEdge(s, t, kind, null));
+                        edgePremises.add(new ArrayList<>());
+                    }));
+        }
+
+        /**
+         * Adds premise to the edge from source to target, if such edge exists.
+         */
+        private void addPremise(Pointer source, Pointer target, int premise) {
+            Integer s = pointerIds.get(source), t = pointerIds.get(target);
+            if (s != null && t != null) {
+                Integer edge = edgeIds.get(new Pair<>(s, t));
+                if (edge != null) {
+                    edgePremises.get(edge).add(premise);
+                }
+            }
+        }
+
+        /**
+         * Captures the base variables of instance field and array edges.
+         */
+        private void captureFieldPremises() {
+            for (CSVar base : List.copyOf(csManager.getCSVars())) {
+                PointsToSet pts = base.getPointsToSet();
+                Integer baseId = pointerIds.get(base);
+                if (pts == null || baseId == null) {
+                    continue;
+                }
+                Context ctx = base.getContext();
+                Var var = base.getVar();
+                List<CSObj> objs = pts.objects()
+                        .filter(o -> o.getObject().isFunctional())
+                        .toList();
+                for (LoadField load : var.getLoadFields()) {
+                    JField field = load.getFieldRef().resolveNullable();
+                    CSVar to = csManager.getCSVar(ctx, load.getLValue());
+                    if (field != null) {
+                        objs.forEach(o -> addPremise(
+                                csManager.getInstanceField(o, field), to, baseId));
+                    }
+                }
+                for (StoreField store : var.getStoreFields()) {
+                    JField field = store.getFieldRef().resolveNullable();
+                    CSVar from = csManager.getCSVar(ctx, store.getRValue());
+                    if (field != null) {
+                        objs.forEach(o -> addPremise(
+                                from, csManager.getInstanceField(o, field), baseId));
+                    }
+                }
+                for (LoadArray load : var.getLoadArrays()) {
+                    CSVar to = csManager.getCSVar(ctx, load.getLValue());
+                    objs.forEach(o -> addPremise(
+                            csManager.getArrayIndex(o), to, baseId));
+                }
+                for (StoreArray store : var.getStoreArrays()) {
+                    CSVar from = csManager.getCSVar(ctx, store.getRValue());
+                    objs.forEach(o -> addPremise(
+                            from, csManager.getArrayIndex(o), baseId));
+                }
+            }
+        }
+
+        private void captureCallEdges() {
+            Set<Edge<CSCallSite, CSMethod>> pluginEdges = tracker.getCallEdges();
+            solver.getCallGraph().edges().toList().forEach(edge -> {
+                int id = callEdges.size();
+                Context callerCtx = edge.getCallSite().getContext();
+                Invoke callSite = edge.getCallSite().getCallSite();
+                Context calleeCtx = edge.getCallee().getContext();
+                JMethod callee = edge.getCallee().getMethod();
+                InvokeExp invokeExp = callSite.getInvokeExp();
+                boolean derived = edge.getKind() != CallKind.OTHER
+                        && !pluginEdges.contains(edge);
+                int receiver = -1;
+                int[] supports = new int[0];
+                if (invokeExp instanceof InvokeInstanceExp instanceExp) {
+                    CSVar recv = csManager.getCSVar(callerCtx, instanceExp.getBase());
+                    receiver = pointerIds.getOrDefault(recv, -1);
+                    PointsToSet pts = recv.getPointsToSet();
+                    if (pts != null) {
+                        supports = pts.objects()
+                                .map(CSObj::getObject)
+                                .filter(o -> CallGraphs.resolveCallee(
+                                        o.getType(), callSite) == callee)
+                                .mapToInt(this::getObjId)
+                                .toArray();
+                    }
+                }
+                int thisVar = -1;
+                if (!callee.isAbstract()) {
+                    IR calleeIR = callee.getIR();
+                    if (!callee.isStatic()) {
+                        thisVar = pointerIds.getOrDefault(
+                                csManager.getCSVar(calleeCtx, calleeIR.getThis()), -1);
+                    }
+                    if (edge.getKind() != CallKind.OTHER) {
+                        // parameter passing and return edges
+                        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                            addPremise(csManager.getCSVar(callerCtx, invokeExp.getArg(i)),
+                                    csManager.getCSVar(calleeCtx, calleeIR.getParam(i)), id);
+                        }
+                        Var lhs = callSite.getResult();
+                        if (lhs != null) {
+                            CSVar csLHS = csManager.getCSVar(callerCtx, lhs);
+                            for (Var ret : calleeIR.getReturnVars()) {
+                                addPremise(csManager.getCSVar(calleeCtx, ret), csLHS, id);
+                            }
+                        }
+                    }
+                }
+                callEdges.add(new CallEdge(
+                        getMethodId(callSite.getContainer(), false),
+                        callSite.getIndex(), getMethodId(callee, false),
+                        derived, receiver, thisVar, supports));
+            });
+        }
+
+        private static int[] toArray(Collection<Integer> c) {
+            return c.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Writes this state to given file.
+     */
+    void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(optionsKey);
+            out.writeInt(classFingerprints.size());
+            for (var e : classFingerprints.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+            out.writeInt(methods.size());
+            for (MethodInfo m : methods) {
+                out.writeUTF(m.signature());
+                out.writeLong(m.fingerprint());
+                out.writeBoolean(m.reachable());
+                out.writeBoolean(m.root());
+                out.writeBoolean(m.extended());
+            }
+            out.writeInt(objs.size());
+            for (ObjInfo o : objs) {
+                out.writeByte(o.kind());
+                out.writeInt(o.method());
+                out.writeInt(o.stmt());
+                writeNullableUTF(out, o.value());
+            }
+            out.writeInt(pointers.size());
+            for (PointerInfo p : pointers) {
+                out.writeByte(p.kind());
+                out.writeInt(p.base());
+                writeNullableUTF(out, p.name());
+                out.writeBoolean(p.touched());
+                writeInts(out, p.pts());
+            }
+            out.writeInt(flowEdges.size());
+            for (FlowEdge e : flowEdges) {
+                out.writeInt(e.source());
+                out.writeInt(e.target());
+                out.writeByte(e.kind().ordinal());
+                writeInts(out, e.premises());
+            }
+            out.writeInt(callEdges.size());
+            for (CallEdge e : callEdges) {
+                out.writeInt(e.caller());
+                out.writeInt(e.callSite());
+                out.writeInt(e.callee());
+                out.writeBoolean(e.derived());
+                out.writeInt(e.receiver());
+                out.writeInt(e.thisVar());
+                writeInts(out, e.supports());
+            }
+        }
+    }
+
+    /**
+     * Reads the state from given file.
+     */
+    static SolverState read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new StreamCorruptedException(
+                        "Unrecognized solver state: " + file);
+            }
+            String optionsKey = in.readUTF();
+            int nClasses = in.readInt();
+            Map<String, Long> classFingerprints = Maps.newMap(nClasses);
+            for (int i = 0; i < nClasses; ++i) {
+                classFingerprints.put(in.readUTF(), in.readLong());
+            }
+            int nMethods = in.readInt();
+            List<MethodInfo> methods = new ArrayList<>(nMethods);
+            for (int i = 0; i < nMethods; ++i) {
+                methods.add(new MethodInfo(in.readUTF(), in.readLong(),
+                        in.readBoolean(), in.readBoolean(), in.readBoolean()));
+            }
+            int nObjs = in.readInt();
+            List<ObjInfo> objs = new ArrayList<>(nObjs);
+            for (int i = 0; i < nObjs; ++i) {
+                objs.add(new ObjInfo(in.readByte(), in.readInt(),
+                        in.readInt(), readNullableUTF(in)));
+            }
+            int nPointers = in.readInt();
+            List<PointerInfo> pointers = new ArrayList<>(nPointers);
+            for (int i = 0; i < nPointers; ++i) {
+                pointers.add(new PointerInfo(in.readByte(), in.readInt(),
+                        readNullableUTF(in), in.readBoolean(), readInts(in)));
+            }
+            FlowKind[] kinds = FlowKind.values();
+            int nFlowEdges = in.readInt();
+            List<FlowEdge> flowEdges = new ArrayList<>(nFlowEdges);
+            for (int i = 0; i < nFlowEdges; ++i) {
+                flowEdges.add(new FlowEdge(in.readInt(), in.readInt(),
+                        kinds[in.readByte()], readInts(in)));
+            }
+            int nCallEdges = in.readInt();
+            List<CallEdge> callEdges = new ArrayList<>(nCallEdges);
+            for (int i = 0; i < nCallEdges; ++i) {
+                callEdges.add(new CallEdge(in.readInt(), in.readInt(),
+                        in.readInt(), in.readBoolean(), in.readInt(),
+                        in.readInt(), readInts(in)));
+            }
+            return new SolverState(optionsKey, classFingerprints,
+                    methods, objs, pointers, flowEdges, callEdges);
+        }
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String s)
+            throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] ints)
+            throws IOException {
+        out.writeInt(ints.length);
+        for (int i : ints) {
+            out.writeInt(i);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] ints = new int[in.readInt()];
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = in.readInt();
+        }
+        return ints;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.EntryPoint;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.core.solver.Transfer;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Solver seen by plugins in incremental mode. It forwards all calls
+ * to the actual solver, and records the effects of plugins on the solver,
+ * i.e., the points-to relations, pointer flow edges, call edges, and methods
+ * that are introduced by plugins. The incremental analysis does not know
+ * how plugins derive these effects, thus it never reuses them in later runs.
+ */
+class TrackingSolver implements Solver {
+
+    private final Solver solver;
+
+    /**
+     * Pointers whose points-to sets are changed or filtered by plugins.
+     */
+    private final Set<Pointer> touchedPointers = Sets.newSet();
+
+    /**
+     * Pointer flow edges (i.e., pairs of source and target) added by plugins.
+     */
+    private final Set<Pair<Pointer, Pointer>> pfgEdges = Sets.newSet();
+
+    private final Set<Edge<CSCallSite, CSMethod>> callEdges = Sets.newSet();
+
+    /**
+     * Methods whose bodies are extended or ignored by plugins.
+     */
+    private final Set<JMethod> extendedMethods = Sets.newSet();
+
+    /**
+     * Methods made reachable without call edges, i.e., entry methods
+     * and the methods added by plugins directly.
+     */
+    private final Set<JMethod> rootMethods = Sets.newSet();
+
+    TrackingSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    Set<Pointer> getTouchedPointers() {
+        return touchedPointers;
+    }
+
+    Set<Pair<Pointer, Pointer>> getPFGEdges() {
+        return pfgEdges;
+    }
+
+    Set<Edge<CSCallSite, CSMethod>> getCallEdges() {
+        return callEdges;
+    }
+
+    Set<JMethod> getExtendedMethods() {
+        return extendedMethods;
+    }
+
+    Set<JMethod> getRootMethods() {
+        return rootMethods;
+    }
+
+    @Override
+    public AnalysisOptions getOptions() {
+        return solver.getOptions();
+    }
+
+    @Override
+    public ClassHierarchy getHierarchy() {
+        return solver.getHierarchy();
+    }
+
+    @Override
+    public TypeSystem getTypeSystem() {
+        return solver.getTypeSystem();
+    }
+
+    @Override
+    public HeapModel getHeapModel() {
+        return solver.getHeapModel();
+    }
+
+    @Override
+    public CSManager getCSManager() {
+        return solver.getCSManager();
+    }
+
+    @Override
+    public ContextSelector getContextSelector() {
+        return solver.getContextSelector();
+    }
+
+    @Override
+    public CallGraph<CSCallSite, CSMethod> getCallGraph() {
+        return solver.getCallGraph();
+    }
+
+    @Override
+    public PointsToSet getPointsToSetOf(Pointer pointer) {
+        return solver.getPointsToSetOf(pointer);
+    }
+
+    @Override
+    public PointsToSet makePointsToSet() {
+        return solver.makePointsToSet();
+    }
+
+    @Override
+    public void setPlugin(Plugin plugin) {
+        solver.setPlugin(plugin);
+    }
+
+    @Override
+    public void solve() {
+        solver.solve();
+    }
+
+    @Override
+    public void addPointsTo(Pointer pointer, PointsToSet pts) {
+        touchedPointers.add(pointer);
+        solver.addPointsTo(pointer, pts);
+    }
+
+    @Override
+    public void addPointsTo(Pointer pointer, CSObj csObj) {
+        touchedPointers.add(pointer);
+        solver.addPointsTo(pointer, csObj);
+    }
+
+    @Override
+    public void addPointsTo(Pointer pointer, Context heapContext, Obj obj) {
+        touchedPointers.add(pointer);
+        solver.addPointsTo(pointer, heapContext, obj);
+    }
+
+    @Override
+    public void addVarPointsTo(Context context, Var var, PointsToSet pts) {
+        addPointsTo(getCSManager().getCSVar(context, var), pts);
+    }
+
+    @Override
+    public void addVarPointsTo(Context context, Var var, CSObj csObj) {
+        addPointsTo(getCSManager().getCSVar(context, var), csObj);
+    }
+
+    @Override
+    public void addVarPointsTo(Context context, Var var, Context heapContext, Obj obj) {
+        addPointsTo(getCSManager().getCSVar(context, var), heapContext, obj);
+    }
+
+    @Override
+    public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        touchedPointers.add(pointer);
+        solver.addPointerFilter(pointer, filter);
+    }
+
+    @Override
+    public void addPFGEdge(Pointer source, Pointer target, FlowKind kind,
+                           Transfer transfer) {
+        pfgEdges.add(new Pair<>(source, target));
+        solver.addPFGEdge(source, target, kind, transfer);
+    }
+
+    @Override
+    public void addEntryPoint(EntryPoint entryPoint) {
+        JMethod method = entryPoint.method();
+        rootMethods.add(method);
+        // the objects passed to entry methods are given by parameter
+        // providers, thus the receiver and parameters are touched
+        IR ir = method.getIR();
+        Context context = getContextSelector().getEmptyContext();
+        if (ir.getThis() != null) {
+            touchedPointers.add(getCSManager().getCSVar(context, ir.getThis()));
+        }
+        ir.getParams().forEach(param ->
+                touchedPointers.add(getCSManager().getCSVar(context, param)));
+        solver.addEntryPoint(entryPoint);
+    }
+
+    @Override
+    public void addCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        callEdges.add(edge);
+        solver.addCallEdge(edge);
+    }
+
+    @Override
+    public void addCSMethod(CSMethod csMethod) {
+        rootMethods.add(csMethod.getMethod());
+        solver.addCSMethod(csMethod);
+    }
+
+    @Override
+    public void addStmts(CSMethod csMethod, Collection<Stmt> stmts) {
+        extendedMethods.add(csMethod.getMethod());
+        solver.addStmts(csMethod, stmts);
+    }
+
+    @Override
+    public void addIgnoredMethod(JMethod method) {
+        extendedMethods.add(method);
+        solver.addIgnoredMethod(method);
+    }
+
+    @Override
+    public void initializeClass(JClass cls) {
+        solver.initializeClass(cls);
+    }
+
+    @Override
+    public PointerAnalysisResult getResult() {
+        return solver.getResult();
+    }
+}
@@ -27,26 +27,55 @@ import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Handles sinks in taint analysis.
  */
-class SinkHandler extends Handler {
+class SinkHandler extends OnFlyHandler {
 
     private final List<Sink> sinks;
 
+    /**
+     * Map from a sink method to the sinks of the method.
+     */
+    private final MultiMap<JMethod, Sink> sinkMap;
+
+    /**
+     * Sink points at the reachable call sites that invoke sink methods
+     * (by their method references), which are collected on-the-fly
+     * in call-site mode.
+     */
+    private final List<SinkPoint> callSiteSinkPoints = new ArrayList<>();
+
     SinkHandler(HandlerContext context) {
         super(context);
         sinks = context.config().sinks();
+        sinkMap = sinks.stream()
+                .collect(MultiMapCollector.get(Sink::method, s -> s));
+    }
+
+    @Override
+    public void onNewStmt(Stmt stmt, JMethod container) {
+        if (callSiteMode &&
+                stmt instanceof Invoke invoke &&
+                !invoke.isDynamic()) {
+            JMethod callee = invoke.getMethodRef().resolveNullable();
+            if (callee != null) {
+                for (Sink sink : sinkMap.get(callee)) {
+                    callSiteSinkPoints.add(new SinkPoint(invoke, sink.index()));
+                }
+            }
+        }
     }
 
     Set<TaintFlow> collectTaintFlows() {
@@ -59,43 +88,24 @@ class SinkHandler extends Handler {
                     // TODO: handle other call edges
                     .filter(e -> e.getKind() != CallKind.OTHER)
                     .map(Edge::getCallSite)
-                    .forEach(sinkCall -> {
-                        Var arg = InvokeUtils.getVar(sinkCall, i);
-                        SinkPoint sinkPoint = new SinkPoint(sinkCall, i);
-                        result.getPointsToSet(arg)
-                                .stream()
-                                .filter(manager::isTaint)
-                                .map(manager::getSourcePoint)
-                                .map(sourcePoint -> new TaintFlow(sourcePoint, sinkPoint))
-                                .forEach(taintFlows::add);
-                    });
+                    .forEach(sinkCall -> collectTaintFlows(
+                            result, new SinkPoint(sinkCall, i), taintFlows));
         });
         if (callSiteMode) {
-            MultiMap<JMethod, Sink> sinkMap = sinks.stream()
-                    .collect(MultiMapCollector.get(Sink::method, s -> s));
-            // scan all reachable call sites to search sink calls
-            result.getCallGraph()
-                    .reachableMethods()
-                    .filter(m -> !m.isAbstract())
-                    .flatMap(m -> m.getIR().invokes(false))
-                    .forEach(callSite -> {
-                        JMethod callee = callSite.getMethodRef().resolveNullable();
-                        if (callee == null) {
-                            return;
-                        }
-                        for (Sink sink : sinkMap.get(callee)) {
-                            int i = sink.index();
-                            Var arg = InvokeUtils.getVar(callSite, i);
-                            SinkPoint sinkPoint = new SinkPoint(callSite, i);
-                            result.getPointsToSet(arg)
-                                    .stream()
-                                    .filter(manager::isTaint)
-                                    .map(manager::getSourcePoint)
-                                    .map(sourcePoint -> new TaintFlow(sourcePoint, sinkPoint))
-                                    .forEach(taintFlows::add);
-                        }
-                    });
+            callSiteSinkPoints.forEach(sinkPoint ->
+                    collectTaintFlows(result, sinkPoint, taintFlows));
         }
         return taintFlows;
     }
+
+    private void collectTaintFlows(PointerAnalysisResult result,
+                                   SinkPoint sinkPoint,
+                                   Set<TaintFlow> taintFlows) {
+        Var arg = InvokeUtils.getVar(sinkPoint.sinkCall(), sinkPoint.index());
+        manager.getTaintObjs(result.getPointsToSet(arg))
+                .stream()
+                .map(manager::getSourcePoint)
+                .map(sourcePoint -> new TaintFlow(sourcePoint, sinkPoint))
+                .forEach(taintFlows::add);
+    }
 }
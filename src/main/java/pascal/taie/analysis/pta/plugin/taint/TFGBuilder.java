@@ -24,21 +24,21 @@ package pascal.taie.analysis.pta.plugin.taint;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import pascal.taie.analysis.graph.flowgraph.ArrayIndexNode;
+import pascal.taie.analysis.graph.flowgraph.DemandObjectFlowGraph;
 import pascal.taie.analysis.graph.flowgraph.FlowEdge;
-import pascal.taie.analysis.graph.flowgraph.InstanceFieldNode;
 import pascal.taie.analysis.graph.flowgraph.InstanceNode;
 import pascal.taie.analysis.graph.flowgraph.Node;
-import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
 import pascal.taie.analysis.graph.flowgraph.VarNode;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.graph.Reachability;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -49,14 +49,19 @@ import java.util.Set;
 
 /**
  * Taint flow graph builder.
+ * <p>
+ * The builder explores the object flow graph on demand: it only computes
+ * the nodes and edges that are reachable from source nodes (along the edges
+ * that may carry taint objects), and then prunes the ones that cannot reach
+ * any sink node, instead of building the object flow graph of the whole
+ * program. The out-edges of the nodes at the same distance from source nodes
+ * are computed in parallel.
  */
 class TFGBuilder {
 
     private static final Logger logger = LogManager.getLogger(TFGBuilder.class);
 
-    private final PointerAnalysisResult pta;
-
-    private final ObjectFlowGraph ofg;
+    private final DemandObjectFlowGraph ofg;
 
     private final Set<TaintFlow> taintFlows;
 
@@ -78,18 +83,18 @@ class TFGBuilder {
     private Map<Node, Set<Obj>> node2TaintSet;
 
     TFGBuilder(PointerAnalysisResult pta,
+               CSManager csManager,
                Set<TaintFlow> taintFlows,
                TaintManager taintManager) {
-        this.pta = pta;
-        this.ofg = pta.getObjectFlowGraph();
+        this.ofg = new DemandObjectFlowGraph(csManager, pta.getCallGraph());
         this.taintFlows = taintFlows;
         this.taintManager = taintManager;
     }
 
     /**
-     * Builds a complete taint flow graph.
+     * Builds the taint flow graph that is reachable from source nodes.
      */
-    private TaintFlowGraph buildComplete() {
+    private TaintFlowGraph buildForward() {
         // collect source nodes
         Set<Node> sourceNodes = Sets.newHybridSet();
         taintManager.getTaintObjs()
@@ -107,7 +112,7 @@ class TFGBuilder {
                         sourceVar = fsp.loadField().getLValue();
                     }
                     if (sourceVar != null) {
-                        sourceNodes.add(ofg.getVarNode(sourceVar));
+                        sourceNodes.add(ofg.toVarNode(sourceVar));
                     }
                 });
         logger.info("Source nodes:");
@@ -117,28 +122,28 @@ class TFGBuilder {
         taintFlows.forEach(taintFlow -> {
             SinkPoint sinkPoint = taintFlow.sinkPoint();
             Var sinkVar = InvokeUtils.getVar(sinkPoint.sinkCall(), sinkPoint.index());
-            sinkNodes.add(ofg.getVarNode(sinkVar));
+            sinkNodes.add(ofg.toVarNode(sinkVar));
         });
         logger.info("Sink nodes:");
         sinkNodes.forEach(logger::info);
-        // builds taint flow graph
-        node2TaintSet = Maps.newMap();
+        // builds taint flow graph level by level, and the out-edges
+        // of the nodes in the same level are computed in parallel
+        node2TaintSet = Maps.newConcurrentMap();
         TaintFlowGraph tfg = new TaintFlowGraph(sourceNodes, sinkNodes);
-        Set<Node> visitedNodes = Sets.newSet();
-        Deque<Node> workList = new ArrayDeque<>(sourceNodes);
-        while (!workList.isEmpty()) {
-            Node node = workList.poll();
-            if (visitedNodes.add(node)) {
-                getOutEdges(node).forEach(edge -> {
-                    Node target = edge.target();
-                    if (!onlyApp || isApp(target)) {
-                        tfg.addEdge(edge);
-                        if (!visitedNodes.contains(target)) {
-                            workList.add(target);
-                        }
-                    }
-                });
-            }
+        Set<Node> visitedNodes = Sets.newSet(sourceNodes);
+        List<Node> frontier = new ArrayList<>(sourceNodes);
+        while (!frontier.isEmpty()) {
+            List<List<FlowEdge>> outEdges = frontier.parallelStream()
+                    .map(this::getOutEdges)
+                    .toList();
+            List<Node> nextFrontier = new ArrayList<>();
+            outEdges.forEach(edges -> edges.forEach(edge -> {
+                tfg.addEdge(edge);
+                if (visitedNodes.add(edge.target())) {
+                    nextFrontier.add(edge.target());
+                }
+            }));
+            frontier = nextFrontier;
         }
         node2TaintSet = null;
         return tfg;
@@ -149,6 +154,9 @@ class TFGBuilder {
         List<FlowEdge> edges = new ArrayList<>();
         // collect OFG edges
         ofg.getOutEdgesOf(source).forEach(edge -> {
+            if (onlyApp && !isApp(edge.target())) {
+                return;
+            }
             switch (edge.kind()) {
                 case LOCAL_ASSIGN, INSTANCE_STORE, ARRAY_STORE,
                         THIS_PASSING, PARAMETER_PASSING, OTHER -> {
@@ -168,57 +176,36 @@ class TFGBuilder {
     }
 
     private Set<Obj> getTaintSet(Node node) {
-        Set<Obj> taintSet = node2TaintSet.get(node);
-        if (taintSet == null) {
-            taintSet = getPointsToSet(node)
+        return node2TaintSet.computeIfAbsent(node, n -> {
+            Set<Obj> taintSet = ofg.getPointersOf(n)
                     .stream()
+                    .flatMap(Pointer::objects)
+                    .map(CSObj::getObject)
                     .filter(taintManager::isTaint)
                     .collect(Sets::newHybridSet, Set::add, Set::addAll);
-            if (taintSet.isEmpty()) {
-                taintSet = Set.of();
-            }
-            node2TaintSet.put(node, taintSet);
-        }
-        return taintSet;
-    }
-
-    private Set<Obj> getPointsToSet(Node node) {
-        if (node instanceof VarNode varNode) {
-            return pta.getPointsToSet(varNode.getVar());
-        } else if (node instanceof InstanceFieldNode ifNode) {
-            return pta.getPointsToSet(ifNode.getBase(), ifNode.getField());
-        } else if (node instanceof ArrayIndexNode aiNode) {
-            return pta.getPointsToSet(aiNode.getBase());
-        } else {
-            return Set.of();
-        }
+            return taintSet.isEmpty() ? Set.of() : taintSet;
+        });
     }
 
     TaintFlowGraph build() {
-        TaintFlowGraph complete = buildComplete();
-        Set<Node> sourceNodes = complete.getSourceNodes();
-        Set<Node> sinkNodes = complete.getSinkNodes();
-        TaintFlowGraph tfg = new TaintFlowGraph(sourceNodes, sinkNodes);
-        Set<Node> nodesReachSink = null;
-        if (onlyReachSink) {
-            nodesReachSink = Sets.newHybridSet();
-            Reachability<Node> reachability = new Reachability<>(complete);
-            for (Node sink : sinkNodes) {
-                nodesReachSink.addAll(reachability.nodesCanReach(sink));
-            }
+        TaintFlowGraph forward = buildForward();
+        if (!onlyReachSink) {
+            return forward;
         }
+        // keep the edges whose targets can reach any sink node,
+        // by traversing the forward graph backward from sink nodes
+        Set<Node> sinkNodes = forward.getSinkNodes();
+        TaintFlowGraph tfg = new TaintFlowGraph(
+                forward.getSourceNodes(), sinkNodes);
         Set<Node> visitedNodes = Sets.newSet();
-        Deque<Node> workList = new ArrayDeque<>(complete.getSourceNodes());
+        Deque<Node> workList = new ArrayDeque<>(sinkNodes);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
             if (visitedNodes.add(node)) {
-                for (FlowEdge edge : complete.getOutEdgesOf(node)) {
-                    Node target = edge.target();
-                    if (!onlyReachSink || nodesReachSink.contains(target)) {
-                        tfg.addEdge(edge);
-                        if (!visitedNodes.contains(target)) {
-                            workList.add(target);
-                        }
+                for (FlowEdge edge : forward.getInEdgesOf(node)) {
+                    tfg.addEdge(edge);
+                    if (!visitedNodes.contains(edge.source())) {
+                        workList.add(edge.source());
                     }
                 }
             }
@@ -69,8 +69,14 @@ public class TaintAnalysis implements Plugin {
                 new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
-        this.onFlyHandler = onFlyHandler;
         sinkHandler = new SinkHandler(context);
+        onFlyHandler.addPlugin(sinkHandler);
+        this.onFlyHandler = onFlyHandler;
+    }
+
+    @Override
+    public void onStart() {
+        onFlyHandler.onStart();
     }
 
     @Override
@@ -100,7 +106,8 @@ public class TaintAnalysis implements Plugin {
         logger.info("Detected {} taint flow(s):", taintFlows.size());
         taintFlows.forEach(logger::info);
         Timer.runAndCount(() -> new TFGDumper().dump(
-                        new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
+                        new TFGBuilder(solver.getResult(), solver.getCSManager(),
+                                taintFlows, manager).build(),
                         new File(World.get().getOptions().getOutputDir(), TAINT_FLOW_GRAPH_FILE)),
                 "TFGDumper");
     }
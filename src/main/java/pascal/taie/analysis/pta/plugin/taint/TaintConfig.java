@@ -59,12 +59,20 @@ import static pascal.taie.analysis.pta.plugin.taint.TransferPoint.ARRAY_SUFFIX;
 
 /**
  * Configuration for taint analysis.
+ *
+ * @param summarizedMethods methods whose taint transfers are taken as
+ *                          their summaries, and whose bodies are not
+ *                          analyzed by pointer analysis
+ * @param backPropagate whether back propagate taint to the pointers aliased
+ *                      with the variables that are mutated by taint transfers
  */
 record TaintConfig(List<Source> sources,
                    List<Sink> sinks,
                    List<TaintTransfer> transfers,
                    List<ParamSanitizer> paramSanitizers,
-                   boolean callSiteMode) {
+                   List<JMethod> summarizedMethods,
+                   boolean callSiteMode,
+                   boolean backPropagate) {
 
     private static final Logger logger = LogManager.getLogger(TaintConfig.class);
 
@@ -72,7 +80,7 @@ record TaintConfig(List<Source> sources,
      * An empty taint config.
      */
     private static final TaintConfig EMPTY = new TaintConfig(
-            List.of(), List.of(), List.of(), List.of(), false);
+            List.of(), List.of(), List.of(), List.of(), List.of(), false, true);
 
     /**
      * Loads a taint analysis configuration from given path.
@@ -140,7 +148,9 @@ record TaintConfig(List<Source> sources,
                 Lists.concatDistinct(sinks, other.sinks),
                 Lists.concatDistinct(transfers, other.transfers),
                 Lists.concatDistinct(paramSanitizers, other.paramSanitizers),
-                callSiteMode || other.callSiteMode);
+                Lists.concatDistinct(summarizedMethods, other.summarizedMethods),
+                callSiteMode || other.callSiteMode,
+                backPropagate && other.backPropagate);
     }
 
     @Override
@@ -166,6 +176,11 @@ record TaintConfig(List<Source> sources,
             paramSanitizers.forEach(sanitizer ->
                     sb.append("  ").append(sanitizer).append("\n"));
         }
+        if (!summarizedMethods.isEmpty()) {
+            sb.append("\nsummaries:\n");
+            summarizedMethods.forEach(method ->
+                    sb.append("  ").append(method).append("\n"));
+        }
         return sb.toString();
     }
 
@@ -192,10 +207,13 @@ record TaintConfig(List<Source> sources,
             List<Sink> sinks = deserializeSinks(node.get("sinks"));
             List<TaintTransfer> transfers = deserializeTransfers(node.get("transfers"));
             List<ParamSanitizer> sanitizers = deserializeSanitizers(node.get("sanitizers"));
+            List<JMethod> summarizedMethods = deserializeSummaries(node.get("summaries"));
             JsonNode callSiteNode = node.get("call-site-mode");
             boolean callSiteMode = (callSiteNode != null && callSiteNode.asBoolean());
-            return new TaintConfig(
-                    sources, sinks, transfers, sanitizers, callSiteMode);
+            JsonNode backPropagateNode = node.get("back-propagate");
+            boolean backPropagate = (backPropagateNode == null || backPropagateNode.asBoolean());
+            return new TaintConfig(sources, sinks, transfers, sanitizers,
+                    summarizedMethods, callSiteMode, backPropagate);
         }
 
         /**
@@ -439,5 +457,37 @@ record TaintConfig(List<Source> sources,
                 return List.of();
             }
         }
+
+        /**
+         * Deserializes a {@link JsonNode} (assume it is an {@link ArrayNode})
+         * to a list of summarized methods.
+         *
+         * @param node the node to be deserialized
+         * @return list of deserialized summarized methods.
+         */
+        private List<JMethod> deserializeSummaries(JsonNode node) {
+            if (node instanceof ArrayNode arrayNode) {
+                List<JMethod> methods = new ArrayList<>(arrayNode.size());
+                for (JsonNode elem : arrayNode) {
+                    JsonNode methodNode = elem.get("method");
+                    if (methodNode == null) {
+                        logger.warn("Ignore {} due to missing summary \"method\"",
+                                elem.toString());
+                        continue;
+                    }
+                    String methodSig = methodNode.asText();
+                    JMethod method = hierarchy.getMethod(methodSig);
+                    if (method != null) {
+                        methods.add(method);
+                    } else {
+                        logger.warn("Cannot find summarized method '{}'", methodSig);
+                    }
+                }
+                return Collections.unmodifiableList(methods);
+            } else {
+                // if node is not an instance of ArrayNode, just return an empty set.
+                return List.of();
+            }
+        }
     }
 }
@@ -28,9 +28,13 @@ import pascal.taie.analysis.pta.core.heap.MockObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.SparseBitSet;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -44,6 +48,11 @@ class TaintManager {
 
     private final Set<Obj> taintObjs = Sets.newHybridSet();
 
+    /**
+     * Indexes (given by {@link #heapModel}) of the taint objects.
+     */
+    private final IBitSet taintIndexes = new SparseBitSet();
+
     TaintManager(HeapModel heapModel) {
         this.heapModel = heapModel;
     }
@@ -57,7 +66,9 @@ class TaintManager {
      */
     Obj makeTaint(SourcePoint sourcePoint, Type type) {
         Obj taint = heapModel.getMockObj(TAINT_DESC, sourcePoint, type, false);
-        taintObjs.add(taint);
+        if (taintObjs.add(taint)) {
+            taintIndexes.set(heapModel.getIndex(taint));
+        }
         return taint;
     }
 
@@ -80,6 +91,33 @@ class TaintManager {
         throw new AnalysisException(obj + " is not a taint object");
     }
 
+    /**
+     * @return the taint objects in given set of objects. This iterates
+     * the smaller one of {@code objs} and the taint objects, and tests
+     * membership in the other one, so that the cost is bounded by
+     * the number of taint objects.
+     */
+    List<Obj> getTaintObjs(Set<Obj> objs) {
+        if (objs.isEmpty() || taintObjs.isEmpty()) {
+            return List.of();
+        }
+        if (objs.size() <= taintObjs.size()) {
+            return objs.stream()
+                    .filter(o -> taintIndexes.get(heapModel.getIndex(o)))
+                    .toList();
+        } else {
+            List<Obj> result = new ArrayList<>();
+            for (int i = taintIndexes.nextSetBit(0); i >= 0;
+                 i = taintIndexes.nextSetBit(i + 1)) {
+                Obj taint = heapModel.getObject(i);
+                if (objs.contains(taint)) {
+                    result.add(taint);
+                }
+            }
+            return result;
+        }
+    }
+
     /**
      * @return all taint objects generated via this manager.
      */
@@ -37,7 +37,6 @@ import pascal.taie.analysis.pta.core.solver.Transfer;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.CastExp;
-import pascal.taie.ir.exp.FieldAccess;
 import pascal.taie.ir.exp.InstanceFieldAccess;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Cast;
@@ -86,6 +85,20 @@ class TransferHandler extends OnFlyHandler {
 
     private final MultiMap<Var, TransferInfo> transferInfos = Maps.newMultiMap();
 
+    /**
+     * Taint transfers that have been processed at each context-sensitive
+     * call site. A call site may be connected to multiple callee contexts
+     * (and matched by both call edges and call-site mode), but the transfers
+     * at a call site need to be processed only once. The size of this map
+     * is bounded by the number of PFG edges added for the transfers.
+     */
+    private final MultiMap<CSCallSite, TaintTransfer> processedTransfers = Maps.newMultiMap();
+
+    /**
+     * Methods whose taint transfers act as their summaries.
+     */
+    private final List<JMethod> summarizedMethods;
+
     /**
      * Map from a method to {@link Invoke} statements in the method
      * which matches any transfer method.
@@ -97,13 +110,19 @@ class TransferHandler extends OnFlyHandler {
      * Whether enable taint back propagation to handle aliases about
      * tainted mutable objects, e.g., char[].
      */
-    private final boolean enableBackPropagate = true;
+    private final boolean enableBackPropagate;
 
     /**
      * Cache statements generated for back propagation.
      */
     private final Map<Var, List<Stmt>> backPropStmts = Maps.newMap();
 
+    /**
+     * Map from a method to the instance field accesses loaded in the method,
+     * which are the targets of back propagation.
+     */
+    private final Map<JMethod, List<InstanceFieldAccess>> backPropLoads = Maps.newMap();
+
     /**
      * Counter for generating temporary variables.
      */
@@ -113,11 +132,17 @@ class TransferHandler extends OnFlyHandler {
         super(context);
         csManager = solver.getCSManager();
         emptyContext = solver.getContextSelector().getEmptyContext();
+        enableBackPropagate = context.config().backPropagate();
+        summarizedMethods = context.config().summarizedMethods();
         context.config().transfers()
                 .forEach(t -> this.transfers.put(t.method(), t));
     }
 
     private void processTransfer(Context context, Invoke callSite, TaintTransfer transfer) {
+        if (!processedTransfers.put(
+                csManager.getCSCallSite(context, callSite), transfer)) {
+            return;
+        }
         TransferPoint from = transfer.from();
         TransferPoint to = transfer.to();
         Var toVar = InvokeUtils.getVar(callSite, to.index());
@@ -232,36 +257,52 @@ class TransferHandler extends OnFlyHandler {
         // For simplicity, we add artificial statement like base.field = var
         // for back propagation.
         JMethod container = var.getMethod();
-        List<Stmt> stmts = new ArrayList<>();
+        List<InstanceFieldAccess> loads = backPropLoads.computeIfAbsent(
+                container, this::getBackPropLoads);
+        if (loads.isEmpty()) {
+            return List.of();
+        }
+        List<Stmt> stmts = new ArrayList<>(loads.size() * 2);
+        // since var may point to the objects that are not from
+        // base.field, we use type to filter some spurious objects,
+        // and the casts of var to the same type share one temp var
+        Map<Type, Var> casts = Maps.newHybridMap();
+        for (InstanceFieldAccess ifa : loads) {
+            // generate a temp base for each (var, load) pair to avoid
+            // polluting original base, and to make sure that the store
+            // below receives the objects of base
+            Var base = ifa.getBase();
+            Var taintBase = getTempVar(container, base.getType());
+            stmts.add(new Copy(taintBase, base)); // %taint-temp = base;
+            Type fieldType = ifa.getType();
+            Var from = fieldType.equals(var.getType()) ? var
+                    : casts.computeIfAbsent(fieldType, type -> {
+                        Var tempFrom = getTempVar(container, type);
+                        stmts.add(new Cast(tempFrom, new CastExp(var, type)));
+                        return tempFrom;
+                    });
+            // back propagate taint from var to base.field
+            stmts.add(new StoreField(
+                    new InstanceFieldAccess(ifa.getFieldRef(), taintBase),
+                    from)); // %taint-temp.field = from;
+        }
+        return stmts;
+    }
+
+    /**
+     * Indexes the instance field loads in given method, which is
+     * done once for each method.
+     */
+    private List<InstanceFieldAccess> getBackPropLoads(JMethod container) {
+        List<InstanceFieldAccess> loads = new ArrayList<>();
         container.getIR().forEach(stmt -> {
-            if (stmt instanceof LoadField load) {
-                FieldAccess fieldAccess = load.getFieldAccess();
-                if (fieldAccess instanceof InstanceFieldAccess ifa) {
-                    // found var = base.field;
-                    Var base = ifa.getBase();
-                    // generate a temp base to avoid polluting original base
-                    Var taintBase = getTempVar(container, base.getType());
-                    stmts.add(new Copy(taintBase, base)); // %taint-temp = base;
-                    // generate field store statements to back propagate taint
-                    Var from;
-                    Type fieldType = ifa.getType();
-                    // since var may point to the objects that are not from
-                    // base.field, we use type to filter some spurious objects
-                    if (fieldType.equals(var.getType())) {
-                        from = var;
-                    } else {
-                        Var tempFrom = getTempVar(container, fieldType);
-                        stmts.add(new Cast(tempFrom, new CastExp(var, fieldType)));
-                        from = tempFrom;
-                    }
-                    // back propagate taint from var to base.field
-                    stmts.add(new StoreField(
-                            new InstanceFieldAccess(ifa.getFieldRef(), taintBase),
-                            from)); // %taint-temp.field = from;
-                }
+            if (stmt instanceof LoadField load &&
+                    load.getFieldAccess() instanceof InstanceFieldAccess ifa) {
+                // found x = base.field;
+                loads.add(ifa);
             }
         });
-        return stmts.isEmpty() ? List.of() : stmts;
+        return loads.isEmpty() ? List.of() : loads;
     }
 
     private Var getTempVar(JMethod container, Type type) {
@@ -269,6 +310,13 @@ class TransferHandler extends OnFlyHandler {
         return new Var(container, varName, type, -1);
     }
 
+    @Override
+    public void onStart() {
+        // the bodies of summarized methods are not analyzed,
+        // and their effects on taint are given by their transfers
+        summarizedMethods.forEach(solver::addIgnoredMethod);
+    }
+
     @Override
     public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
         if (edge.getKind() == CallKind.OTHER) {
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.Indexer;
 
 import java.util.function.Supplier;
@@ -35,7 +36,23 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, "hybrid");
+    }
+
+    /**
+     * @param objIndexer indexer of the objects in the points-to sets
+     * @param kind       kind of the points-to sets, either "hybrid"
+     *                   or "shared" (see {@link SharedPointsToSet})
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, String kind) {
+        factory = switch (kind) {
+            case "hybrid" -> () -> new HybridBitPointsToSet(objIndexer, true);
+            case "shared" -> {
+                SharedPointsToSet.Pool pool = new SharedPointsToSet.Pool(objIndexer);
+                yield () -> new SharedPointsToSet(pool);
+            }
+            default -> throw new ConfigException("Illegal points-to-set: " + kind);
+        };
     }
 
     public PointsToSet make() {
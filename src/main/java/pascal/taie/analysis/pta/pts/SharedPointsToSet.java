@@ -0,0 +1,375 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set whose contents are hash-consed, i.e., the points-to sets
+ * with the same objects share one immutable bit set (called node) in
+ * a {@link Pool}. The set is copy-on-write: adding single objects works
+ * on a private bit set, which is interned to the pool when the set is
+ * copied or involved in set union. The results of union and difference
+ * of nodes are memoized by the pool, so that propagating the same sets
+ * along different edges are computed only once.
+ */
+class SharedPointsToSet implements PointsToSet {
+
+    private final Pool pool;
+
+    /**
+     * The canonical node of this set, or {@code null} if this set
+     * is modified after it was frozen.
+     */
+    private Node node;
+
+    /**
+     * The private bit set of this set, which is {@code null}
+     * when this set is frozen.
+     */
+    private IBitSet bits;
+
+    SharedPointsToSet(Pool pool) {
+        this(pool, pool.empty);
+    }
+
+    private SharedPointsToSet(Pool pool, Node node) {
+        this.pool = pool;
+        this.node = node;
+    }
+
+    /**
+     * Interns the private bit set (if any) of this set into the pool.
+     *
+     * @return the canonical node of this set.
+     */
+    private synchronized Node freeze() {
+        if (node == null) {
+            node = pool.intern(bits);
+            bits = null;
+        }
+        return node;
+    }
+
+    private synchronized IBitSet getBits() {
+        return node != null ? node.bits : bits;
+    }
+
+    @Override
+    public synchronized boolean addObject(CSObj obj) {
+        int index = pool.indexer.getIndex(obj);
+        if (node != null) {
+            if (node.bits.get(index)) {
+                return false;
+            }
+            bits = node.bits.copy();
+            node = null;
+        }
+        return bits.set(index);
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof SharedPointsToSet other && other.pool == pool) {
+            Node oldNode = freeze();
+            Node newNode = pool.union(oldNode, other.freeze());
+            setNode(newNode);
+            return newNode != oldNode;
+        } else {
+            boolean changed = false;
+            for (CSObj o : pts) {
+                changed |= addObject(o);
+            }
+            return changed;
+        }
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        if (pts instanceof SharedPointsToSet other && other.pool == pool) {
+            Node oldNode = freeze();
+            Node otherNode = other.freeze();
+            Node diff = pool.diff(oldNode, otherNode);
+            if (diff != pool.empty) {
+                setNode(pool.union(oldNode, otherNode));
+            }
+            return new SharedPointsToSet(pool, diff);
+        } else {
+            PointsToSet diff = new SharedPointsToSet(pool);
+            for (CSObj o : pts) {
+                if (addObject(o)) {
+                    diff.addObject(o);
+                }
+            }
+            return diff;
+        }
+    }
+
+    private synchronized void setNode(Node node) {
+        this.node = node;
+        this.bits = null;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return getBits().get(pool.indexer.getIndex(obj));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getBits().isEmpty();
+    }
+
+    @Override
+    public int size() {
+        Node n = node;
+        return n != null ? n.size : getBits().cardinality();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new ObjectSet(pool.indexer, getBits());
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public PointsToSet copy() {
+        return new SharedPointsToSet(pool, freeze());
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+
+    /**
+     * Unmodifiable view of the objects represented by a bit set.
+     */
+    private static class ObjectSet extends AbstractSet<CSObj> {
+
+        private final Indexer<CSObj> indexer;
+
+        private final IBitSet bits;
+
+        private ObjectSet(Indexer<CSObj> indexer, IBitSet bits) {
+            this.indexer = indexer;
+            this.bits = bits;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof CSObj obj && bits.get(indexer.getIndex(obj));
+        }
+
+        @Override
+        public Iterator<CSObj> iterator() {
+            return new Iterator<>() {
+
+                private int next = bits.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public CSObj next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    CSObj obj = indexer.getObject(next);
+                    next = bits.nextSetBit(next + 1);
+                    return obj;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return bits.cardinality();
+        }
+    }
+
+    /**
+     * Immutable bit set shared by the points-to sets with the same objects.
+     */
+    private static final class Node {
+
+        private final IBitSet bits;
+
+        private final int size;
+
+        private final int hash;
+
+        /**
+         * Unique id of this node, used as the key of memoized operations.
+         */
+        private final int id;
+
+        private Node(IBitSet bits, int id) {
+            this.bits = bits;
+            this.size = bits.cardinality();
+            this.hash = bits.hashCode();
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Node that
+                    && hash == that.hash && bits.equals(that.bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Pool of the nodes of shared points-to sets.
+     * The nodes are weakly referenced by the pool (including its operation
+     * caches), so that the ones no longer used by any points-to sets
+     * can be garbage-collected.
+     */
+    static final class Pool {
+
+        /**
+         * Maximum number of entries in each operation cache.
+         * When exceeded, the cache is cleared.
+         */
+        private static final int CACHE_LIMIT = 1 << 18;
+
+        private final Indexer<CSObj> indexer;
+
+        private final Map<Node, WeakReference<Node>> nodes = new WeakHashMap<>();
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private final Node empty;
+
+        /**
+         * Memoized results of union, i.e., (a, b) -> a U b.
+         */
+        private final ConcurrentMap<Long, WeakReference<Node>> unionCache =
+                Maps.newConcurrentMap();
+
+        /**
+         * Memoized results of difference, i.e., (a, b) -> b - a.
+         */
+        private final ConcurrentMap<Long, WeakReference<Node>> diffCache =
+                Maps.newConcurrentMap();
+
+        Pool(Indexer<CSObj> indexer) {
+            this.indexer = indexer;
+            this.empty = intern(new SparseBitSet());
+        }
+
+        /**
+         * @return the canonical node of given bit set, which must not
+         * be modified afterwards.
+         */
+        private synchronized Node intern(IBitSet bits) {
+            Node node = new Node(bits, counter.get());
+            WeakReference<Node> ref = nodes.get(node);
+            Node canonical = ref != null ? ref.get() : null;
+            if (canonical == null) {
+                counter.incrementAndGet();
+                nodes.put(node, new WeakReference<>(node));
+                canonical = node;
+            }
+            return canonical;
+        }
+
+        private Node union(Node a, Node b) {
+            if (a == b || b == empty) {
+                return a;
+            }
+            if (a == empty) {
+                return b;
+            }
+            return compute(unionCache, a, b, () -> {
+                IBitSet result = a.bits.copy();
+                result.or(b.bits);
+                return intern(result);
+            });
+        }
+
+        /**
+         * @return the objects in {@code b} but not in {@code a}.
+         */
+        private Node diff(Node a, Node b) {
+            if (a == b || b == empty) {
+                return empty;
+            }
+            if (a == empty) {
+                return b;
+            }
+            return compute(diffCache, a, b, () -> {
+                IBitSet result = b.bits.copy();
+                result.andNot(a.bits);
+                return intern(result);
+            });
+        }
+
+        /**
+         * Looks up the memoized result of an operation on {@code a} and
+         * {@code b}, and computes it by {@code op} if it is absent or
+         * has been garbage-collected.
+         */
+        private static Node compute(ConcurrentMap<Long, WeakReference<Node>> cache,
+                                    Node a, Node b,
+                                    Supplier<Node> op) {
+            long key = ((long) a.id << 32) | (b.id & 0xFFFF_FFFFL);
+            WeakReference<Node> ref = cache.get(key);
+            Node result = ref != null ? ref.get() : null;
+            if (result == null) {
+                if (cache.size() >= CACHE_LIMIT) {
+                    cache.clear();
+                }
+                result = op.get();
+                cache.put(key, new WeakReference<>(result));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import pascal.taie.config.AnalysisOptions;
+
+import java.util.List;
+
+/**
+ * Computes the keys of the pointer analysis results persisted across runs,
+ * i.e., the solver state of incremental analysis and the pre-analysis cache.
+ * A key consists of the values of the options that affect points-to results,
+ * so that changing the options that do not change the points-to results
+ * (e.g., the implementations of work list and points-to sets, and the
+ * processing of results) does not discard the persisted results.
+ */
+public final class PointsToOptionsKey {
+
+    /**
+     * Options that affect the result of context-insensitive pointer analysis.
+     */
+    private static final List<String> CI_OPTIONS = List.of(
+            "only-app", "implicit-entries", "distinguish-string-constants",
+            "merge-string-objects", "merge-string-builders",
+            "merge-exception-objects", "handle-invokedynamic",
+            "propagate-types", "reflection-inference", "reflection-log",
+            "taint-config", "plugins", "time-limit");
+
+    private PointsToOptionsKey() {
+    }
+
+    /**
+     * @return the key of the results of pointer analysis
+     * with given options, including its context sensitivity.
+     */
+    public static String of(AnalysisOptions options) {
+        return "cs:" + options.get("cs") + '\n' + ofCI(options);
+    }
+
+    /**
+     * @return the key of the results of context-insensitive pointer
+     * analysis with given options, where option {@code cs} is ignored.
+     */
+    public static String ofCI(AnalysisOptions options) {
+        StringBuilder sb = new StringBuilder();
+        CI_OPTIONS.forEach(k -> sb.append(k).append(':')
+                .append(options.get(k)).append('\n'));
+        return sb.toString();
+    }
+}
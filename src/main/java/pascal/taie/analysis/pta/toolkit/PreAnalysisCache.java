@@ -0,0 +1,353 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.toolkit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Persists the results of the analyses (i.e., Scaler, Zipper and Mahjong)
+ * that guide pointer analysis, so that the context-insensitive pre-analysis
+ * they depend on can be skipped in later runs.
+ * <p>
+ * The cache file keeps the results of different advanced analyses
+ * (identified by the value of option {@code advanced}, e.g.,
+ * {@code zipper-e=0.05}) together, so one file can be shared by the runs
+ * with different advanced analyses. The results are discarded when the
+ * world (see {@link CachedWorldBuilder#getWorldKey}) or the options that
+ * affect the pre-analysis are changed. The results refer to methods by
+ * signatures and to allocation sites by indexes in their methods, so that
+ * they can be mapped to the world built in later runs.
+ */
+public class PreAnalysisCache {
+
+    private static final Logger logger = LogManager.getLogger(PreAnalysisCache.class);
+
+    private static final int MAGIC = 0x7A1E_9AE5;
+
+    private static final int VERSION = 1;
+
+    /**
+     * File of this cache, {@code null} if this cache is disabled.
+     */
+    @Nullable
+    private final File file;
+
+    private final String key;
+
+    /**
+     * Map from advanced analyses to their encoded results.
+     */
+    private final Map<String, byte[]> entries;
+
+    private PreAnalysisCache(@Nullable File file, String key,
+                             Map<String, byte[]> entries) {
+        this.file = file;
+        this.key = key;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the cache specified by option {@code pre-analysis-cache}.
+     * If the option is {@code null}, returns a disabled cache, which
+     * always computes the results.
+     */
+    public static PreAnalysisCache load(AnalysisOptions options) {
+        String path = options.getString("pre-analysis-cache");
+        if (path == null) {
+            return new PreAnalysisCache(null, "", Maps.newMap());
+        }
+        File file = new File(path);
+        String key = computeKey(options);
+        Map<String, byte[]> entries = Maps.newLinkedHashMap();
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new StreamCorruptedException(
+                            "Unrecognized pre-analysis cache: " + file);
+                }
+                if (in.readUTF().equals(key)) {
+                    int nEntries = in.readInt();
+                    for (int i = 0; i < nEntries; ++i) {
+                        String advanced = in.readUTF();
+                        byte[] bytes = new byte[in.readInt()];
+                        in.readFully(bytes);
+                        entries.put(advanced, bytes);
+                    }
+                } else {
+                    logger.info("Discarding pre-analysis cache {} as" +
+                            " the program or options are changed", file);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read pre-analysis cache from {}: {}",
+                        file, e.toString());
+            }
+        }
+        return new PreAnalysisCache(file, key, entries);
+    }
+
+    private static String computeKey(AnalysisOptions options) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        StringBuilder sb = new StringBuilder(
+                CachedWorldBuilder.getWorldKey(World.get().getOptions()));
+        // the pre-analysis is context-insensitive
+        sb.append('\n').append(PointsToOptionsKey.ofCI(options));
+        return HexFormat.of().formatHex(
+                digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the cached result of Scaler, or the result computed by
+     * {@code scaler} if it is not cached.
+     */
+    public Map<JMethod, String> getScalerResult(
+            String advanced, Supplier<Map<JMethod, String>> scaler) {
+        return get(advanced, scaler, this::decodeScalerResult,
+                PreAnalysisCache::encodeScalerResult);
+    }
+
+    /**
+     * @return the cached result of Zipper, or the result computed by
+     * {@code zipper} if it is not cached.
+     */
+    public Set<JMethod> getZipperResult(
+            String advanced, Supplier<Set<JMethod>> zipper) {
+        return get(advanced, zipper, this::decodeZipperResult,
+                PreAnalysisCache::encodeZipperResult);
+    }
+
+    /**
+     * @return the cached result of Mahjong, or the result computed by
+     * {@code mahjong} if it is not cached.
+     * @see pascal.taie.analysis.pta.toolkit.mahjong.Mahjong#computeMergeGroups
+     */
+    public List<Set<New>> getMahjongResult(
+            String advanced, Supplier<List<Set<New>>> mahjong) {
+        return get(advanced, mahjong, this::decodeMahjongResult,
+                PreAnalysisCache::encodeMahjongResult);
+    }
+
+    @FunctionalInterface
+    private interface Encoder<T> {
+        void encode(T result, DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        /**
+         * @return the decoded result, or {@code null} if the result
+         * cannot be mapped to current world.
+         */
+        @Nullable
+        T decode(DataInputStream in) throws IOException;
+    }
+
+    private <T> T get(String advanced, Supplier<T> analysis,
+                      Decoder<T> decoder, Encoder<T> encoder) {
+        if (file == null) {
+            return analysis.get();
+        }
+        byte[] bytes = entries.get(advanced);
+        if (bytes != null) {
+            try (DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes))) {
+                T result = decoder.decode(in);
+                if (result != null) {
+                    logger.info("Reusing cached result of {} from {}," +
+                            " pre-analysis is skipped", advanced, file);
+                    return result;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to decode cached result of {}: {}",
+                        advanced, e.toString());
+            }
+        }
+        T result = analysis.get();
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                encoder.encode(result, out);
+            }
+            entries.put(advanced, buffer.toByteArray());
+            save();
+        } catch (IOException e) {
+            logger.warn("Failed to write pre-analysis cache to {}: {}",
+                    file, e.toString());
+        }
+        return result;
+    }
+
+    private void save() throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory " + dir);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+            out.writeInt(entries.size());
+            for (var e : entries.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue().length);
+                out.write(e.getValue());
+            }
+        }
+    }
+
+    private static void encodeScalerResult(
+            Map<JMethod, String> result, DataOutputStream out) throws IOException {
+        List<JMethod> methods = new ArrayList<>(result.keySet());
+        methods.sort(Comparator.comparing(JMethod::getSignature));
+        out.writeInt(methods.size());
+        for (JMethod method : methods) {
+            out.writeUTF(method.getSignature());
+            out.writeUTF(result.get(method));
+        }
+    }
+
+    @Nullable
+    private Map<JMethod, String> decodeScalerResult(DataInputStream in)
+            throws IOException {
+        int n = in.readInt();
+        Map<JMethod, String> result = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            JMethod method = getMethod(in.readUTF());
+            String variant = in.readUTF();
+            if (method == null) {
+                return null;
+            }
+            result.put(method, variant);
+        }
+        return result;
+    }
+
+    private static void encodeZipperResult(
+            Set<JMethod> result, DataOutputStream out) throws IOException {
+        List<String> methods = result.stream()
+                .map(JMethod::getSignature)
+                .sorted()
+                .toList();
+        out.writeInt(methods.size());
+        for (String method : methods) {
+            out.writeUTF(method);
+        }
+    }
+
+    @Nullable
+    private Set<JMethod> decodeZipperResult(DataInputStream in)
+            throws IOException {
+        int n = in.readInt();
+        Set<JMethod> result = Sets.newSet(n);
+        for (int i = 0; i < n; ++i) {
+            JMethod method = getMethod(in.readUTF());
+            if (method == null) {
+                return null;
+            }
+            result.add(method);
+        }
+        return result;
+    }
+
+    private static void encodeMahjongResult(
+            List<Set<New>> result, DataOutputStream out) throws IOException {
+        out.writeInt(result.size());
+        for (Set<New> allocSites : result) {
+            out.writeInt(allocSites.size());
+            for (New allocSite : allocSites) {
+                out.writeUTF(allocSite.getContainer().getSignature());
+                out.writeInt(allocSite.getIndex());
+            }
+        }
+    }
+
+    @Nullable
+    private List<Set<New>> decodeMahjongResult(DataInputStream in)
+            throws IOException {
+        int nGroups = in.readInt();
+        List<Set<New>> result = new ArrayList<>(nGroups);
+        for (int i = 0; i < nGroups; ++i) {
+            int n = in.readInt();
+            Set<New> allocSites = Sets.newHybridOrderedSet();
+            for (int j = 0; j < n; ++j) {
+                JMethod method = getMethod(in.readUTF());
+                int index = in.readInt();
+                if (method == null) {
+                    return null;
+                }
+                List<Stmt> stmts = method.getIR().getStmts();
+                if (index >= stmts.size()
+                        || !(stmts.get(index) instanceof New allocSite)) {
+                    return null;
+                }
+                allocSites.add(allocSite);
+            }
+            result.add(allocSites);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static JMethod getMethod(String signature) {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        return hierarchy.getMethod(signature);
+    }
+}
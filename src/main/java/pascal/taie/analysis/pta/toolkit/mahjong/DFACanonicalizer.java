@@ -0,0 +1,347 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes canonical forms of DFA. Two DFA are equivalent if and only if
+ * their canonical forms are equal, thus the objects whose DFA are equivalent
+ * can be grouped by hashing their canonical forms.
+ * <p>
+ * The canonical form of a DFA is computed by minimizing the DFA with
+ * Hopcroft's algorithm, and then numbering the states of the minimal DFA
+ * in breadth-first order from the start state, where the out-edges of
+ * each state are visited in a fixed order of fields.
+ * <p>
+ * The ids of outputs and fields are shared by all DFA canonicalized by
+ * the same canonicalizer, so the canonical forms are comparable only if
+ * they are computed by the same canonicalizer. This class is not thread-safe.
+ */
+class DFACanonicalizer {
+
+    /**
+     * Marks the end of out-edges of a state in canonical forms.
+     */
+    private static final int END = -1;
+
+    private final Map<Set<Type>, Integer> outputIds = Maps.newMap();
+
+    private final Map<Field, Integer> fieldIds = Maps.newMap();
+
+    CanonicalDFA canonicalize(DFA dfa) {
+        // index the states, where the dead state is the last one
+        List<DFAState> states = new ArrayList<>(dfa.getStates());
+        int dead = states.size();
+        int n = dead + 1;
+        Map<DFAState, Integer> stateIds = Maps.newMap(n);
+        for (int i = 0; i < dead; ++i) {
+            stateIds.put(states.get(i), i);
+        }
+        // index the fields, in the order of their shared ids
+        List<Field> fields = new ArrayList<>();
+        Map<Field, Integer> localFieldIds = Maps.newMap();
+        for (DFAState s : states) {
+            for (Field f : dfa.outEdgesOf(s)) {
+                if (!localFieldIds.containsKey(f)) {
+                    localFieldIds.put(f, -1);
+                    fields.add(f);
+                }
+            }
+        }
+        fields.sort(Comparator.comparingInt(this::getFieldId));
+        int m = fields.size();
+        for (int a = 0; a < m; ++a) {
+            localFieldIds.put(fields.get(a), a);
+        }
+        // build the complete transition table, in which the missing
+        // transitions go to the dead state
+        int[] next = new int[n * m];
+        Arrays.fill(next, dead);
+        for (int s = 0; s < dead; ++s) {
+            DFAState state = states.get(s);
+            for (Field f : dfa.outEdgesOf(state)) {
+                next[s * m + localFieldIds.get(f)] =
+                        stateIds.get(dfa.nextState(state, f));
+            }
+        }
+        // the initial partition groups the states by their outputs
+        int[] outputs = new int[n];
+        for (int s = 0; s < dead; ++s) {
+            outputs[s] = getOutputId(dfa.outputOf(states.get(s)));
+        }
+        outputs[dead] = getOutputId(dfa.outputOf(dfa.getDeadState()));
+        Partition p = new Partition(outputs);
+        p.refine(next, m);
+        return new CanonicalDFA(encode(p, next, m, outputs,
+                stateIds.get(dfa.getStartState()), dead, fields));
+    }
+
+    private int getOutputId(Set<Type> output) {
+        return outputIds.computeIfAbsent(output, __ -> outputIds.size());
+    }
+
+    private int getFieldId(Field field) {
+        return fieldIds.computeIfAbsent(field, __ -> fieldIds.size());
+    }
+
+    /**
+     * Encodes the minimal DFA given by partition {@code p}.
+     * For each state of the minimal DFA in breadth-first order, the encoding
+     * contains its output id, followed by the pairs of field id and the
+     * number of target state of its out-edges (except the ones to dead state),
+     * and ends with {@link #END}.
+     */
+    private int[] encode(Partition p, int[] next, int m, int[] outputs,
+                         int start, int dead, List<Field> fields) {
+        int[] numbers = new int[p.nBlocks];
+        Arrays.fill(numbers, -1);
+        int[] queue = new int[p.nBlocks];
+        int head = 0, tail = 0;
+        int deadBlock = p.blockOf[dead];
+        int startBlock = p.blockOf[start];
+        numbers[startBlock] = tail;
+        queue[tail++] = startBlock;
+        IntArray code = new IntArray();
+        while (head < tail) {
+            int b = queue[head++];
+            int rep = p.elems[p.first[b]];
+            code.add(outputs[rep]);
+            for (int a = 0; a < m; ++a) {
+                int target = p.blockOf[next[rep * m + a]];
+                if (target != deadBlock) {
+                    if (numbers[target] == -1) {
+                        numbers[target] = tail;
+                        queue[tail++] = target;
+                    }
+                    code.add(getFieldId(fields.get(a)));
+                    code.add(numbers[target]);
+                }
+            }
+            code.add(END);
+        }
+        return code.toArray();
+    }
+
+    /**
+     * Refinable partition of states, which is refined by Hopcroft's algorithm.
+     * The states of each block are stored contiguously in {@link #elems},
+     * and the marked states of each block are moved to the front of the block.
+     */
+    private static class Partition {
+
+        private final int[] elems;
+
+        private final int[] loc;
+
+        private final int[] blockOf;
+
+        private final int[] first;
+
+        private final int[] end;
+
+        private final int[] mid;
+
+        private int nBlocks;
+
+        private final int[] touched;
+
+        private int nTouched;
+
+        /**
+         * @param initial block id of each state in initial partition.
+         *                The ids need not to be contiguous.
+         */
+        private Partition(int[] initial) {
+            int n = initial.length;
+            elems = new int[n];
+            loc = new int[n];
+            blockOf = new int[n];
+            first = new int[n];
+            end = new int[n];
+            mid = new int[n];
+            touched = new int[n];
+            Map<Integer, Integer> blockIds = Maps.newMap();
+            int[] sizes = new int[n];
+            for (int s = 0; s < n; ++s) {
+                int b = blockIds.computeIfAbsent(initial[s], __ -> blockIds.size());
+                blockOf[s] = b;
+                ++sizes[b];
+            }
+            nBlocks = blockIds.size();
+            for (int b = 0, i = 0; b < nBlocks; ++b) {
+                first[b] = mid[b] = end[b] = i;
+                i += sizes[b];
+            }
+            for (int s = 0; s < n; ++s) {
+                int i = end[blockOf[s]]++;
+                elems[i] = s;
+                loc[s] = i;
+            }
+        }
+
+        private void refine(int[] next, int m) {
+            int n = elems.length;
+            // build predecessors of each state on each field
+            int[] predStart = new int[n * m + 1];
+            for (int i = 0; i < n * m; ++i) {
+                ++predStart[next[i] * m + i % m + 1];
+            }
+            for (int k = 0; k < n * m; ++k) {
+                predStart[k + 1] += predStart[k];
+            }
+            int[] preds = new int[n * m];
+            int[] fill = Arrays.copyOf(predStart, n * m);
+            for (int i = 0; i < n * m; ++i) {
+                preds[fill[next[i] * m + i % m]++] = i / m;
+            }
+            // Hopcroft's algorithm. When a block splits, the smaller part
+            // always becomes the new block, which is the one that needs
+            // to be added to the work-list no matter whether the old block
+            // is in the work-list.
+            int[] workList = new int[n];
+            int size = 0;
+            for (int b = 0; b < nBlocks; ++b) {
+                workList[size++] = b;
+            }
+            while (size > 0) {
+                int splitter = workList[--size];
+                int[] splitterStates = Arrays.copyOfRange(
+                        elems, first[splitter], end[splitter]);
+                for (int a = 0; a < m; ++a) {
+                    for (int t : splitterStates) {
+                        int k = t * m + a;
+                        for (int i = predStart[k]; i < predStart[k + 1]; ++i) {
+                            mark(preds[i]);
+                        }
+                    }
+                    for (int i = 0; i < nTouched; ++i) {
+                        int b = touched[i];
+                        if (mid[b] == end[b]) { // all states are marked
+                            mid[b] = first[b];
+                        } else {
+                            workList[size++] = split(b);
+                        }
+                    }
+                    nTouched = 0;
+                }
+            }
+        }
+
+        private void mark(int s) {
+            int b = blockOf[s];
+            int i = loc[s];
+            int j = mid[b];
+            if (i >= j) { // s is not marked yet
+                if (j == first[b]) {
+                    touched[nTouched++] = b;
+                }
+                elems[i] = elems[j];
+                loc[elems[i]] = i;
+                elems[j] = s;
+                loc[s] = j;
+                mid[b] = j + 1;
+            }
+        }
+
+        /**
+         * Splits block b into its marked and unmarked states.
+         *
+         * @return the id of the new block, which contains the smaller part.
+         */
+        private int split(int b) {
+            int nb = nBlocks++;
+            if (mid[b] - first[b] <= end[b] - mid[b]) {
+                first[nb] = first[b];
+                end[nb] = mid[b];
+                first[b] = mid[b];
+            } else {
+                first[nb] = mid[b];
+                end[nb] = end[b];
+                end[b] = mid[b];
+            }
+            mid[b] = first[b];
+            mid[nb] = first[nb];
+            for (int i = first[nb]; i < end[nb]; ++i) {
+                blockOf[elems[i]] = nb;
+            }
+            return nb;
+        }
+    }
+
+    private static class IntArray {
+
+        private int[] array = new int[16];
+
+        private int size;
+
+        private void add(int i) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = i;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+    }
+
+    /**
+     * Canonical form of a DFA.
+     */
+    static class CanonicalDFA {
+
+        private final int[] code;
+
+        private final int hashCode;
+
+        private CanonicalDFA(int[] code) {
+            this.code = code;
+            this.hashCode = Arrays.hashCode(code);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CanonicalDFA that)) {
+                return false;
+            }
+            return hashCode == that.hashCode && Arrays.equals(code, that.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -33,6 +33,13 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Checks the equivalence of two DFA pairwise. Mahjong no longer uses this
+ * class, as it compares DFA by their canonical forms
+ * (see {@link DFACanonicalizer}). It is kept as the oracle for testing
+ * the canonical forms, i.e., two DFA are equivalent if and only if
+ * their canonical forms are equal.
+ */
 class DFAEquivChecker {
 
     /**
@@ -25,13 +25,19 @@ package pascal.taie.analysis.pta.toolkit.mahjong;
 import org.apache.logging.log4j.Level;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.mahjong.DFACanonicalizer.CanonicalDFA;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.New;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.UnionFindSet;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -39,8 +45,6 @@ import java.util.stream.Collectors;
 
 public class Mahjong {
 
-    private static final DFAEquivChecker dfaEqChecker = new DFAEquivChecker();
-
     private DFAFactory dfaFactory;
 
     /**
@@ -50,11 +54,31 @@ public class Mahjong {
 
     public static HeapModel run(PointerAnalysisResult pta,
                                 AnalysisOptions options) {
-        return new Mahjong().buildHeapModel(pta, options);
+        return buildHeapModel(options, computeMergeGroups(pta));
+    }
+
+    /**
+     * Computes the allocation sites whose objects are merged by Mahjong.
+     * The result refers to allocation sites instead of objects, so that
+     * it can be reused by (and persisted for) later runs.
+     *
+     * @return groups of allocation sites, the objects of each group
+     * are merged into one object.
+     */
+    public static List<Set<New>> computeMergeGroups(PointerAnalysisResult pta) {
+        return new Mahjong().mergeObjects(pta);
+    }
+
+    /**
+     * @return the heap model that merges objects by given groups of
+     * allocation sites (computed by {@link #computeMergeGroups}).
+     */
+    public static HeapModel buildHeapModel(AnalysisOptions options,
+                                           List<Set<New>> mergeGroups) {
+        return new MahjongHeapModel(options, mergeGroups);
     }
 
-    HeapModel buildHeapModel(PointerAnalysisResult pta,
-                             AnalysisOptions options) {
+    private List<Set<New>> mergeObjects(PointerAnalysisResult pta) {
         FieldPointsToGraph fpg = Timer.runAndCount(
                 () -> new FieldPointsToGraph(pta),
                 "Building field points-to graph", Level.INFO);
@@ -63,8 +87,23 @@ public class Mahjong {
         UnionFindSet<Obj> uf = Timer.runAndCount(
                 () -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
-        // build resulting heap model based on merge map
-        return new MahjongHeapModel(options, uf.getDisjointSets());
+        // currently, perform merging for only NewObj
+        List<Set<New>> mergeGroups = new ArrayList<>();
+        uf.getDisjointSets()
+                .stream()
+                .filter(objs -> objs.size() > 1)
+                .forEach(objs -> {
+                    Set<New> allocSites = Sets.newHybridOrderedSet();
+                    objs.forEach(obj -> {
+                        if (obj instanceof NewObj newObj) {
+                            allocSites.add(newObj.getAllocation());
+                        }
+                    });
+                    if (!allocSites.isEmpty()) {
+                        mergeGroups.add(allocSites);
+                    }
+                });
+        return mergeGroups;
     }
 
     private UnionFindSet<Obj> mergeTypeConsistentObjects(FieldPointsToGraph fpg) {
@@ -81,16 +120,18 @@ public class Mahjong {
                 .forEach(entry -> {
                     Set<Obj> objs = entry.getValue();
                     DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
-                                }
+                    DFACanonicalizer canonicalizer = new DFACanonicalizer();
+                    // objects whose DFA have the same canonical form are
+                    // equivalent, thus they are bucketed by the canonical
+                    // forms and merged with the first object in each bucket
+                    Map<CanonicalDFA, Obj> buckets = Maps.newMap();
+                    for (Obj o : objs) {
+                        if (canBeMerged(o, dfaMap)) {
+                            CanonicalDFA c = canonicalizer.canonicalize(
+                                    dfaMap.getDFA(o));
+                            Obj first = buckets.putIfAbsent(c, o);
+                            if (first != null) {
+                                uf.union(first, o);
                             }
                         }
                     }
@@ -98,15 +139,6 @@ public class Mahjong {
         return uf;
     }
 
-    /**
-     * @return {@code true} if o1 and o2 can be merged.
-     */
-    private boolean canBeMerged(Obj o1, Obj o2, DFAMap dfaMap) {
-        DFA dfa1 = dfaMap.getDFA(o1);
-        DFA dfa2 = dfaMap.getDFA(o2);
-        return dfaEqChecker.isEquivalent(dfa1, dfa2);
-    }
-
     /**
      * @return {@code true} if o can be merged with other objects.
      */
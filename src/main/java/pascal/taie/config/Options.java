@@ -213,6 +213,17 @@ public class Options implements Serializable {
         return preBuildIR;
     }
 
+    @JsonProperty
+    @Option(names = "--build-threads",
+            description = "Number of threads used to build classes" +
+                    " of the world (default: ${DEFAULT-VALUE})",
+            defaultValue = "1")
+    private int buildThreads;
+
+    public int getBuildThreads() {
+        return buildThreads;
+    }
+
     @JsonProperty
     @Option(names = {"-wc", "--world-cache-mode"},
             description = "Enable world cache mode to save build time"
@@ -235,6 +246,28 @@ public class Options implements Serializable {
         return scope;
     }
 
+    @JsonProperty
+    @Option(names = "--analysis-threads",
+            description = "Number of threads used to execute independent" +
+                    " analyses concurrently (default: ${DEFAULT-VALUE})",
+            defaultValue = "1")
+    private int analysisThreads;
+
+    public int getAnalysisThreads() {
+        return analysisThreads;
+    }
+
+    @JsonProperty
+    @Option(names = "--fuse-method-analyses",
+            description = "Execute consecutive method analyses in a single" +
+                    " pass over the methods (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean fuseMethodAnalyses;
+
+    public boolean isFuseMethodAnalyses() {
+        return fuseMethodAnalyses;
+    }
+
     @JsonProperty
     @Option(names = "--no-native-model",
             description = "Enable native model (default: ${DEFAULT-VALUE})",
@@ -513,8 +546,11 @@ public class Options implements Serializable {
                 ", worldBuilderClass=" + worldBuilderClass +
                 ", outputDir='" + outputDir + '\'' +
                 ", preBuildIR=" + preBuildIR +
+                ", buildThreads=" + buildThreads +
                 ", worldCacheMode=" + worldCacheMode +
                 ", scope=" + scope +
+                ", analysisThreads=" + analysisThreads +
+                ", fuseMethodAnalyses=" + fuseMethodAnalyses +
                 ", nativeModel=" + nativeModel +
                 ", planFile=" + planFile +
                 ", analyses=" + analyses +
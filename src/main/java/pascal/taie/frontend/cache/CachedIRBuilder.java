@@ -22,42 +22,64 @@
 
 package pascal.taie.frontend.cache;
 
-
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRBuilder;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
- * The {@link pascal.taie.ir.IRBuilder} is for keeping the {@link IR}s of all methods to
- * prevent cyclic references with too long a path which may make
- * the serialization fail or {@link java.lang.StackOverflowError}.
+ * The {@link IRBuilder} which provides the {@link IR}s stored in the
+ * world cache. Each IR is stored in a separate segment of the cache file,
+ * and it is decoded only when its method body is first accessed via
+ * {@link JMethod#getIR()}, so that the IRs of unreachable methods
+ * are never materialized.
+ *
+ * @see WorldCache
  */
 public class CachedIRBuilder implements IRBuilder {
 
-    private final Map<String, IR> methodSig2IR;
+    /**
+     * Notes: This field is {@code transient} because the IRs are
+     * serialized separately by {@link WorldCache}.
+     */
+    private final transient WorldCache cache;
 
-    public CachedIRBuilder(IRBuilder irBuilder, ClassHierarchy hierarchy) {
-        irBuilder.buildAll(hierarchy);
-        methodSig2IR = hierarchy.allClasses()
-                .map(JClass::getDeclaredMethods)
-                .flatMap(Collection::stream)
-                .filter(m -> !m.isAbstract() || m.isNative())
-                .collect(Collectors.toMap(JMethod::getSignature, JMethod::getIR));
+    /**
+     * Maps each method to the index of its IR in {@link #cache}.
+     */
+    private final transient Map<JMethod, Integer> method2Index;
+
+    CachedIRBuilder(WorldCache cache) {
+        this.cache = cache;
+        method2Index = Maps.newMap(cache.getIRCount());
+        for (int i = 0; i < cache.getIRCount(); ++i) {
+            method2Index.put(cache.getMethod(i), i);
+        }
     }
 
     /**
      * This method will be called by {@link JMethod#getIR()} only once,
-     * so remove the IR from the map after returning it.
+     * which caches the returned IR in the method.
      */
     @Override
     public IR buildIR(JMethod method) {
-        return methodSig2IR.remove(method.getSignature());
+        Integer index = method2Index.get(method);
+        if (index == null) {
+            return null;
+        }
+        try {
+            return cache.readIR(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Failed to load IR of " + method + " from world cache", e);
+        }
     }
 
     @Override
@@ -65,7 +87,7 @@ public class CachedIRBuilder implements IRBuilder {
         hierarchy.allClasses()
                 .map(JClass::getDeclaredMethods)
                 .flatMap(Collection::stream)
-                .filter(m -> !m.isAbstract() || m.isNative())
+                .filter(m -> !m.isAbstract())
                 .forEach(JMethod::getIR);
     }
 }
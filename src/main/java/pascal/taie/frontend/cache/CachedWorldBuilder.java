@@ -28,17 +28,26 @@ import pascal.taie.World;
 import pascal.taie.WorldBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.Timer;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * A {@link WorldBuilder} that loads the cached world if it exists, or delegates to the
@@ -64,15 +73,16 @@ public class CachedWorldBuilder implements WorldBuilder {
                     + " but world cache mode option is not enabled");
             System.exit(-1);
         }
-        File worldCacheFile = getWorldCacheFile(options);
-        if (loadCache(options, worldCacheFile)) {
+        String key = getWorldKey(options);
+        File worldCacheFile = getWorldCacheFile(key);
+        if (loadCache(options, worldCacheFile, key)) {
             return;
         }
         runWorldBuilder(options, analyses);
-        saveCache(worldCacheFile);
+        saveCache(worldCacheFile, key);
     }
 
-    private boolean loadCache(Options options, File worldCacheFile) {
+    private boolean loadCache(Options options, File worldCacheFile, String key) {
         if (!worldCacheFile.exists()) {
             logger.info("World cache not found in {}", worldCacheFile);
             return false;
@@ -80,25 +90,18 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info("Loading the world cache from {}", worldCacheFile);
         Timer timer = new Timer("Load the world cache");
         timer.start();
-        ObjectInputStream ois = null;
         try {
-            ois = new ObjectInputStream(
-                    new BufferedInputStream(new FileInputStream(worldCacheFile)));
-            World world = (World) ois.readObject();
+            WorldCache cache = WorldCache.open(worldCacheFile, key);
+            World world = cache.getWorld();
             World.set(world);
             world.setOptions(options);
+            world.setIRBuilder(new CachedIRBuilder(cache));
             return true;
         } catch (Exception e) {
+            World.reset();
             logger.error("Failed to load world cache from {} due to {}",
                     worldCacheFile, e);
         } finally {
-            if (ois != null) {
-                try {
-                    ois.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close input stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
@@ -114,62 +117,92 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info(timer);
     }
 
-    private void saveCache(File worldCacheFile) {
+    private void saveCache(File worldCacheFile, String key) {
         logger.info("Saving the world cache to {}", worldCacheFile);
         Timer timer = new Timer("Save the world cache");
         timer.start();
-        ObjectOutputStream oos = null;
+        World world = World.get();
+        List<JMethod> methods = world.getClassHierarchy()
+                .allClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
         try {
-            oos = new ObjectOutputStream(
-                    new BufferedOutputStream(new FileOutputStream(worldCacheFile)));
-            oos.writeObject(World.get());
-            oos.close();
+            WorldCache.save(world, methods, worldCacheFile, key);
         } catch (Exception e) {
             logger.error("Failed to save world cache from {} due to {}",
                     worldCacheFile, e);
+            // remove the incomplete cache file
+            worldCacheFile.delete();
         } finally {
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close output stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
     }
 
     public static File getWorldCacheFile(Options options) {
+        return getWorldCacheFile(getWorldKey(options));
+    }
+
+    private static File getWorldCacheFile(String key) {
         File cacheDir = new File(CACHE_DIR);
         if (!cacheDir.exists()) {
             cacheDir.mkdirs();
         }
-        return new File(cacheDir,
-                "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
+        return new File(cacheDir, "world-cache-"
+                + key.substring(0, 16) + ".bin").getAbsoluteFile();
     }
 
-    private static int getWorldCacheHash(Options options) {
-        int result = options.getMainClass() != null
-                ? options.getMainClass().hashCode() : 0;
-        result = 31 * result + (options.getInputClasses() != null
-                ? options.getInputClasses().hashCode() : 0);
-        result = 31 * result + options.getJavaVersion();
-        result = 31 * result + (options.isPrependJVM() ? 1 : 0);
-        result = 31 * result + (options.isAllowPhantom() ? 1 : 0);
-        result = 31 * result + (options.getWorldBuilderClass() != null
-                ? options.getWorldBuilderClass().getName().hashCode() : 0);
-        // add the timestamp to the cache key calculation
+    /**
+     * Computes the key of the world, which digests the options
+     * that affect world building and the contents of class paths.
+     * Besides the world cache, this key also identifies the world
+     * for other caches that depend on it, e.g., the results
+     * of pre-analysis of pointer analysis.
+     */
+    public static String getWorldKey(Options options) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        update(digest, String.valueOf(options.getMainClass()));
+        update(digest, String.valueOf(options.getInputClasses()));
+        update(digest, String.valueOf(options.getJavaVersion()));
+        update(digest, String.valueOf(options.isPrependJVM()));
+        update(digest, String.valueOf(options.isAllowPhantom()));
+        update(digest, options.getWorldBuilderClass() != null
+                ? options.getWorldBuilderClass().getName() : "null");
+        // add the contents of class paths to the cache key calculation
         List<String> paths = new ArrayList<>();
         paths.addAll(options.getClassPath());
         paths.addAll(options.getAppClassPath());
         for (String path : paths) {
-            File file = new File(path);
-            if (file.exists()) {
-                result = 31 * result + (int) file.lastModified();
+            update(digest, path);
+            Path root = Path.of(path);
+            if (Files.exists(root)) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : files.filter(Files::isRegularFile)
+                            .sorted()
+                            .toList()) {
+                        update(digest, root.relativize(file).toString());
+                        try (InputStream in = Files.newInputStream(file)) {
+                            in.transferTo(new DigestOutputStream(
+                                    OutputStream.nullOutputStream(), digest));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
         }
-        result = Math.abs(result);
-        return result;
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
     }
 }
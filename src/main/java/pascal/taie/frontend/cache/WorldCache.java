@@ -0,0 +1,479 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.World;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.language.classes.ClassMember;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassLoader;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary file of the cached world. The file consists of
+ * <ol>
+ *     <li>a header, i.e., magic number, format version, and the cache key
+ *     which identifies the program (see {@link CachedWorldBuilder});</li>
+ *     <li>the {@link IR}s, each in a separately addressable segment;</li>
+ *     <li>the shared segment, which contains the {@link World} (without IRs),
+ *     the symbol table, the class-descriptor table,
+ *     and the index of IR segments;</li>
+ *     <li>a footer which locates the shared segment.</li>
+ * </ol>
+ * The world elements referenced by IRs, i.e., classes, class members,
+ * member references, types and subsignatures, are stored only once
+ * in the symbol table, and each IR segment refers to them by their
+ * indexes in the table. Similarly, class descriptors of Java serialization
+ * are replaced by indexes in the class-descriptor table. This keeps IR
+ * segments compact and independent of each other.
+ * <p>
+ * The file is read via memory-mapped I/O. To support files larger than 2GB,
+ * the file is mapped in chunks, and no segment crosses chunk boundaries.
+ */
+final class WorldCache {
+
+    private static final int MAGIC = 0x7A1E_CAC4;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Size of memory-mapped chunks.
+     */
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    /**
+     * Size of the footer, i.e., offset (long) and length (int)
+     * of the shared segment, and magic number (int).
+     */
+    private static final int FOOTER_SIZE = 16;
+
+    private final MappedByteBuffer[] chunks;
+
+    private final World world;
+
+    private final Object[] symbols;
+
+    private final ObjectStreamClass[] classDescs;
+
+    private final JMethod[] methods;
+
+    private final long[] irOffsets;
+
+    private final int[] irLengths;
+
+    private WorldCache(MappedByteBuffer[] chunks, World world,
+                       Object[] symbols, ObjectStreamClass[] classDescs,
+                       JMethod[] methods, long[] irOffsets, int[] irLengths) {
+        this.chunks = chunks;
+        this.world = world;
+        this.symbols = symbols;
+        this.classDescs = classDescs;
+        this.methods = methods;
+        this.irOffsets = irOffsets;
+        this.irLengths = irLengths;
+    }
+
+    /**
+     * @return the cached world. Note that the IR builder of the world
+     * is not set, and the IRs should be read via {@link #readIR(int)}.
+     */
+    World getWorld() {
+        return world;
+    }
+
+    /**
+     * @return number of IRs in the cache.
+     */
+    int getIRCount() {
+        return methods.length;
+    }
+
+    /**
+     * @return the method of the i-th IR in the cache.
+     */
+    JMethod getMethod(int i) {
+        return methods[i];
+    }
+
+    /**
+     * Decodes the i-th IR in the cache.
+     */
+    IR readIR(int i) throws IOException {
+        try (SymbolInputStream in = new SymbolInputStream(
+                slice(irOffsets[i], irLengths[i]))) {
+            return (IR) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ByteBuffer slice(long offset, int length) {
+        return slice(chunks, offset, length);
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer[] chunks,
+                                    long offset, int length) {
+        int chunk = (int) (offset / CHUNK_SIZE);
+        int pos = (int) (offset % CHUNK_SIZE);
+        return chunks[chunk].slice(pos, length);
+    }
+
+    /**
+     * Opens the world cache in {@code file}.
+     *
+     * @throws IOException if the file is not a valid world cache file,
+     *                     or its key does not match {@code key}.
+     */
+    static WorldCache open(File file, String key) throws IOException {
+        MappedByteBuffer[] chunks;
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_SIZE) {
+                throw new StreamCorruptedException("Truncated world cache");
+            }
+            chunks = new MappedByteBuffer[(int) ((size - 1) / CHUNK_SIZE + 1)];
+            for (int i = 0; i < chunks.length; ++i) {
+                long start = (long) i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        start, Math.min(CHUNK_SIZE, size - start));
+            }
+        }
+        // check header
+        DataInputStream header = new DataInputStream(
+                new ByteBufferInputStream(chunks[0].duplicate()));
+        if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+            throw new StreamCorruptedException("Incompatible world cache");
+        }
+        String cachedKey = header.readUTF();
+        if (!cachedKey.equals(key)) {
+            throw new StreamCorruptedException("Mismatched world cache key: "
+                    + cachedKey + ", expected: " + key);
+        }
+        // read footer
+        MappedByteBuffer last = chunks[chunks.length - 1];
+        ByteBuffer footer = last.duplicate().position(last.limit() - FOOTER_SIZE);
+        long sharedOffset = footer.getLong();
+        int sharedLength = footer.getInt();
+        if (footer.getInt() != MAGIC) {
+            throw new StreamCorruptedException("Truncated world cache");
+        }
+        // read shared segment
+        try (ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(
+                slice(chunks, sharedOffset, sharedLength)))) {
+            World world = (World) in.readObject();
+            Object[] symbols = (Object[]) in.readObject();
+            String[] classNames = (String[]) in.readObject();
+            ObjectStreamClass[] classDescs = new ObjectStreamClass[classNames.length];
+            for (int i = 0; i < classNames.length; ++i) {
+                classDescs[i] = ObjectStreamClass.lookupAny(Class.forName(
+                        classNames[i], false, WorldCache.class.getClassLoader()));
+            }
+            int[] methodSymbols = (int[]) in.readObject();
+            JMethod[] methods = Arrays.stream(methodSymbols)
+                    .mapToObj(i -> (JMethod) symbols[i])
+                    .toArray(JMethod[]::new);
+            long[] irOffsets = (long[]) in.readObject();
+            int[] irLengths = (int[]) in.readObject();
+            return new WorldCache(chunks, world, symbols, classDescs,
+                    methods, irOffsets, irLengths);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Saves {@code world} and the IRs of {@code methods} to {@code file}.
+     */
+    static void save(World world, List<JMethod> methods,
+                     File file, String key) throws IOException {
+        Map<Object, Integer> symbolIndexes = Maps.newMap();
+        List<Object> symbols = new ArrayList<>();
+        Map<String, Integer> classIndexes = Maps.newMap();
+        List<String> classNames = new ArrayList<>();
+        int[] methodSymbols = new int[methods.size()];
+        long[] irOffsets = new long[methods.size()];
+        int[] irLengths = new int[methods.size()];
+        try (PositionOutputStream out = new PositionOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            // write header
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeUTF(key);
+            header.flush();
+            // write IR segments
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+            for (int i = 0; i < methods.size(); ++i) {
+                JMethod method = methods.get(i);
+                buffer.reset();
+                try (SymbolOutputStream irOut = new SymbolOutputStream(buffer,
+                        symbolIndexes, symbols, classIndexes, classNames)) {
+                    irOut.writeObject(method.getIR());
+                }
+                methodSymbols[i] = symbolIndexes.computeIfAbsent(method, m -> {
+                    symbols.add(m);
+                    return symbols.size() - 1;
+                });
+                irOffsets[i] = writeSegment(out, buffer);
+                irLengths[i] = buffer.size();
+            }
+            // write shared segment
+            buffer.reset();
+            try (ObjectOutputStream sharedOut = new ObjectOutputStream(buffer)) {
+                sharedOut.writeObject(world);
+                sharedOut.writeObject(symbols.toArray());
+                sharedOut.writeObject(classNames.toArray(new String[0]));
+                sharedOut.writeObject(methodSymbols);
+                sharedOut.writeObject(irOffsets);
+                sharedOut.writeObject(irLengths);
+            }
+            long sharedOffset = writeSegment(out, buffer);
+            // write footer, which must be in the last chunk
+            if ((out.position() + FOOTER_SIZE - 1) / CHUNK_SIZE
+                    != out.position() / CHUNK_SIZE) {
+                pad(out, CHUNK_SIZE - (int) (out.position() % CHUNK_SIZE));
+            }
+            DataOutputStream footer = new DataOutputStream(out);
+            footer.writeLong(sharedOffset);
+            footer.writeInt(buffer.size());
+            footer.writeInt(MAGIC);
+            footer.flush();
+        }
+    }
+
+    /**
+     * Writes the segment in {@code buffer} to {@code out}, and pads
+     * the output if necessary so that the segment does not cross
+     * chunk boundaries.
+     *
+     * @return the offset of the segment.
+     */
+    private static long writeSegment(PositionOutputStream out,
+                                     ByteArrayOutputStream buffer) throws IOException {
+        int length = buffer.size();
+        if (length > CHUNK_SIZE) {
+            throw new IOException("Segment is too large: " + length + " bytes");
+        }
+        int remaining = CHUNK_SIZE - (int) (out.position() % CHUNK_SIZE);
+        if (length > remaining) {
+            pad(out, remaining);
+        }
+        long offset = out.position();
+        buffer.writeTo(out);
+        return offset;
+    }
+
+    private static void pad(OutputStream out, int length) throws IOException {
+        byte[] zeros = new byte[Math.min(length, 1 << 16)];
+        while (length > 0) {
+            int n = Math.min(length, zeros.length);
+            out.write(zeros, 0, n);
+            length -= n;
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code o} should be stored in the symbol table.
+     */
+    private static boolean isSymbol(Object o) {
+        return o instanceof Type
+                || o instanceof JClass
+                || o instanceof ClassMember
+                || o instanceof MemberRef
+                || o instanceof JClassLoader
+                || o instanceof Subsignature;
+    }
+
+    /**
+     * Reference to an entry of the symbol table.
+     */
+    private record Symbol(int index) implements Serializable {
+    }
+
+    /**
+     * Object output stream which replaces symbols and class descriptors
+     * by their indexes in the corresponding tables.
+     */
+    private static class SymbolOutputStream extends ObjectOutputStream {
+
+        private final Map<Object, Integer> symbolIndexes;
+
+        private final List<Object> symbols;
+
+        private final Map<String, Integer> classIndexes;
+
+        private final List<String> classNames;
+
+        private SymbolOutputStream(OutputStream out,
+                                   Map<Object, Integer> symbolIndexes,
+                                   List<Object> symbols,
+                                   Map<String, Integer> classIndexes,
+                                   List<String> classNames) throws IOException {
+            super(out);
+            this.symbolIndexes = symbolIndexes;
+            this.symbols = symbols;
+            this.classIndexes = classIndexes;
+            this.classNames = classNames;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (isSymbol(obj)) {
+                return new Symbol(symbolIndexes.computeIfAbsent(obj, o -> {
+                    symbols.add(o);
+                    return symbols.size() - 1;
+                }));
+            }
+            return obj;
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass desc)
+                throws IOException {
+            writeInt(classIndexes.computeIfAbsent(desc.getName(), name -> {
+                classNames.add(name);
+                return classNames.size() - 1;
+            }));
+        }
+    }
+
+    /**
+     * Object input stream which resolves the symbols and class
+     * descriptors written by {@link SymbolOutputStream}.
+     */
+    private class SymbolInputStream extends ObjectInputStream {
+
+        private SymbolInputStream(ByteBuffer buffer) throws IOException {
+            super(new ByteBufferInputStream(buffer));
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) {
+            return obj instanceof Symbol symbol ? symbols[symbol.index()] : obj;
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException {
+            return classDescs[readInt()];
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static class PositionOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        private long position;
+
+        private PositionOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        private long position() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++position;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -26,11 +26,20 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JClassLoader;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import soot.Scene;
 import soot.SootClass;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 class SootClassLoader implements JClassLoader {
 
@@ -42,7 +51,7 @@ class SootClassLoader implements JClassLoader {
 
     private transient Converter converter;
 
-    private final Map<String, JClass> classes = Maps.newMap(1024);
+    private final ConcurrentMap<String, JClass> classes = Maps.newConcurrentMap(1024);
 
     SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom) {
         this.scene = scene;
@@ -54,6 +63,15 @@ class SootClassLoader implements JClassLoader {
     public JClass loadClass(String name) {
         JClass jclass = classes.get(name);
         if (jclass == null && scene != null) {
+            jclass = loadNewClass(name);
+        }
+        // TODO: add warning for missing classes
+        return jclass;
+    }
+
+    private synchronized JClass loadNewClass(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass == null) {
             SootClass sootClass = scene.getSootClassUnsafe(name, false);
             if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
                 // TODO: handle phantom class more comprehensively
@@ -68,10 +86,79 @@ class SootClassLoader implements JClassLoader {
                 hierarchy.addClass(jclass);
             }
         }
-        // TODO: add warning for missing classes
         return jclass;
     }
 
+    /**
+     * Loads {@code sootClasses} with {@code nThreads} threads.
+     * The new classes are first created and registered in this loader
+     * sequentially, then built in parallel, and finally added to
+     * the class hierarchy in the same order as they are added when
+     * loaded one by one by {@link #loadClass(String)}, so that the
+     * indexes of the loaded classes do not depend on {@code nThreads}.
+     */
+    void loadClasses(List<SootClass> sootClasses, int nThreads) {
+        List<SootClass> newSootClasses = new ArrayList<>();
+        List<JClass> newClasses = new ArrayList<>();
+        for (SootClass sootClass : sootClasses) {
+            String name = sootClass.getName();
+            if (!classes.containsKey(name)
+                    && (!sootClass.isPhantom() || allowPhantom)) {
+                JClass jclass = new JClass(this, name, sootClass.moduleName);
+                classes.put(name, jclass);
+                newSootClasses.add(sootClass);
+                newClasses.add(jclass);
+            }
+        }
+        // build classes in parallel, each thread takes
+        // the classes whose positions are congruent to its id
+        ExecutorService service = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(nThreads);
+            for (int t = 0; t < nThreads; ++t) {
+                int start = t;
+                futures.add(service.submit(() -> {
+                    for (int i = start; i < newClasses.size(); i += nThreads) {
+                        new SootClassBuilder(converter, newSootClasses.get(i))
+                                .build(newClasses.get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SootFrontendException("Interrupted while building classes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new SootFrontendException("Failed to build classes", e.getCause());
+        } finally {
+            service.shutdownNow();
+        }
+        Set<JClass> pending = Sets.newSet(newClasses);
+        newClasses.forEach(c -> addClass(c, pending));
+    }
+
+    /**
+     * Adds {@code jclass} to the class hierarchy if it is pending,
+     * after its superclass, interfaces and outer class, which
+     * {@link #loadNewClass(String)} loads (and adds) when building
+     * {@code jclass}.
+     */
+    private void addClass(@Nullable JClass jclass, Set<JClass> pending) {
+        if (jclass != null && pending.remove(jclass)) {
+            addClass(jclass.getSuperClass(), pending);
+            jclass.getInterfaces().forEach(i -> addClass(i, pending));
+            addClass(jclass.getOuterClass(), pending);
+            hierarchy.addClass(jclass);
+        }
+    }
+
     @Override
     public Collection<JClass> getLoadedClasses() {
         return classes.values();
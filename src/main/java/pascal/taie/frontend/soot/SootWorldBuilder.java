@@ -39,10 +39,12 @@ import pascal.taie.language.classes.StringReps;
 import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.language.type.TypeSystemImpl;
+import pascal.taie.util.Timer;
 import soot.G;
 import soot.PackManager;
 import soot.Scene;
 import soot.SceneTransformer;
+import soot.SootClass;
 import soot.SootResolver;
 import soot.Transform;
 
@@ -215,7 +217,7 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         Converter converter = new Converter(loader, typeSystem);
         loader.setConverter(converter);
         // build classes in hierarchy
-        buildClasses(hierarchy, scene);
+        buildClasses(loader, scene, options.getBuildThreads());
         // set main method
         if (options.getMainClass() != null) {
             if (scene.hasMainClass()) {
@@ -245,10 +247,15 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         }
     }
 
-    protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
-        // TODO: parallelize?
-        new ArrayList<>(scene.getClasses()).forEach(c ->
-                hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+    private static void buildClasses(
+            SootClassLoader loader, Scene scene, int nThreads) {
+        List<SootClass> classes = new ArrayList<>(scene.getClasses());
+        if (nThreads > 1) {
+            Timer.runAndCount(() -> loader.loadClasses(classes, nThreads),
+                    "Build classes with " + nThreads + " threads");
+        } else {
+            classes.forEach(c -> loader.loadClass(c.getName()));
+        }
     }
 
     private static void runSoot(String[] args) {
@@ -33,7 +33,6 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.HybridBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
-import pascal.taie.util.collection.TwoKeyMap;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -82,9 +81,11 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     private final MultiMap<JClass, JClass> directInnerClasses = Maps.newMultiMap();
 
     /**
-     * Cache results of method dispatch.
+     * Cache results of method dispatch. This cache is concurrent, as
+     * the analyses executed concurrently (see option
+     * {@code --analysis-threads}) may dispatch methods at the same time.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final Map<JClass, Map<Subsignature, JMethod>> dispatchTable = Maps.newConcurrentMap();
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
@@ -122,7 +123,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     }
 
     @Override
-    public void addClass(JClass jclass) {
+    public synchronized void addClass(JClass jclass) {
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -331,11 +332,13 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             return null;
         }
         Subsignature subsignature = methodRef.getSubsignature();
-        JMethod target = dispatchTable.get(receiverClass, subsignature);
+        Map<Subsignature, JMethod> targets = dispatchTable.computeIfAbsent(
+                receiverClass, __ -> Maps.newConcurrentMap());
+        JMethod target = targets.get(subsignature);
         if (target == null) {
             target = lookupMethod(receiverClass, subsignature, false);
             if (target != null) {
-                dispatchTable.put(receiverClass, subsignature, target);
+                targets.put(subsignature, target);
             } else {
                 logger.debug("Failed to dispatch {} on {}",
                         subsignature, receiverClass);
@@ -73,10 +73,12 @@ public class JMethod extends ClassMember {
 
     /**
      * Notes: This field is {@code transient} because it is serialized separately.
+     * It is {@code volatile} as the IR is lazily built and may be requested
+     * by multiple analysis threads.
      *
      * @see pascal.taie.frontend.cache.CachedIRBuilder
      */
-    private transient IR ir;
+    private transient volatile IR ir;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -181,18 +183,25 @@ public class JMethod extends ClassMember {
     }
 
     public IR getIR() {
-        if (ir == null) {
+        IR result = ir;
+        if (result == null) {
             if (isAbstract()) {
                 throw new AnalysisException("Abstract method " + this +
                         " has no method body");
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    if (isNative()) {
+                        result = World.get().getNativeModel().buildNativeIR(this);
+                    } else {
+                        result = World.get().getIRBuilder().buildIR(this);
+                    }
+                    ir = result;
+                }
             }
         }
-        return ir;
+        return result;
     }
 
     /**
@@ -25,11 +25,17 @@ package pascal.taie.util;
 import pascal.taie.util.collection.Maps;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
 /**
  * Map-based implementation for {@link ResultHolder}.
+ * The results are guarded by the lock of this holder, so that
+ * analyses running concurrently can store and query results safely.
+ * Results given by suppliers are computed outside the lock, thus a supplier
+ * may run more than once for the same key, but only the first stored
+ * result is kept and returned.
  */
 public abstract class AbstractResultHolder implements ResultHolder {
 
@@ -39,42 +45,54 @@ public abstract class AbstractResultHolder implements ResultHolder {
     private final transient Map<String, Object> results = Maps.newHybridMap();
 
     @Override
-    public <R> void storeResult(String key, R result) {
+    public synchronized <R> void storeResult(String key, R result) {
         results.put(key, result);
     }
 
     @Override
-    public boolean hasResult(String key) {
+    public synchronized boolean hasResult(String key) {
         return results.containsKey(key);
     }
 
     @Override
-    public <R> R getResult(String key) {
+    public synchronized <R> R getResult(String key) {
         return (R) results.get(key);
     }
 
     @Override
-    public <R> R getResult(String key, R defaultResult) {
+    public synchronized <R> R getResult(String key, R defaultResult) {
         return (R) results.getOrDefault(key, defaultResult);
     }
 
     @Override
     public <R> R getResult(String key, Supplier<R> supplier) {
-        return (R) results.computeIfAbsent(key, __ -> supplier.get());
+        R result = getResult(key);
+        if (result == null) {
+            // compute the result outside the lock, so that a slow supplier
+            // does not block the other analyses that access this holder
+            R newResult = supplier.get();
+            synchronized (this) {
+                result = (R) results.putIfAbsent(key, newResult);
+            }
+            if (result == null) {
+                result = newResult;
+            }
+        }
+        return result;
     }
 
     @Override
-    public Collection<String> getKeys() {
-        return results.keySet();
+    public synchronized Collection<String> getKeys() {
+        return List.copyOf(results.keySet());
     }
 
     @Override
-    public void clearResult(String key) {
+    public synchronized void clearResult(String key) {
         results.remove(key);
     }
 
     @Override
-    public void clearAll() {
+    public synchronized void clearAll() {
         results.clear();
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.LiveVariable;
+import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
+import pascal.taie.analysis.dataflow.analysis.availexp.AvailableExpression;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.misc.ResultProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the ways of executing an analysis plan
+ * do not change the results of the analyses.
+ */
+public class AnalysisManagerTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/";
+
+    private static final String INPUT_CLASSES = "Interprocedural,Loop,BranchConstant,BinaryOp";
+
+    private static final List<String> ANALYSES = List.of(
+            LiveVariable.ID,
+            ReachingDefinition.ID,
+            AvailableExpression.ID,
+            ConstantPropagation.ID);
+
+    @Test
+    void testAnalysisThreads() {
+        String file = "output/analysis-threads-expected.txt";
+        run("dump", file);
+        Set<String> mismatches = run("compare", file,
+                "--analysis-threads", "4");
+        assertTrue(mismatches.isEmpty(),
+                "Mismatches of concurrent execution:\n" +
+                        String.join("\n", mismatches));
+    }
+
+    @Test
+    void testFuseMethodAnalyses() {
+        String file = "output/fuse-method-analyses-expected.txt";
+        run("dump", file);
+        Set<String> mismatches = run("compare", file,
+                "--fuse-method-analyses");
+        assertTrue(mismatches.isEmpty(),
+                "Mismatches of fused execution:\n" +
+                        String.join("\n", mismatches));
+    }
+
+    /**
+     * Runs {@link #ANALYSES} on the test classes, and processes their
+     * results by given action and file.
+     *
+     * @return mismatches found by {@link ResultProcessor}.
+     */
+    private static Set<String> run(String action, String file, String... opts) {
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        Collections.addAll(args, "-cp", CLASS_PATH);
+        Collections.addAll(args, "--input-classes", INPUT_CLASSES);
+        Collections.addAll(args, opts);
+        ANALYSES.forEach(id -> Collections.addAll(args, "-a", id));
+        Collections.addAll(args, "-a", String.format(
+                "%s=analyses:[%s];action:%s;action-file:%s",
+                ResultProcessor.ID, String.join(",", ANALYSES), action, file));
+        Main.main(args.toArray(new String[0]));
+        return World.get().getResult(ResultProcessor.ID);
+    }
+}
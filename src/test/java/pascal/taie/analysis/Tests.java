@@ -97,6 +97,44 @@ public final class Tests {
         test(inputClass, false, classPath, id, opts);
     }
 
+    /**
+     * Starts an analysis for a specific test case, and compares its results
+     * with the expected results of another analysis, which should produce
+     * the same results, e.g., an alternative implementation of the analysis.
+     * Do not require a main method in the given class.
+     *
+     * @param inputClass the input class to be analyzed
+     * @param classPath  where the input class is located
+     * @param id         ID of the analysis to be executed
+     * @param expectedId ID of the analysis whose expected results are used
+     * @param opts       options for the analysis
+     */
+    public static void testInputAgainst(String inputClass, String classPath,
+                                        String id, String expectedId,
+                                        String... opts) {
+        String file = getExpectedFile(classPath, inputClass, id);
+        if (!GENERATE_EXPECTED_RESULTS) {
+            // rename the analysis in the expected results to id
+            file = getExpectedFile(classPath, inputClass, expectedId);
+            try {
+                String expectedHeader = " (" + expectedId + ") ----------";
+                String header = " (" + id + ") ----------";
+                List<String> lines = Files.readAllLines(Path.of(file))
+                        .stream()
+                        .map(line -> line.replace(expectedHeader, header))
+                        .toList();
+                Path renamed = Path.of("output", String.format(
+                        "%s-%s-expected.txt", inputClass, id));
+                Files.createDirectories(renamed.getParent());
+                Files.write(renamed, lines);
+                file = renamed.toString();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to prepare expected file from " + file, e);
+            }
+        }
+        test(inputClass, false, classPath, id, file, opts);
+    }
+
     /**
      * Starts an analysis for a specific test case.
      *
@@ -108,6 +146,17 @@ public final class Tests {
      */
     private static void test(String clz, boolean isMainClass,
                              String classPath, String id, String... opts) {
+        test(clz, isMainClass, classPath, id,
+                getExpectedFile(classPath, clz, id), opts);
+    }
+
+    /**
+     * Starts an analysis for a specific test case, and processes
+     * its results with given expected file.
+     */
+    private static void test(String clz, boolean isMainClass,
+                             String classPath, String id,
+                             String expectedFile, String... opts) {
         List<String> args = new ArrayList<>();
         args.add("-pp");
         Collections.addAll(args, "-cp", classPath);
@@ -133,9 +182,8 @@ public final class Tests {
         }
         // set up result processor
         String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
-        String file = getExpectedFile(classPath, clz, id);
         String processArg = String.format("%s=analyses:[%s];action:%s;action-file:%s",
-                ResultProcessor.ID, id, action, file);
+                ResultProcessor.ID, id, action, expectedFile);
         Collections.addAll(args, "-a", processArg);
         Main.main(args.toArray(new String[0]));
         if (action.equals("compare")) {
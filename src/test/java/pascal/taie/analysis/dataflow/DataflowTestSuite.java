@@ -29,6 +29,8 @@ import pascal.taie.analysis.dataflow.analysis.LiveVarTestFull;
 import pascal.taie.analysis.dataflow.analysis.ReachDefTest;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPTestSuite;
 import pascal.taie.analysis.dataflow.fact.FactTest;
+import pascal.taie.analysis.dataflow.ifds.TaintedVariableTest;
+import pascal.taie.analysis.dataflow.solver.RPOWorkListTest;
 
 @Suite
 @SelectClasses({
@@ -37,6 +39,8 @@ import pascal.taie.analysis.dataflow.fact.FactTest;
         LiveVarTestFull.class,
         ReachDefTest.class,
         AvailExpTest.class,
+        TaintedVariableTest.class,
+        RPOWorkListTest.class,
 })
 public class DataflowTestSuite {
 }
@@ -33,4 +33,16 @@ public class AvailExpTest {
         Tests.testInput("AvailExp", "src/test/resources/dataflow/",
                 AvailableExpression.ID);
     }
+
+    @Test
+    void testWorkListSolver() {
+        Tests.testInput("AvailExp", "src/test/resources/dataflow/",
+                AvailableExpression.ID, "bit-vector:false");
+    }
+
+    @Test
+    void testBlockSolver() {
+        Tests.testInput("AvailExp", "src/test/resources/dataflow/",
+                AvailableExpression.ID, "bit-vector:false;basic-block:true");
+    }
 }
@@ -33,6 +33,11 @@ public class LiveVarTest {
                 LiveVariable.ID, "strongly:false");
     }
 
+    void testLVWorkListSolver(String inputClass) {
+        Tests.testInput(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariable.ID, "strongly:false;bit-vector:false");
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "Assign",
@@ -44,6 +49,7 @@ public class LiveVarTest {
     })
     void test(String inputClass) {
         testLV(inputClass);
+        testLVWorkListSolver(inputClass);
     }
 
 }
@@ -31,6 +31,8 @@ public class LiveVarTestFull extends LiveVarTest {
     void testSLV(String inputClass) {
         Tests.testInput(inputClass, "src/test/resources/dataflow/livevar",
                 LiveVariable.ID, "strongly:true");
+        Tests.testInput(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariable.ID, "strongly:true;basic-block:true");
     }
 
     @ParameterizedTest
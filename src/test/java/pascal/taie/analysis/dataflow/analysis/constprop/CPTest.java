@@ -31,6 +31,8 @@ public class CPTest {
     void testCP(String inputClass) {
         Tests.testInput(inputClass, "src/test/resources/dataflow/constprop/",
                 ConstantPropagation.ID, "edge-refine:false");
+        Tests.testInput(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;basic-block:true");
     }
 
     @ParameterizedTest
@@ -32,4 +32,10 @@ public class EdgeRefineTest {
         Tests.testInput("EdgeRefine", "src/test/resources/dataflow/constprop/",
                 ConstantPropagation.ID, "edge-refine:true");
     }
+
+    @Test
+    void testBlockSolver() {
+        Tests.testInput("EdgeRefine", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:true;basic-block:true");
+    }
 }
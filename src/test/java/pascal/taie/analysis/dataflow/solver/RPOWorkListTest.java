@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.graph.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RPOWorkListTest {
+
+    /**
+     * 0 -> 1 -> 3 -> 5, 0 -> 2 -> 3, 3 -> 1 (back edge),
+     * and 4 is unreachable from 0.
+     */
+    private static SimpleGraph<Integer> makeGraph() {
+        SimpleGraph<Integer> graph = new SimpleGraph<>();
+        for (int i = 0; i <= 5; ++i) {
+            graph.addNode(i);
+        }
+        graph.addEdge(0, 1);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 1);
+        graph.addEdge(3, 5);
+        graph.addEdge(4, 5);
+        return graph;
+    }
+
+    private static List<Integer> pollAll(RPOWorkList workList) {
+        List<Integer> result = new ArrayList<>();
+        int node;
+        while ((node = workList.poll()) >= 0) {
+            result.add(node);
+        }
+        return result;
+    }
+
+    @Test
+    void testForwardOrder() {
+        SimpleGraph<Integer> graph = makeGraph();
+        RPOWorkList workList = new RPOWorkList(graph, 0, i -> i, i -> i, true);
+        workList.addAllExcept(-1);
+        List<Integer> order = pollAll(workList);
+        assertEquals(6, order.size());
+        assertEquals(0, order.get(0));
+        assertTrue(order.indexOf(1) < order.indexOf(3));
+        assertTrue(order.indexOf(2) < order.indexOf(3));
+        assertTrue(order.indexOf(3) < order.indexOf(5));
+        // unreachable node comes last
+        assertEquals(4, order.get(5));
+        assertTrue(workList.isEmpty());
+    }
+
+    @Test
+    void testBackwardOrder() {
+        SimpleGraph<Integer> graph = makeGraph();
+        RPOWorkList workList = new RPOWorkList(graph, 5, i -> i, i -> i, false);
+        workList.addAllExcept(5);
+        List<Integer> order = pollAll(workList);
+        assertEquals(5, order.size());
+        // 4 reaches 5, thus it is not placed last
+        assertTrue(order.contains(4));
+        assertTrue(order.indexOf(3) < order.indexOf(1));
+        assertTrue(order.indexOf(3) < order.indexOf(2));
+        assertTrue(order.indexOf(1) < order.indexOf(0));
+        assertTrue(order.indexOf(2) < order.indexOf(0));
+    }
+
+    @Test
+    void testAddAndPoll() {
+        SimpleGraph<Integer> graph = makeGraph();
+        RPOWorkList workList = new RPOWorkList(graph, 0, i -> i, i -> i, true);
+        workList.add(3);
+        workList.add(3);
+        workList.add(1);
+        assertEquals(1, workList.poll());
+        // re-adding a node before the current position is still handled
+        workList.add(0);
+        assertEquals(0, workList.poll());
+        assertEquals(3, workList.poll());
+        assertEquals(-1, workList.poll());
+        assertTrue(workList.isEmpty());
+    }
+}
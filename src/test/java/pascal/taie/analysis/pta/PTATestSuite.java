@@ -35,6 +35,7 @@ import pascal.taie.analysis.pta.core.cs.context.ContextTest;
         LambdaTest.class,
         Java9StringConcatTest.class,
         ReflectionTest.class,
+        SolverTest.class,
         TaintTest.class,
         WorldCacheTest.class,
 })
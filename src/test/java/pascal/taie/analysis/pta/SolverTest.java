@@ -0,0 +1,108 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.analysis.Tests;
+import pascal.taie.util.MultiStringsSource;
+
+import java.io.File;
+
+/**
+ * Tests optional solving strategies of pointer analysis solver,
+ * which must produce the same results as the default strategy.
+ */
+public class SolverTest {
+
+    @ParameterizedTest
+    @MultiStringsSource({"basic", "LinkedQueue", "parallel-threads:4"})
+    @MultiStringsSource({"basic", "RedBlackBST", "parallel-threads:4"})
+    @MultiStringsSource({"basic", "Recursion", "parallel-threads:4"})
+    @MultiStringsSource({"basic", "Cycle", "parallel-threads:4"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject",
+            "cs:2-obj;parallel-threads:4"})
+    @MultiStringsSource({"basic", "Cycle", "worklist-order:topo;parallel-threads:4"})
+    @MultiStringsSource({"taint", "SimpleTaint", "parallel-threads:4;"
+            + "taint-config:src/test/resources/pta/taint/taint-config.yml"})
+    @MultiStringsSource({"basic", "LinkedQueue", "worklist-order:lifo"})
+    @MultiStringsSource({"basic", "RedBlackBST", "worklist-order:lrf"})
+    @MultiStringsSource({"basic", "Cycle", "worklist-order:topo"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject",
+            "cs:2-obj;worklist-order:topo"})
+    @MultiStringsSource({"basic", "Cycle", "collapse-cycles:true"})
+    @MultiStringsSource({"basic", "Recursion", "collapse-cycles:true"})
+    @MultiStringsSource({"basic", "ComplexAssign", "collapse-cycles:true"})
+    @MultiStringsSource({"basic", "LinkedQueue",
+            "collapse-cycles:true;parallel-threads:4"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject",
+            "cs:2-obj;collapse-cycles:true;worklist-order:topo"})
+    @MultiStringsSource({"taint", "SimpleTaint", "collapse-cycles:true;"
+            + "taint-config:src/test/resources/pta/taint/taint-config.yml"})
+    @MultiStringsSource({"taint", "CycleTaint", "collapse-cycles:true;"
+            + "taint-config:src/test/resources/pta/taint/taint-config.yml"})
+    @MultiStringsSource({"basic", "LinkedQueue", "cs-manager:array"})
+    @MultiStringsSource({"basic", "MultiArray", "cs-manager:array"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject",
+            "cs:2-obj;cs-manager:array"})
+    @MultiStringsSource({"contextsensitivity", "TwoCall",
+            "cs:2-call;cs-manager:array"})
+    @MultiStringsSource({"basic", "Array", "points-to-set:shared"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject",
+            "cs:2-obj;points-to-set:shared"})
+    @MultiStringsSource({"basic", "InstanceField",
+            "points-to-set:shared;parallel-threads:4"})
+    void test(String dir, String mainClass, String opts) {
+        Tests.testPTA(dir, mainClass, opts);
+    }
+
+    @ParameterizedTest
+    @MultiStringsSource({"basic", "LinkedQueue"})
+    @MultiStringsSource({"basic", "RedBlackBST"})
+    @MultiStringsSource({"basic", "Recursion"})
+    @MultiStringsSource({"basic", "InstanceField"})
+    @MultiStringsSource({"basic", "MultiArray"})
+    void testIncremental(String dir, String mainClass) {
+        File stateFile = new File("output", "incremental-" + mainClass + ".bin");
+        stateFile.delete();
+        String opts = "incremental:" + stateFile.getPath();
+        // the first run solves from scratch and saves solver state,
+        // and the second run reuses the saved state
+        Tests.testPTA(dir, mainClass, opts);
+        Tests.testPTA(dir, mainClass, opts);
+    }
+
+    @Test
+    void testIncrementalChange() {
+        File stateFile = new File("output", "incremental-change.bin");
+        stateFile.delete();
+        String opts = "incremental:" + stateFile.getPath();
+        // the first run analyzes the original program and saves solver state,
+        // the second run analyzes the changed program by retracting the facts
+        // affected by the changes, and it must produce the same result as
+        // a from-scratch run on the changed program
+        Tests.testPTA(false, "incremental/v1", "Incremental", opts);
+        Tests.testPTA("incremental/v2", "Incremental", opts);
+        Tests.testPTA("incremental/v2", "Incremental");
+    }
+}
@@ -22,10 +22,22 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.MultiStringsSource;
 
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class TaintTest {
 
     static final String DIR = "taint";
@@ -53,6 +65,7 @@ public class TaintTest {
     @MultiStringsSource({"TaintInList", "cs:2-obj;" + TAINT_CONFIG})
     @MultiStringsSource({"BackPropagation", TAINT_CONFIG})
     @MultiStringsSource({"CSBackPropagation", "cs:1-obj;" + TAINT_CONFIG})
+    @MultiStringsSource({"SameBaseBackPropagation", TAINT_CONFIG})
     @MultiStringsSource({"StaticTaintTransfer", TAINT_CONFIG_PREFIX
             + "taint-config-static-taint-transfer.yml"})
     @MultiStringsSource({"InstanceSourceSink", TAINT_CONFIG_PREFIX
@@ -68,4 +81,27 @@ public class TaintTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    @Test
+    void testSummaries() {
+        Tests.testPTA(false, DIR, "TaintSummary", "only-app:false;"
+                + TAINT_CONFIG_PREFIX + "taint-config-summaries.yml");
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        // taint flows through the summarized calls
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        assertEquals(2, taintFlows.size());
+        taintFlows.forEach(flow -> assertEquals("main",
+                flow.sinkPoint().sinkCall().getContainer().getName()));
+        // the bodies of summarized methods are not analyzed
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        JMethod wrap = hierarchy.getMethod(
+                "<TaintSummary: java.lang.String wrap(java.lang.String)>");
+        JMethod append = hierarchy.getMethod(
+                "<java.lang.StringBuilder: java.lang.StringBuilder append(java.lang.String)>");
+        for (JMethod method : List.of(wrap, append)) {
+            assertTrue(result.getPointsToSet(method.getIR().getParam(0)).isEmpty());
+            method.getIR().invokes(false).forEach(invoke ->
+                    assertTrue(result.getCallGraph().getCalleesOf(invoke).isEmpty()));
+        }
+    }
+
 }
@@ -0,0 +1,65 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.util.MultiStringsSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class ResultProcessorTest {
+
+    /**
+     * Dumps points-to sets in given format and compression, and feeds
+     * the dumped file back as the expected file of the same analysis.
+     * The comparison throws an exception if there is any mismatch.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"RedBlackBST", "text", "gzip"})
+    @MultiStringsSource({"RedBlackBST", "binary", "none"})
+    @MultiStringsSource({"RedBlackBST", "binary", "gzip"})
+    @MultiStringsSource({"Array", "binary", "none"})
+    @MultiStringsSource({"Array", "binary", "gzip"})
+    void testRoundTrip(String main, String format, String compression)
+            throws IOException {
+        Tests.testPTA(false, "basic", main, "dump:true",
+                "dump-format:" + format, "dump-compression:" + compression);
+        String fileName = format.equals("binary")
+                ? ResultProcessor.RESULTS_BINARY_FILE
+                : ResultProcessor.RESULTS_FILE;
+        if (compression.equals("gzip")) {
+            fileName += ".gz";
+        }
+        File outputDir = World.get().getOptions().getOutputDir();
+        Path dumped = new File(outputDir, fileName).toPath();
+        Path expected = new File(outputDir, "round-trip-" + fileName).toPath();
+        Files.move(dumped, expected, StandardCopyOption.REPLACE_EXISTING);
+        Tests.testPTA(false, "basic", main, "expected-file:" + expected);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedPointsToSetTest {
+
+    private static final Descriptor DESC = () -> "TestObj";
+
+    private PointsToSetFactory factory;
+
+    private CSObj[] objs;
+
+    @BeforeEach
+    void setUp() {
+        CSManager csManager = new MapBasedCSManager();
+        TrieContext.Factory<Object> contextFactory = new TrieContext.Factory<>();
+        objs = new CSObj[8];
+        for (int i = 0; i < objs.length; ++i) {
+            objs[i] = csManager.getCSObj(contextFactory.getEmptyContext(),
+                    new MockObj(DESC, i, PrimitiveType.INT, null, false));
+        }
+        factory = new PointsToSetFactory(csManager.getObjectIndexer(), "shared");
+    }
+
+    private PointsToSet of(int... indexes) {
+        PointsToSet pts = factory.make();
+        for (int i : indexes) {
+            pts.addObject(objs[i]);
+        }
+        return pts;
+    }
+
+    private Set<CSObj> objectsOf(int... indexes) {
+        return of(indexes).getObjects();
+    }
+
+    @Test
+    void testAddObjectAfterCopy() {
+        PointsToSet s = of(0, 1);
+        PointsToSet copy = s.copy();
+        assertTrue(s.addObject(objs[2]));
+        assertFalse(s.addObject(objs[2]));
+        assertEquals(objectsOf(0, 1, 2), s.getObjects());
+        assertEquals(objectsOf(0, 1), copy.getObjects());
+        assertTrue(copy.addObject(objs[3]));
+        assertEquals(objectsOf(0, 1, 3), copy.getObjects());
+        assertEquals(objectsOf(0, 1, 2), s.getObjects());
+    }
+
+    @Test
+    void testAddExistingObjectAfterCopy() {
+        PointsToSet s = of(0, 1);
+        PointsToSet copy = s.copy();
+        assertFalse(s.addObject(objs[1]));
+        assertEquals(2, s.size());
+        assertEquals(s.getObjects(), copy.getObjects());
+    }
+
+    @Test
+    void testAddAllDoesNotAffectOperands() {
+        PointsToSet s1 = of(0, 1);
+        PointsToSet s2 = of(1, 2);
+        PointsToSet copy = s1.copy();
+        assertTrue(s1.addAll(s2));
+        assertFalse(s1.addAll(s2));
+        assertEquals(objectsOf(0, 1, 2), s1.getObjects());
+        assertEquals(objectsOf(1, 2), s2.getObjects());
+        assertEquals(objectsOf(0, 1), copy.getObjects());
+        // s1 and s2 are frozen now, so the additions are copy-on-write
+        assertTrue(s2.addObject(objs[3]));
+        assertFalse(s1.contains(objs[3]));
+        assertTrue(s1.addObject(objs[4]));
+        assertFalse(s2.contains(objs[4]));
+        assertFalse(copy.contains(objs[4]));
+    }
+
+    @Test
+    void testAddAllDiff() {
+        PointsToSet s1 = of(0, 1);
+        PointsToSet s2 = of(1, 2, 3);
+        PointsToSet diff = s1.addAllDiff(s2);
+        assertEquals(objectsOf(2, 3), diff.getObjects());
+        assertEquals(objectsOf(0, 1, 2, 3), s1.getObjects());
+        assertTrue(s1.addAllDiff(s2).isEmpty());
+        // the difference is an independent set
+        assertTrue(diff.addObject(objs[5]));
+        assertFalse(s1.contains(objs[5]));
+        assertFalse(s2.contains(objs[5]));
+    }
+
+    @Test
+    void testAddAllDiffAfterCopy() {
+        PointsToSet s1 = of(0);
+        PointsToSet copy = s1.copy();
+        PointsToSet diff = s1.addAllDiff(of(0, 4));
+        assertEquals(objectsOf(4), diff.getObjects());
+        assertEquals(objectsOf(0, 4), s1.getObjects());
+        assertEquals(objectsOf(0), copy.getObjects());
+    }
+
+    @Test
+    void testMemoizedOperations() {
+        PointsToSet s1 = of(0, 1);
+        PointsToSet s2 = of(2);
+        PointsToSet t1 = s1.copy();
+        PointsToSet t2 = s1.copy();
+        // the same union is computed twice, and must give equal results
+        assertEquals(objectsOf(2), t1.addAllDiff(s2).getObjects());
+        assertEquals(objectsOf(2), t2.addAllDiff(s2).getObjects());
+        assertEquals(t1.getObjects(), t2.getObjects());
+        assertTrue(t1.addObject(objs[6]));
+        assertFalse(t2.contains(objs[6]));
+        assertEquals(objectsOf(0, 1), s1.getObjects());
+    }
+}
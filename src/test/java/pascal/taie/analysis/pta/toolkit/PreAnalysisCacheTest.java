@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.plugin.ResultProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PreAnalysisCacheTest {
+
+    private static final String DIR = "contextsensitivity";
+
+    private static final String MAIN = "TwoObject";
+
+    /**
+     * Runs an advanced analysis twice with the same cache file.
+     * The first run computes and persists the result of the pre-analysis,
+     * and the second run should reuse the persisted result, i.e., solve
+     * only the main analysis, and produce the same points-to sets.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"scaler", "zipper", "mahjong"})
+    void testReuse(String advanced) throws IOException {
+        Path cache = Path.of("output", advanced + "-pre-analysis.cache");
+        Files.deleteIfExists(cache);
+        String[] opts = {
+                "cs:2-obj",
+                "advanced:" + advanced,
+                "pre-analysis-cache:" + cache,
+                "plugins:[" + SolverStartCounter.class.getName() + "]",
+        };
+        // the first run solves both pre-analysis and main analysis
+        SolverStartCounter.count = 0;
+        Tests.testPTA(false, DIR, MAIN, append(opts, "dump:true"));
+        assertEquals(2, SolverStartCounter.count);
+        assertTrue(Files.exists(cache));
+        File outputDir = World.get().getOptions().getOutputDir();
+        Path expected = new File(outputDir,
+                MAIN + "-" + advanced + "-pta-expected.txt").toPath();
+        Files.move(new File(outputDir, ResultProcessor.RESULTS_FILE).toPath(),
+                expected, StandardCopyOption.REPLACE_EXISTING);
+        // the second run reuses the cached result, and its points-to sets
+        // are compared with the ones of the first run
+        SolverStartCounter.count = 0;
+        Tests.testPTA(false, DIR, MAIN, append(opts, "expected-file:" + expected));
+        assertEquals(1, SolverStartCounter.count);
+    }
+
+    private static String[] append(String[] opts, String opt) {
+        String[] result = Arrays.copyOf(opts, opts.length + 1);
+        result[opts.length] = opt;
+        return result;
+    }
+
+    /**
+     * Counts the solvers started with this plugin.
+     */
+    public static class SolverStartCounter implements Plugin {
+
+        private static int count;
+
+        @Override
+        public void onStart() {
+            ++count;
+        }
+    }
+}
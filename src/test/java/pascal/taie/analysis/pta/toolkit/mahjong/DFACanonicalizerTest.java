@@ -0,0 +1,148 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that DFA have equal canonical forms if and only if
+ * they are equivalent according to {@link DFAEquivChecker}.
+ */
+public class DFACanonicalizerTest {
+
+    private static final Type A = PrimitiveType.INT;
+
+    private static final Type B = PrimitiveType.LONG;
+
+    private final Field.Factory fieldFactory = new Field.Factory();
+
+    private final JClass clazz = new JClass(null, "C");
+
+    private final Field f = fieldFactory.get(newField("f"));
+
+    private final Field g = fieldFactory.get(newField("g"));
+
+    private int objCounter = 0;
+
+    private JField newField(String name) {
+        return new JField(clazz, name, Set.of(), PrimitiveType.INT,
+                null, AnnotationHolder.emptyHolder());
+    }
+
+    /**
+     * Each state represents a distinct object, so that
+     * the states of different DFA are not equal.
+     */
+    private DFAState newState(Type... output) {
+        MockObj obj = new MockObj(() -> "TestObj", objCounter++,
+                PrimitiveType.INT, null, false);
+        return new DFAState(Set.of(obj), Set.of(output));
+    }
+
+    /**
+     * s0(A) -f-> s1(B) -f-> s1
+     */
+    private DFA loop() {
+        DFAState s0 = newState(A);
+        DFAState s1 = newState(B);
+        s0.addTransition(f, s1);
+        s1.addTransition(f, s1);
+        return new DFA(s0);
+    }
+
+    /**
+     * s0(A) -f-> s1(B) -f-> s2(lastOutput) -f-> s2,
+     * which is equivalent to {@link #loop()} if lastOutput is B.
+     */
+    private DFA unrolledLoop(Type... lastOutput) {
+        DFAState s0 = newState(A);
+        DFAState s1 = newState(B);
+        DFAState s2 = newState(lastOutput);
+        s0.addTransition(f, s1);
+        s1.addTransition(f, s2);
+        s2.addTransition(f, s2);
+        return new DFA(s0);
+    }
+
+    /**
+     * s0(A) -first-> s1(B), s0 -second-> s2(A)
+     */
+    private DFA twoFields(Field first, Field second) {
+        DFAState s0 = newState(A);
+        DFAState s1 = newState(B);
+        DFAState s2 = newState(A);
+        s0.addTransition(first, s1);
+        s0.addTransition(second, s2);
+        return new DFA(s0);
+    }
+
+    /**
+     * s0(A) -f-> s1(B), and s0 -g-> s2 if withEmptyState is true,
+     * where s2 has empty output and no out-edges, i.e.,
+     * it behaves the same as the dead state.
+     */
+    private DFA singleField(boolean withEmptyState) {
+        DFAState s0 = newState(A);
+        DFAState s1 = newState(B);
+        s0.addTransition(f, s1);
+        if (withEmptyState) {
+            s0.addTransition(g, newState());
+        }
+        return new DFA(s0);
+    }
+
+    private static void check(DFACanonicalizer canonicalizer,
+                              DFA dfa1, DFA dfa2, boolean expected) {
+        assertEquals(expected, new DFAEquivChecker().isEquivalent(dfa1, dfa2));
+        assertEquals(expected, canonicalizer.canonicalize(dfa1)
+                .equals(canonicalizer.canonicalize(dfa2)));
+    }
+
+    @Test
+    void testEquivalent() {
+        DFACanonicalizer canonicalizer = new DFACanonicalizer();
+        check(canonicalizer, loop(), loop(), true);
+        check(canonicalizer, loop(), unrolledLoop(B), true);
+        check(canonicalizer, twoFields(f, g), twoFields(f, g), true);
+        check(canonicalizer, singleField(false), singleField(true), true);
+    }
+
+    @Test
+    void testNonEquivalent() {
+        DFACanonicalizer canonicalizer = new DFACanonicalizer();
+        check(canonicalizer, loop(), unrolledLoop(A), false);
+        check(canonicalizer, loop(), unrolledLoop(A, B), false);
+        check(canonicalizer, twoFields(f, g), twoFields(g, f), false);
+        check(canonicalizer, singleField(false), twoFields(f, g), false);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.soot;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that building classes with multiple threads gives
+ * the same world (and analysis results) as building them sequentially.
+ */
+public class BuildThreadsTest {
+
+    @Test
+    void testSameWorld() {
+        List<String> hierarchy1 = build(1);
+        List<String> pta1 = getPTAResult();
+        List<String> hierarchy4 = build(4);
+        List<String> pta4 = getPTAResult();
+        assertEquals(hierarchy1, hierarchy4);
+        assertEquals(pta1, pta4);
+    }
+
+    private static List<String> build(int nThreads) {
+        Main.main("-pp",
+                "-cp", "src/test/resources/pta/contextsensitivity",
+                "-m", "LinkedQueue",
+                "--build-threads", Integer.toString(nThreads),
+                "-a", "pta=cs:2-obj;implicit-entries:false;only-app:true");
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        // classes in the order of their indexes, with their direct subtypes
+        return hierarchy.allClasses()
+                .sorted(Comparator.comparingInt(JClass::getIndex))
+                .map(c -> c.getIndex() + " " + c + " "
+                        + hierarchy.getDirectSubclassesOf(c)
+                        + hierarchy.getDirectSubinterfacesOf(c)
+                        + hierarchy.getDirectImplementorsOf(c)
+                        + hierarchy.getDirectInnerClassesOf(c))
+                .toList();
+    }
+
+    private static List<String> getPTAResult() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        return result.getVars()
+                .stream()
+                .map(v -> v.getMethod() + "/" + v.getName() + " -> "
+                        + result.getPointsToSet(v)
+                        .stream()
+                        .map(Object::toString)
+                        .sorted()
+                        .toList())
+                .sorted()
+                .toList();
+    }
+}
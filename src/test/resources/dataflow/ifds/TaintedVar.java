@@ -0,0 +1,32 @@
+class TaintedVar {
+
+    public static void main(String[] args) {
+        int x = source(1);
+        int y = x + x;
+        int z = id(y);
+        int w = id(other(2));
+        int v = twice(z);
+        use(v, w);
+    }
+
+    static int source(int n) {
+        return n;
+    }
+
+    static int other(int n) {
+        return n;
+    }
+
+    static int id(int p) {
+        return p;
+    }
+
+    static int twice(int q) {
+        int r = id(q);
+        return r + r;
+    }
+
+    static void use(int a, int b) {
+        int c = a + b;
+    }
+}
@@ -0,0 +1,27 @@
+class Incremental {
+
+    public static void main(String[] args) {
+        A a = new A();
+        Object o = a.get();
+        Object g = Util.init();
+        // field a.f is not set
+    }
+}
+
+class A {
+    Object f;
+
+    Object get() {
+        return new Object();
+    }
+}
+
+class Util {
+    static Object init() {
+        return G.f;
+    }
+}
+
+class G {
+    static Object f = new Object();
+}
@@ -0,0 +1,27 @@
+class Incremental {
+
+    public static void main(String[] args) {
+        A a = new A();
+        Object g = Util.init();
+        a.f = g;
+        Object o = a.get();
+    }
+}
+
+class A {
+    Object f;
+
+    Object get() {
+        return this.f;
+    }
+}
+
+class Util {
+    static Object init() {
+        return G.f;
+    }
+}
+
+class G {
+    static Object f = new Object();
+}
@@ -0,0 +1,22 @@
+class SameBaseBackPropagation {
+
+    private StringBuilder builder = new StringBuilder();
+
+    private StringBuffer buffer = new StringBuffer();
+
+    public static void main(String[] args) {
+        SameBaseBackPropagation sbbp = new SameBaseBackPropagation();
+        sbbp.taintTwoFields();
+    }
+
+    void taintTwoFields() {
+        String s1 = SourceSink.source();
+        builder.append(s1);
+        String s2 = builder.toString();
+        SourceSink.sink(s2); // taint
+        String s3 = SourceSink.source();
+        buffer.append(s3);
+        String s4 = buffer.toString();
+        SourceSink.sink(s4); // taint
+    }
+}
@@ -0,0 +1,17 @@
+class TaintSummary {
+
+    public static void main(String[] args) {
+        String taint = SourceSink.source();
+        String s = wrap(taint);
+        SourceSink.sink(s); // taint
+        StringBuilder sb = new StringBuilder();
+        sb.append(taint);
+        String t = sb.toString();
+        SourceSink.sink(t); // taint
+    }
+
+    static String wrap(String s) {
+        SourceSink.sink(s); // not analyzed as wrap() is summarized
+        return new String();
+    }
+}